@@ -1,31 +1,62 @@
 // src/main/java/org/dubytube/dubytube/AppContext.java
 package org.dubytube.dubytube;
 
+import org.dubytube.dubytube.ds.CandidatosSimilitud;
 import org.dubytube.dubytube.ds.GrafoSimilitud;
 import org.dubytube.dubytube.ds.GrafoSocial;
 import org.dubytube.dubytube.domain.Cancion;
 import org.dubytube.dubytube.domain.Role;
 import org.dubytube.dubytube.domain.Usuario;
+import org.dubytube.dubytube.repo.AmistadRepo;
 import org.dubytube.dubytube.repo.CancionRepo;
 import org.dubytube.dubytube.repo.UsuarioRepo;
 import org.dubytube.dubytube.repo.GeneroRepo;
 import org.dubytube.dubytube.services.CancionIndice;
+import org.dubytube.dubytube.services.MotorSimilitud;
+import org.dubytube.dubytube.services.PopularidadService;
 import org.dubytube.dubytube.services.RadioService;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 public final class AppContext {
 
     private static final CancionRepo     canciones  = new CancionRepo();
     private static final UsuarioRepo     usuarios   = new UsuarioRepo();
     private static final GeneroRepo      generos    = new GeneroRepo();
-    private static final GrafoSimilitud  similitud  = new GrafoSimilitud();
+    // Vecinos por canción en el grafo de similitud (disperso, O(n·k) aristas)
+    public static final int VECINOS_SIMILITUD = MotorSimilitud.VECINOS_POR_DEFECTO;
+    // Único grafo de similitud del catálogo, al día con cada alta, edición o baja
+    private static final MotorSimilitud  motor      = MotorSimilitud.crear(canciones);
     private static final GrafoSocial     social     = new GrafoSocial();
+    // Amistades persistidas: snapshot de aristas + diario de cambios
+    private static final AmistadRepo     amistades  = new AmistadRepo(social,
+            Paths.get("src/main/resources/data/amistades.snapshot"),
+            Paths.get("src/main/resources/data/amistades.journal"));
     // Índice compartido de títulos (Trie)
     private static final CancionIndice   indice     = new CancionIndice(canciones);
     // Servicio de reproducción tipo radio
-    private static final RadioService    radio      = new RadioService();
+    private static final RadioService    radio      = new RadioService(motor);
+    // Popularidad real (reproducciones y favoritos) que ordena las sugerencias
+    private static final PopularidadService popularidad = new PopularidadService();
+
+    static {
+        // Favoritos guardados como punto de partida; después, cada cambio
+        // llega por el repositorio de usuarios
+        popularidad.sembrarFavoritos(usuarios.findAll());
+        usuarios.addFavoritoListener(popularidad);
+        indice.setPopularidad(popularidad);
+        radio.addCancionChangeListener(popularidad::registrarReproduccion);
+
+        // Red social: todos los usuarios una sola vez, luego sus amistades guardadas
+        for (Usuario u : usuarios.findAll()) {
+            social.agregarUsuario(u);
+        }
+        amistades.cargar(username -> usuarios.find(username).orElse(null));
+    }
+
+    // Snapshot binario del índice de títulos (se valida contra la versión del catálogo)
+    private static final Path SNAPSHOT_INDICE = Paths.get("src/main/resources/data/indice.snapshot");
 
     // Flag para evitar re-sembrar
     private static boolean BOOTSTRAPPED = false;
@@ -35,15 +66,17 @@ public final class AppContext {
     public static CancionRepo getCancionRepo()      { return canciones; }
     public static UsuarioRepo getUsuarioRepo()      { return usuarios; }
     public static GeneroRepo getGeneroRepo()        { return generos; }
-    public static GrafoSimilitud getSimilitudGrafo(){ return similitud; }
+    public static GrafoSimilitud getSimilitudGrafo(){ return motor.getGrafo(); }
+    public static MotorSimilitud getMotorSimilitud(){ return motor; }
     public static GrafoSocial getSocialGrafo()      { return social; }
     public static CancionIndice getCancionIndice()  { return indice; }
     public static RadioService getRadioService()    { return radio; }
+    public static PopularidadService getPopularidadService() { return popularidad; }
     
     // Métodos legacy para compatibilidad
     public static CancionRepo canciones()   { return canciones; }
     public static UsuarioRepo usuarios()    { return usuarios; }
-    public static GrafoSimilitud similitud(){ return similitud; }
+    public static GrafoSimilitud similitud(){ return motor.getGrafo(); }
     public static GrafoSocial social()      { return social; }
     public static CancionIndice indice()    { return indice; }
 
@@ -74,43 +107,54 @@ public final class AppContext {
         // Siempre garantizamos que el índice esté actualizado
         reindex();
 
-        // (Re)construir el grafo de similitud con todo el catálogo actual
-        rebuildSimilarityGraph();
+        // El grafo de similitud ya incluye las canciones demo: el motor
+        // se construyó con el catálogo y recibe cada alta del repositorio
 
         BOOTSTRAPPED = true;
     }
 
-    /** Reindexa el trie de títulos con el catálogo actual. */
+    /**
+     * Carga inicial del trie de títulos con el catálogo actual. Después el
+     * índice se mantiene solo con los cambios del repositorio.
+     */
     public static void reindex() {
-        indice.indexarExistentes();
+        if (!indice.cargarSnapshot(SNAPSHOT_INDICE, canciones.getVersion())) {
+            indice.indexarExistentes();
+            indice.guardarSnapshot(SNAPSHOT_INDICE, canciones.getVersion());
+        }
+    }
+
+    /**
+     * Guarda el snapshot del índice con el catálogo actual, para que el
+     * próximo arranque no tenga que reconstruirlo. Llamar al cerrar la app.
+     */
+    public static void guardarIndice() {
+        indice.guardarSnapshot(SNAPSHOT_INDICE, canciones.getVersion());
     }
 
-    /** Reconstruye heurísticamente el grafo de similitud del catálogo actual. */
+    /**
+     * Cierra el diario de amistades y espera la compactación en curso.
+     * Llamar al cerrar la app.
+     */
+    public static void cerrarAmistades() {
+        amistades.cerrar();
+    }
+
+    /**
+     * Reconstruye desde cero el grafo de similitud del catálogo actual,
+     * conservando los {@value #VECINOS_SIMILITUD} vecinos más cercanos de cada canción.
+     */
     public static void rebuildSimilarityGraph() {
-        // Si tu clase GrafoSimilitud soporta limpiar, podrías llamar similitud.clear();
-        // Obtenemos una lista concreta para iterar sin casts peligrosos
-        List<Cancion> list = new ArrayList<>(canciones.findAll());
-
-        int n = list.size();
-        for (int i = 0; i < n; i++) {
-            for (int j = i + 1; j < n; j++) {
-                Cancion a = list.get(i);
-                Cancion b = list.get(j);
-
-                double score = 0;
-                if (eq(a.getArtista(), b.getArtista())) score += 5.0;
-                if (eq(a.getGenero(),  b.getGenero()))  score += 3.0;
-                int diff = Math.abs(a.getAnio() - b.getAnio());
-                if (diff <= 2)      score += 2.0;
-                else if (diff <= 5) score += 1.0;
-
-                double distancia = Math.max(0.5, 10.0 - score); // menor = más similar
-                similitud.agregarSimilitud(a.getId(), b.getId(), distancia);
-            }
-        }
+        rebuildSimilarityGraph(null);
     }
 
-    private static boolean eq(String x, String y) {
-        return x != null && y != null && x.equalsIgnoreCase(y);
+    /**
+     * Igual que {@link #rebuildSimilarityGraph()}, evaluando los pares en
+     * paralelo en todos los núcleos e informando el avance.
+     *
+     * @param progreso Avance por canciones procesadas (desde hilos de trabajo), o null
+     */
+    public static void rebuildSimilarityGraph(CandidatosSimilitud.Progreso progreso) {
+        motor.reconstruir(progreso);
     }
 }
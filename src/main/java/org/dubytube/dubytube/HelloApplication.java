@@ -31,4 +31,10 @@ public class HelloApplication extends Application {
         stage.setScene(scene);
         stage.show();
     }
+
+    @Override
+    public void stop() {
+        AppContext.guardarIndice();
+        AppContext.cerrarAmistades();
+    }
 }
@@ -1,5 +1,7 @@
 package org.dubytube.dubytube.domain;
 
+import org.dubytube.dubytube.util.TextoNormalizador;
+
 import java.util.Objects;
 
 /**
@@ -28,6 +30,12 @@ public class Cancion {
     
     /** Título de la canción */
     private String titulo;
+
+    /**
+     * Título normalizado para los índices de búsqueda (caché).
+     * Es transient para que no se guarde en JSON; se recalcula al cambiar el título.
+     */
+    private transient String tituloNormalizado;
     
     /** Nombre del artista o banda */
     private String artista;
@@ -91,6 +99,21 @@ public class Cancion {
      */
     public void setTitulo(String titulo) { 
         this.titulo = titulo; 
+        this.tituloNormalizado = null;
+    }
+
+    /**
+     * Obtiene el título normalizado (minúsculas, sin acentos ni signos).
+     * Se calcula una sola vez por título y se reutiliza en cada búsqueda.
+     * @return Título normalizado, o cadena vacía si no hay título
+     */
+    public String getTituloNormalizado() {
+        String t = tituloNormalizado;
+        if (t == null) {
+            t = TextoNormalizador.normalizar(titulo);
+            tituloNormalizado = t;
+        }
+        return t;
     }
     
     /**
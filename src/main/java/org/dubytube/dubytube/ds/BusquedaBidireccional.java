@@ -0,0 +1,153 @@
+package org.dubytube.dubytube.ds;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Camino más corto en un grafo no pesado con BFS bidireccional.
+ *
+ * <p>Avanza un nivel completo a la vez desde el lado con la frontera más
+ * chica. Si desde el origen y desde el destino hay que explorar b^d
+ * vértices, cada lado llega solo a profundidad d/2: del orden de la raíz
+ * cuadrada de lo que visitaría un BFS de un solo lado.</p>
+ *
+ * <p>Las colas, padres y distancias son arreglos primitivos que se
+ * reutilizan entre búsquedas, y los visitados son {@link BitSet}s de los
+ * que al terminar se borran solo los bits marcados. Una consulta no recorre
+ * O(V) posiciones, solo lo que realmente visitó.</p>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+final class BusquedaBidireccional {
+
+    private final Lado desdeOrigen = new Lado();
+    private final Lado desdeDestino = new Lado();
+
+    /**
+     * @param s Vértice origen
+     * @param t Vértice destino
+     * @param n Número de vértices (IDs en 0..n-1)
+     * @param vecinos Vecinos de cada vértice (primeras grado[u] posiciones)
+     * @param grado Número de vecinos de cada vértice
+     * @return Vértices del camino de s a t (ambos incluidos), o null si no hay camino
+     */
+    int[] buscar(int s, int t, int n, int[][] vecinos, int[] grado) {
+        if (s == t) {
+            return new int[]{s};
+        }
+
+        desdeOrigen.iniciar(s, n);
+        desdeDestino.iniciar(t, n);
+        try {
+            while (desdeOrigen.hayFrontera() && desdeDestino.hayFrontera()) {
+                boolean adelante = desdeOrigen.frontera() <= desdeDestino.frontera();
+                Lado lado = adelante ? desdeOrigen : desdeDestino;
+                Lado otro = adelante ? desdeDestino : desdeOrigen;
+
+                long encuentro = lado.expandirNivel(otro, vecinos, grado);
+                if (encuentro >= 0) {
+                    int x = (int) (encuentro >>> 32); // del lado expandido
+                    int w = (int) encuentro;          // ya visitado por el otro
+                    return adelante ? unir(x, w) : unir(w, x);
+                }
+            }
+            return null;
+        } finally {
+            desdeOrigen.limpiar();
+            desdeDestino.limpiar();
+        }
+    }
+
+    /** Camino origen..a seguido de b..destino (a y b adyacentes). */
+    private int[] unir(int a, int b) {
+        int largo = desdeOrigen.dist[a] + 1 + desdeDestino.dist[b] + 1;
+        int[] camino = new int[largo];
+        int i = desdeOrigen.dist[a];
+        for (int v = a; ; v = desdeOrigen.padre[v]) {
+            camino[i--] = v;
+            if (i < 0) break;
+        }
+        i = desdeOrigen.dist[a] + 1;
+        for (int v = b; i < largo; v = desdeDestino.padre[v]) {
+            camino[i++] = v;
+        }
+        return camino;
+    }
+
+    /** Estado de la búsqueda desde un extremo. */
+    private static final class Lado {
+        int[] cola = new int[0];   // visitados en orden; [inicioNivel, fin) es la frontera
+        int[] padre = new int[0];
+        int[] dist = new int[0];
+        final BitSet visitados = new BitSet();
+        int inicioNivel;
+        int fin;
+
+        void iniciar(int raiz, int n) {
+            if (cola.length < n) {
+                cola = Arrays.copyOf(cola, n);
+                padre = Arrays.copyOf(padre, n);
+                dist = Arrays.copyOf(dist, n);
+            }
+            cola[0] = raiz;
+            padre[raiz] = raiz;
+            dist[raiz] = 0;
+            visitados.set(raiz);
+            inicioNivel = 0;
+            fin = 1;
+        }
+
+        boolean hayFrontera() {
+            return inicioNivel < fin;
+        }
+
+        int frontera() {
+            return fin - inicioNivel;
+        }
+
+        /**
+         * Expande todo el nivel actual. Entre las aristas que tocan vértices
+         * ya visitados por el otro lado se queda con la que da el camino más
+         * corto; al ser un nivel completo, esa es la óptima.
+         *
+         * @return (x &lt;&lt; 32) | w para la mejor arista x-w, o -1 si no hubo encuentro
+         */
+        long expandirNivel(Lado otro, int[][] vecinos, int[] grado) {
+            int finNivel = fin;
+            long mejor = -1;
+            int mejorDist = Integer.MAX_VALUE;
+
+            for (int i = inicioNivel; i < finNivel; i++) {
+                int x = cola[i];
+                int[] a = vecinos[x];
+                for (int j = 0; j < grado[x]; j++) {
+                    int w = a[j];
+                    if (otro.visitados.get(w)) {
+                        if (otro.dist[w] < mejorDist) {
+                            mejorDist = otro.dist[w];
+                            mejor = ((long) x << 32) | w;
+                        }
+                    } else if (!visitados.get(w)) {
+                        visitados.set(w);
+                        padre[w] = x;
+                        dist[w] = dist[x] + 1;
+                        cola[fin++] = w;
+                    }
+                }
+            }
+
+            inicioNivel = finNivel;
+            return mejor;
+        }
+
+        /** Borra solo los bits que marcó esta búsqueda. */
+        void limpiar() {
+            for (int i = 0; i < fin; i++) {
+                visitados.clear(cola[i]);
+            }
+            inicioNivel = fin = 0;
+        }
+    }
+}
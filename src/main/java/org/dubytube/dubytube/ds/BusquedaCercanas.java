@@ -0,0 +1,92 @@
+package org.dubytube.dubytube.ds;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Dijkstra acotado a k resultados, compartido por los grafos de similitud.
+ *
+ * <p>La cola es un {@link MonticuloIndexado}: relajar baja la prioridad del
+ * vértice encolado, así que no hay entradas obsoletas y cada vértice sale
+ * una sola vez. La memoria de trabajo se reutiliza entre búsquedas: un
+ * vértice está fijado solo si su marca coincide con la generación actual, y
+ * el montículo se vacía recorriendo lo que quedó encolado, así que no hay
+ * que limpiar O(V) posiciones por consulta.</p>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+final class BusquedaCercanas {
+
+    /** Recorre las aristas salientes de un vértice. */
+    interface Aristas {
+        void recorrer(int u, Relajacion r);
+    }
+
+    /** Recibe cada arista (v, peso) del vértice que se está fijando. */
+    interface Relajacion {
+        void arista(int v, double peso);
+    }
+
+    private final MonticuloIndexado pq = new MonticuloIndexado(0);
+    private int[] marca = new int[0];
+    private int generacion;
+
+    // Estado de la búsqueda en curso (usado por la relajación)
+    private double base;
+
+    private final Relajacion relajar = (v, peso) -> {
+        if (marca[v] != generacion) {
+            pq.insertarODisminuir(v, base + peso);
+        }
+    };
+
+    /**
+     * @param s Vértice origen
+     * @param n Número de vértices del grafo
+     * @param k Número máximo de resultados
+     * @param aristas Acceso a las aristas
+     * @param id Traduce vértice a ID de canción
+     * @param filtro Canciones que cuentan como resultado, o null para todas;
+     *               las demás se recorren igual como parte de los caminos
+     * @return Las k canciones más cercanas que pasan el filtro (sin el origen)
+     */
+    List<GrafoCercania.Cercana> buscar(int s, int n, int k, Aristas aristas, IntFunction<String> id,
+                                       Predicate<String> filtro) {
+        List<GrafoCercania.Cercana> out = new ArrayList<>();
+        nuevaGeneracion(n);
+        pq.insertarODisminuir(s, 0.0);
+
+        while (!pq.isEmpty() && out.size() < k) {
+            int u = pq.extraerMin();
+            double d = pq.prioridad(u);
+            marca[u] = generacion; // fijado
+            if (u != s) {
+                String c = id.apply(u);
+                if (filtro == null || filtro.test(c)) out.add(new GrafoCercania.Cercana(c, d));
+            }
+
+            base = d;
+            aristas.recorrer(u, relajar);
+        }
+        pq.vaciar(); // solo lo que quedó encolado al cortar en k
+        return out;
+    }
+
+    /** Asegura capacidad y avanza la marca de la nueva búsqueda. */
+    private void nuevaGeneracion(int n) {
+        if (marca.length < n) {
+            marca = Arrays.copyOf(marca, Math.max(n, marca.length * 2));
+            pq.asegurarCapacidad(n);
+        }
+        if (generacion == Integer.MAX_VALUE) {
+            Arrays.fill(marca, 0);
+            generacion = 0;
+        }
+        generacion++;
+    }
+}
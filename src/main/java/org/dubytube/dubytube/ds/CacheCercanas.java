@@ -0,0 +1,225 @@
+package org.dubytube.dubytube.ds;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Caché LRU de las listas de canciones más cercanas, delante de un
+ * {@link GrafoCercania}.
+ *
+ * <p>Cada canción consultada guarda sus {@code vecinos} más cercanas (o
+ * más, si se pidieron más); las consultas con k menor o igual salen de
+ * memoria sin recorrer el grafo. Al superar {@code capacidad} canciones, o
+ * {@code capacidad · vecinos} cercanas guardadas en total, se descartan las
+ * usadas hace más tiempo; una lista más larga que ese total se devuelve sin
+ * guardarla. Así un k grande no puede llenar la memoria.</p>
+ *
+ * <p>Las consultas con filtro salen de memoria si la lista guardada alcanza;
+ * si no, van al grafo y no se guardan.</p>
+ *
+ * <p><b>Invalidación:</b> cuando cambian las aristas de una canción X, una
+ * lista cacheada de S solo puede cambiar si el camino de S a sus k primeras
+ * pasa por X o por un extremo de una arista modificada, es decir, si S o
+ * alguna canción de su lista está entre X y sus vecinos (antes o después del
+ * cambio). {@link #invalidar(Collection)} descarta exactamente esas entradas.</p>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+public class CacheCercanas implements GrafoCercania {
+
+    /**
+     * Lista cacheada y el k con el que se calculó.
+     */
+    private static final class Entrada {
+        final List<Cercana> lista;
+        final int k;
+
+        Entrada(List<Cercana> lista, int k) {
+            this.lista = lista;
+            this.k = k;
+        }
+    }
+
+    private final int vecinos;
+    private final long maxCercanas;
+    private final Map<String, Entrada> entradas;
+    private long totalCercanas; // suma de los tamaños de las listas guardadas
+    private GrafoCercania grafo;
+
+    /**
+     * Constructor.
+     *
+     * @param grafo Grafo consultado cuando la canción no está en caché
+     * @param capacidad Número máximo de canciones en caché
+     * @param vecinos Número mínimo de cercanas que se calculan por canción;
+     *                capacidad · vecinos acota el total de cercanas guardadas
+     * @throws IllegalArgumentException si capacidad o vecinos es menor que 1
+     */
+    public CacheCercanas(GrafoCercania grafo, int capacidad, int vecinos) {
+        if (capacidad < 1 || vecinos < 1) {
+            throw new IllegalArgumentException("Capacidad y vecinos deben ser al menos 1");
+        }
+        this.grafo = grafo;
+        this.vecinos = vecinos;
+        this.maxCercanas = (long) capacidad * vecinos;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                if (size() <= capacidad) {
+                    return false;
+                }
+                totalCercanas -= eldest.getValue().lista.size();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Las k canciones más cercanas a source, desde la caché si es posible.
+     * Complejidad: O(k) con acierto; la búsqueda acotada del grafo si no
+     */
+    @Override
+    public List<Cercana> masCercanas(String source, int k) {
+        if (source == null || k <= 0) {
+            return new ArrayList<>();
+        }
+
+        Entrada e = entradas.get(source);
+        if (e == null || e.k < k) {
+            int calcular = Math.max(k, vecinos);
+            e = new Entrada(grafo.masCercanas(source, calcular), calcular);
+            guardar(source, e);
+        }
+        return new ArrayList<>(e.lista.subList(0, Math.min(k, e.lista.size())));
+    }
+
+    /**
+     * Las k canciones más cercanas a source que cumplen el filtro. Sale de
+     * memoria si la lista guardada ya tiene k que lo cumplen o es completa
+     * (menos cercanas que las pedidas); si no, se consulta el grafo con el
+     * filtro y el resultado no se guarda.
+     * Complejidad: O(N) con acierto, donde N es el tamaño de la lista
+     * guardada; la búsqueda acotada del grafo si no
+     */
+    @Override
+    public List<Cercana> masCercanas(String source, int k, Predicate<String> filtro) {
+        if (source == null || k <= 0) {
+            return new ArrayList<>();
+        }
+
+        Entrada e = entradas.get(source);
+        if (e != null) {
+            List<Cercana> out = new ArrayList<>();
+            for (Cercana c : e.lista) {
+                if (filtro.test(c.id)) {
+                    out.add(c);
+                    if (out.size() == k) {
+                        return out;
+                    }
+                }
+            }
+            if (e.lista.size() < e.k) {
+                return out; // la lista guardada ya tiene todas las alcanzables
+            }
+        }
+        return grafo.masCercanas(source, k, filtro);
+    }
+
+    /**
+     * Descarta las entradas que pueden haber cambiado al modificarse las
+     * aristas de unas canciones.
+     * Complejidad: O(C · N) donde C es el número de entradas y N su tamaño
+     *
+     * @param afectadas Canción modificada junto con sus vecinos anteriores y nuevos
+     */
+    public void invalidar(Collection<String> afectadas) {
+        if (afectadas.isEmpty() || entradas.isEmpty()) {
+            return;
+        }
+
+        Set<String> ids = afectadas instanceof Set ? (Set<String>) afectadas : new HashSet<>(afectadas);
+        entradas.entrySet().removeIf(e -> {
+            if (ids.contains(e.getKey()) || contieneAlguna(e.getValue().lista, ids)) {
+                totalCercanas -= e.getValue().lista.size();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Cambia el grafo consultado conservando las entradas. Solo es correcto
+     * si las entradas afectadas por la diferencia ya se invalidaron.
+     *
+     * @param grafo Nuevo grafo
+     */
+    public void setGrafo(GrafoCercania grafo) {
+        this.grafo = grafo;
+    }
+
+    /**
+     * Vacía la caché.
+     */
+    public void clear() {
+        entradas.clear();
+        totalCercanas = 0;
+    }
+
+    /**
+     * Obtiene el número de canciones en caché.
+     *
+     * @return Cantidad de entradas
+     */
+    public int size() {
+        return entradas.size();
+    }
+
+    /**
+     * Obtiene el número de cercanas guardadas entre todas las entradas.
+     *
+     * @return Suma de los tamaños de las listas en caché
+     */
+    public long totalCercanas() {
+        return totalCercanas;
+    }
+
+    /**
+     * Guarda una entrada y descarta las usadas hace más tiempo hasta que el
+     * total de cercanas vuelva a caber. Una lista que no cabe ni sola no se
+     * guarda (la entrada anterior de la canción, más corta, se conserva).
+     */
+    private void guardar(String source, Entrada e) {
+        if (e.lista.size() > maxCercanas) {
+            return;
+        }
+        Entrada anterior = entradas.put(source, e);
+        if (anterior != null) {
+            totalCercanas -= anterior.lista.size();
+        }
+        totalCercanas += e.lista.size();
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (totalCercanas > maxCercanas) {
+            Entrada vieja = it.next(); // nunca llega a e: es la más reciente y cabe sola
+            totalCercanas -= vieja.lista.size();
+            it.remove();
+        }
+    }
+
+    private static boolean contieneAlguna(List<Cercana> lista, Set<String> ids) {
+        for (Cercana c : lista) {
+            if (ids.contains(c.id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
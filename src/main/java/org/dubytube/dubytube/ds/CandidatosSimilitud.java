@@ -0,0 +1,885 @@
+package org.dubytube.dubytube.ds;
+
+import org.dubytube.dubytube.domain.Cancion;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Generador de pares candidatos para construir grafos de similitud sin
+ * comparar todas las canciones contra todas.
+ *
+ * <p>Todas las métricas de similitud del proyecto solo suman puntos por
+ * artista compartido, género compartido y cercanía de año o duración. Por
+ * eso basta con agrupar las canciones en bloques y comparar únicamente las
+ * que comparten al menos un bloque:</p>
+ * <ul>
+ *   <li>Mismo artista (sin distinguir mayúsculas)</li>
+ *   <li>Mismo género (sin distinguir mayúsculas); con
+ *       {@link #porArtistaYGeneroCercano(int)}, solo las m canciones del
+ *       género más próximas en año a cada una</li>
+ *   <li>Años a distancia de a lo sumo {@code ventanaAnios} (opcional)</li>
+ *   <li>Duraciones a distancia de a lo sumo {@code ventanaDuracion}
+ *       segundos (opcional)</li>
+ * </ul>
+ *
+ * <p>Cada par se entrega una sola vez aunque comparta varios bloques. El
+ * costo es O(n log n + P) donde P es el número de pares candidatos, en
+ * lugar de O(n²). Un bloque de género entero sigue siendo cuadrático en su
+ * tamaño; con el corte por año los pares de género son a lo sumo n · m.</p>
+ *
+ * <p>{@link #paraCadaParParalelo} reparte las filas del triángulo superior
+ * entre los hilos de un {@link ForkJoinPool}: cada tarea evalúa sus pares en
+ * un búfer propio y los búferes se vuelcan después en el hilo que llama, de
+ * modo que el grafo destino no necesita sincronización.</p>
+ *
+ * <p>Para mantener un grafo al día sin reconstruirlo, {@link #nuevoIndice()}
+ * crea un {@link IndiceBloques} con los mismos bloques que se actualiza
+ * canción por canción.</p>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+public class CandidatosSimilitud {
+
+    /** Valor de ventana que desactiva el bloque correspondiente. */
+    public static final int SIN_VENTANA = -1;
+
+    /** Por debajo de este número de canciones no compensa repartir el trabajo. */
+    private static final int MINIMO_PARALELO = 512;
+
+    /**
+     * Diferencia de años desde la que un par que solo comparte género ya no
+     * se acerca: la métrica del motor le da distancia 1.0, igual que a dos
+     * canciones sin nada en común.
+     */
+    private static final int TOPE_ANIOS = 40;
+
+    /**
+     * Recibe las aristas evaluadas al volcar los búferes.
+     */
+    @FunctionalInterface
+    public interface Destino {
+        void arista(Cancion a, Cancion b, double peso);
+    }
+
+    /**
+     * Peso de la arista entre las canciones de dos posiciones de la lista.
+     */
+    @FunctionalInterface
+    public interface PesoPorPosicion {
+        double peso(int i, int j);
+    }
+
+    /**
+     * Avance de la construcción. Se invoca desde los hilos de trabajo, así
+     * que una interfaz gráfica debe pasar el valor a su propio hilo.
+     */
+    @FunctionalInterface
+    public interface Progreso {
+        void avance(int filasHechas, int filasTotales);
+    }
+
+    private final boolean porArtista;
+    private final boolean porGenero;
+    private final int ventanaAnios;
+    private final int ventanaDuracion;
+    private final int cercanasPorGenero; // 0: el género entero es un bloque
+
+    /**
+     * Constructor.
+     *
+     * @param porArtista Generar pares de canciones del mismo artista
+     * @param porGenero Generar pares de canciones del mismo género
+     * @param ventanaAnios Máxima diferencia de año para emparejar, o {@link #SIN_VENTANA}
+     * @param ventanaDuracion Máxima diferencia de duración (segundos), o {@link #SIN_VENTANA}
+     */
+    public CandidatosSimilitud(boolean porArtista, boolean porGenero, int ventanaAnios, int ventanaDuracion) {
+        this(porArtista, porGenero, ventanaAnios, ventanaDuracion, 0);
+    }
+
+    private CandidatosSimilitud(boolean porArtista, boolean porGenero, int ventanaAnios, int ventanaDuracion,
+                                int cercanasPorGenero) {
+        this.porArtista = porArtista;
+        this.porGenero = porGenero;
+        this.ventanaAnios = ventanaAnios;
+        this.ventanaDuracion = ventanaDuracion;
+        this.cercanasPorGenero = cercanasPorGenero;
+    }
+
+    /**
+     * Bloques por artista y por género, sin ventanas numéricas: los pares
+     * que solo se parecen en año o duración no se generan.
+     *
+     * @return Generador por artista o género
+     */
+    public static CandidatosSimilitud porArtistaOGenero() {
+        return new CandidatosSimilitud(true, true, SIN_VENTANA, SIN_VENTANA);
+    }
+
+    /**
+     * Bloques por artista enteros y, dentro de cada género, solo las
+     * {@code cercanas} canciones más próximas en año a cada una (a igual
+     * diferencia, la de menor ID) con menos de {@value #TOPE_ANIOS} años de
+     * diferencia. Un par de género se genera si cualquiera de las dos está
+     * entre las cercanas de la otra.
+     *
+     * <p>Con la métrica del motor, los k vecinos más cercanos de cada
+     * canción (k &lt;= cercanas, desempate por ID) que quedan por debajo de
+     * distancia 1.0 están siempre entre sus candidatas: una canción de su
+     * género que no entró tiene delante al menos {@code cercanas} canciones
+     * a distancia menor, o igual y con menor ID. Los pares de género son a
+     * lo sumo n · cercanas, aunque todo el catálogo sea de un género.</p>
+     *
+     * @param cercanas Canciones del mismo género a emparejar con cada una
+     * @return Generador por artista y género cortado por año
+     * @throws IllegalArgumentException si cercanas es menor que 1
+     */
+    public static CandidatosSimilitud porArtistaYGeneroCercano(int cercanas) {
+        if (cercanas < 1) {
+            throw new IllegalArgumentException("cercanas debe ser al menos 1");
+        }
+        return new CandidatosSimilitud(true, true, SIN_VENTANA, SIN_VENTANA, cercanas);
+    }
+
+    /**
+     * Recorre cada par candidato (a, b) una sola vez.
+     *
+     * @param canciones Canciones a emparejar
+     * @param accion Acción a ejecutar por cada par
+     */
+    public void paraCadaPar(Collection<Cancion> canciones, BiConsumer<Cancion, Cancion> accion) {
+        Bloques b = new Bloques(new ArrayList<>(canciones));
+        int[] marca = b.nuevasMarcas();
+        for (int i = 0; i < b.n; i++) {
+            Cancion a = b.lista.get(i);
+            b.recorrerFila(i, marca, j -> accion.accept(a, b.lista.get(j)));
+        }
+    }
+
+    /**
+     * Evalúa en paralelo cada par candidato y entrega las aristas al destino
+     * desde el hilo que llama, una vez evaluados todos los pares.
+     * Complejidad: O((n log n + P) / hilos) para evaluar, O(P) para volcar
+     *
+     * @param canciones Canciones a emparejar
+     * @param peso Peso de la arista de cada par; {@link Double#NaN} la descarta
+     *             (se llama desde varios hilos a la vez)
+     * @param destino Receptor de las aristas (llamado desde un solo hilo)
+     * @param progreso Avance por filas procesadas, o null
+     */
+    public void paraCadaParParalelo(Collection<Cancion> canciones, ToDoubleBiFunction<Cancion, Cancion> peso,
+                                    Destino destino, Progreso progreso) {
+        List<Cancion> lista = new ArrayList<>(canciones);
+        paraCadaParParaleloPorPosicion(lista, (i, j) -> peso.applyAsDouble(lista.get(i), lista.get(j)), destino, progreso);
+    }
+
+    /**
+     * Igual que {@link #paraCadaParParalelo(Collection, ToDoubleBiFunction, Destino, Progreso)},
+     * con el peso calculado a partir de las posiciones en la lista (por
+     * ejemplo, sobre columnas de {@link RasgosCanciones}).
+     *
+     * @param canciones Canciones a emparejar, en el orden de las posiciones
+     * @param peso Peso de la arista entre dos posiciones; {@link Double#NaN} la descarta
+     * @param destino Receptor de las aristas (llamado desde un solo hilo)
+     * @param progreso Avance por filas procesadas, o null
+     */
+    public void paraCadaParParaleloPorPosicion(List<Cancion> canciones, PesoPorPosicion peso,
+                                               Destino destino, Progreso progreso) {
+        Bloques b = new Bloques(canciones);
+        AtomicInteger hechas = new AtomicInteger();
+        int hilos = ForkJoinPool.commonPool().getParallelism();
+        int tramo = b.n < MINIMO_PARALELO ? Math.max(1, b.n) : Math.max(16, b.n / (hilos * 8));
+
+        Tarea raiz = new Tarea(b, 0, b.n, tramo, peso, hechas, progreso);
+        if (b.n < MINIMO_PARALELO) {
+            raiz.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(raiz);
+        }
+        raiz.volcar(b.lista, destino);
+    }
+
+    /**
+     * Índice de bloques vacío, con los mismos criterios que este generador.
+     *
+     * @return Índice mutable de bloques
+     */
+    public IndiceBloques nuevoIndice() {
+        return new IndiceBloques();
+    }
+
+    /**
+     * Bloques mutables para buscar las candidatas de una canción sin recorrer
+     * el catálogo. Guarda las claves con que se indexó cada canción, así que
+     * una canción editada en el lugar se puede sacar de sus bloques viejos.
+     * El orden por año se mantiene siempre, aunque la ventana de años esté
+     * desactivada, para {@link #masCercanasPorAnio}.
+     */
+    public final class IndiceBloques {
+        private final Map<String, Entrada> entradas = new HashMap<>();
+        private final Map<String, Set<String>> artistas = new HashMap<>();
+        private final Map<String, Set<String>> generos = new HashMap<>();
+        private final GenerosPorAnio generosPorAnio =
+                cercanasPorGenero > 0 ? new GenerosPorAnio(cercanasPorGenero) : null;
+        private final TreeMap<Integer, Set<String>> anios = new TreeMap<>();
+        private final TreeMap<Integer, Set<String>> duraciones = new TreeMap<>();
+
+        private IndiceBloques() {
+        }
+
+        /**
+         * Agrega una canción, o la reubica si ya estaba indexada.
+         * Complejidad: O(log n)
+         */
+        public void agregar(Cancion c) {
+            quitar(c.getId());
+            Entrada e = new Entrada(c);
+            entradas.put(c.getId(), e);
+            if (porArtista && e.artista != null) {
+                artistas.computeIfAbsent(e.artista, x -> new HashSet<>()).add(e.id);
+            }
+            if (porGenero && e.genero != null) {
+                if (generosPorAnio != null) {
+                    generosPorAnio.agregar(e.genero, e.anio, e.id);
+                } else {
+                    generos.computeIfAbsent(e.genero, x -> new HashSet<>()).add(e.id);
+                }
+            }
+            anios.computeIfAbsent(e.anio, x -> new HashSet<>()).add(e.id);
+            if (ventanaDuracion >= 0) {
+                duraciones.computeIfAbsent(e.duracion, x -> new HashSet<>()).add(e.id);
+            }
+        }
+
+        /**
+         * Saca una canción de sus bloques.
+         * Complejidad: O(log n)
+         *
+         * @return true si estaba indexada
+         */
+        public boolean quitar(String id) {
+            Entrada e = entradas.remove(id);
+            if (e == null) {
+                return false;
+            }
+            sacar(artistas, e.artista, id);
+            sacar(generos, e.genero, id);
+            if (generosPorAnio != null && e.genero != null) {
+                generosPorAnio.quitar(e.genero, e.anio, id);
+            }
+            sacar(anios, e.anio, id);
+            sacar(duraciones, e.duracion, id);
+            return true;
+        }
+
+        /** Canción indexada con ese ID, o null. */
+        public Cancion get(String id) {
+            Entrada e = entradas.get(id);
+            return e == null ? null : e.cancion;
+        }
+
+        /**
+         * Canciones que comparten algún bloque con una canción indexada, sin
+         * incluirla y sin repetir. Son las mismas que la emparejarían en
+         * {@link #paraCadaPar}.
+         * Complejidad: O(tamaño de sus bloques); con el corte por año, el
+         * género aporta O(m + años recorridos) más las canciones que la
+         * tienen entre sus cercanas
+         *
+         * @param id Canción indexada
+         * @return Candidatas (vacío si no está indexada)
+         */
+        public List<Cancion> candidatas(String id) {
+            Entrada e = entradas.get(id);
+            if (e == null) {
+                return new ArrayList<>();
+            }
+            Set<String> ids = new HashSet<>();
+            if (e.artista != null) {
+                ids.addAll(artistas.getOrDefault(e.artista, Set.of()));
+            }
+            if (e.genero != null) {
+                if (generosPorAnio != null) {
+                    ids.addAll(generosPorAnio.cercanas(e.genero, e.anio, id));
+                    ids.addAll(generosPorAnio.queLaIncluyen(e.genero, e.anio, id));
+                } else {
+                    ids.addAll(generos.getOrDefault(e.genero, Set.of()));
+                }
+            }
+            if (ventanaAnios >= 0) {
+                enVentana(anios, e.anio, ventanaAnios).forEach(ids::addAll);
+            }
+            if (ventanaDuracion >= 0) {
+                enVentana(duraciones, e.duracion, ventanaDuracion).forEach(ids::addAll);
+            }
+            ids.remove(id);
+
+            List<Cancion> out = new ArrayList<>(ids.size());
+            for (String otro : ids) {
+                out.add(entradas.get(otro).cancion);
+            }
+            return out;
+        }
+
+        /**
+         * Canciones indexadas más próximas en año a una canción indexada,
+         * sin incluirla ni las de {@code excluir}. Sirve de respaldo cuando
+         * una canción no comparte bloque con suficientes otras. Dentro de un
+         * mismo año se desempata por ID; a igual diferencia, primero el año
+         * anterior.
+         * Complejidad: O(log n) por año recorrido, más sus canciones
+         *
+         * @param id Canción indexada
+         * @param k Número máximo de canciones
+         * @param excluir Canciones que no deben devolverse
+         * @return Canciones de la más próxima en año a la menos (vacío si no está indexada)
+         */
+        public List<Cancion> masCercanasPorAnio(String id, int k, Predicate<String> excluir) {
+            List<Cancion> out = new ArrayList<>();
+            Entrada e = entradas.get(id);
+            if (e == null) {
+                return out;
+            }
+            Integer abajo = anios.floorKey(e.anio);
+            Integer arriba = anios.higherKey(e.anio);
+            while (out.size() < k && (abajo != null || arriba != null)) {
+                int anio;
+                if (arriba == null || (abajo != null && (long) e.anio - abajo <= (long) arriba - e.anio)) {
+                    anio = abajo;
+                    abajo = anios.lowerKey(abajo);
+                } else {
+                    anio = arriba;
+                    arriba = anios.higherKey(arriba);
+                }
+                List<String> bloque = new ArrayList<>(anios.get(anio));
+                Collections.sort(bloque);
+                for (String otro : bloque) {
+                    if (out.size() == k) {
+                        break;
+                    }
+                    if (!otro.equals(id) && !excluir.test(otro)) {
+                        out.add(entradas.get(otro).cancion);
+                    }
+                }
+            }
+            return out;
+        }
+
+        public int size() {
+            return entradas.size();
+        }
+
+        /** Bloques con valor en [valor - ancho, valor + ancho], sin desbordar. */
+        private Collection<Set<String>> enVentana(TreeMap<Integer, Set<String>> bloques, int valor, int ancho) {
+            int desde = (int) Math.max(Integer.MIN_VALUE, (long) valor - ancho);
+            int hasta = (int) Math.min(Integer.MAX_VALUE, (long) valor + ancho);
+            return bloques.subMap(desde, true, hasta, true).values();
+        }
+
+        private <K> void sacar(Map<K, Set<String>> bloques, K k, String id) {
+            if (k == null) {
+                return;
+            }
+            Set<String> bloque = bloques.get(k);
+            if (bloque != null && bloque.remove(id) && bloque.isEmpty()) {
+                bloques.remove(k);
+            }
+        }
+    }
+
+    /** Claves con que se indexó una canción. */
+    private static final class Entrada {
+        final String id;
+        final Cancion cancion;
+        final String artista;
+        final String genero;
+        final int anio;
+        final int duracion;
+
+        Entrada(Cancion c) {
+            this.id = c.getId();
+            this.cancion = c;
+            this.artista = plegar(c.getArtista());
+            this.genero = plegar(c.getGenero());
+            this.anio = c.getAnio();
+            this.duracion = c.getDuracionSeg();
+        }
+    }
+
+    /**
+     * Bloques de candidatos de una lista de canciones. Solo se leen una vez
+     * construidos, así que varias tareas pueden recorrerlos a la vez.
+     */
+    private final class Bloques {
+        final List<Cancion> lista;
+        final int n;
+        final Map<String, List<Integer>> artistas;
+        final Map<String, List<Integer>> generos;
+        final int[][] cercanas;   // por posición: cercanas de su género, o null
+        final int[][] incluidaEn; // por posición: quienes la tienen entre sus cercanas
+        final Ventana anios;
+        final Ventana duraciones;
+
+        Bloques(List<Cancion> lista) {
+            this.lista = lista;
+            this.n = lista.size();
+            this.artistas = porArtista ? agrupar(lista, Cancion::getArtista) : Map.of();
+            this.generos = porGenero && cercanasPorGenero == 0 ? agrupar(lista, Cancion::getGenero) : Map.of();
+            if (porGenero && cercanasPorGenero > 0) {
+                this.cercanas = new int[n][];
+                this.incluidaEn = new int[n][];
+                cercanasPorGenero(lista, cercanas, incluidaEn);
+            } else {
+                this.cercanas = null;
+                this.incluidaEn = null;
+            }
+            this.anios = ventanaAnios >= 0 ? new Ventana(lista, Cancion::getAnio, ventanaAnios) : null;
+            this.duraciones = ventanaDuracion >= 0 ? new Ventana(lista, Cancion::getDuracionSeg, ventanaDuracion) : null;
+        }
+
+        /** marca[j] == i indica que el par (i, j) ya se entregó en esta vuelta. */
+        int[] nuevasMarcas() {
+            int[] marca = new int[n];
+            Arrays.fill(marca, -1);
+            return marca;
+        }
+
+        /** Entrega cada j &gt; i que comparte algún bloque con i, una sola vez. */
+        void recorrerFila(int i, int[] marca, IntConsumer accion) {
+            Cancion a = lista.get(i);
+            IntConsumer emitir = j -> {
+                if (j > i && marca[j] != i) {
+                    marca[j] = i;
+                    accion.accept(j);
+                }
+            };
+
+            recorrerBloque(artistas, plegar(a.getArtista()), emitir);
+            recorrerBloque(generos, plegar(a.getGenero()), emitir);
+            if (cercanas != null) {
+                for (int j : cercanas[i]) {
+                    emitir.accept(j);
+                }
+                for (int j : incluidaEn[i]) {
+                    emitir.accept(j);
+                }
+            }
+            if (anios != null) {
+                anios.recorrerVecinos(i, emitir);
+            }
+            if (duraciones != null) {
+                duraciones.recorrerVecinos(i, emitir);
+            }
+        }
+    }
+
+    /**
+     * Calcula, para cada posición, sus cercanas de género y las posiciones
+     * que la tienen entre las suyas (la relación inversa).
+     * Complejidad: O(n · (m + años recorridos) · log n)
+     */
+    private void cercanasPorGenero(List<Cancion> lista, int[][] cercanas, int[][] incluidaEn) {
+        int n = lista.size();
+        GenerosPorAnio porAnio = new GenerosPorAnio(cercanasPorGenero);
+        Map<String, Integer> posicion = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Cancion c = lista.get(i);
+            posicion.put(c.getId(), i);
+            String genero = plegar(c.getGenero());
+            if (genero != null) {
+                porAnio.agregar(genero, c.getAnio(), c.getId());
+            }
+        }
+
+        int[] inversas = new int[n];
+        for (int i = 0; i < n; i++) {
+            Cancion c = lista.get(i);
+            String genero = plegar(c.getGenero());
+            List<String> ids = genero == null ? List.of() : porAnio.cercanas(genero, c.getAnio(), c.getId());
+            cercanas[i] = new int[ids.size()];
+            for (int k = 0; k < ids.size(); k++) {
+                cercanas[i][k] = posicion.get(ids.get(k));
+                inversas[cercanas[i][k]]++;
+            }
+        }
+        for (int j = 0; j < n; j++) {
+            incluidaEn[j] = new int[inversas[j]];
+            inversas[j] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j : cercanas[i]) {
+                incluidaEn[j][inversas[j]++] = i;
+            }
+        }
+    }
+
+    /**
+     * Evalúa las filas [desde, hasta) partiéndolas por la mitad hasta llegar
+     * al tramo mínimo. Cada hoja guarda sus aristas en arreglos propios.
+     */
+    // RecursiveAction es Serializable por herencia, pero una Tarea solo vive
+    // durante una construcción y nunca se serializa
+    @SuppressWarnings("serial")
+    private static final class Tarea extends RecursiveAction {
+        private final Bloques bloques;
+        private final int desde;
+        private final int hasta;
+        private final int tramo;
+        private final PesoPorPosicion peso;
+        private final AtomicInteger hechas;
+        private final Progreso progreso;
+
+        private Tarea izquierda;
+        private Tarea derecha;
+
+        // Búfer de la hoja: aristas (origen[e], destino[e], pesos[e])
+        private int[] origen = new int[0];
+        private int[] destino = new int[0];
+        private double[] pesos = new double[0];
+        private int size;
+
+        Tarea(Bloques bloques, int desde, int hasta, int tramo, PesoPorPosicion peso,
+              AtomicInteger hechas, Progreso progreso) {
+            this.bloques = bloques;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.tramo = tramo;
+            this.peso = peso;
+            this.hechas = hechas;
+            this.progreso = progreso;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > tramo) {
+                int medio = (desde + hasta) >>> 1;
+                izquierda = new Tarea(bloques, desde, medio, tramo, peso, hechas, progreso);
+                derecha = new Tarea(bloques, medio, hasta, tramo, peso, hechas, progreso);
+                invokeAll(izquierda, derecha);
+                return;
+            }
+
+            int[] marca = bloques.nuevasMarcas();
+            for (int i = desde; i < hasta; i++) {
+                final int fila = i;
+                bloques.recorrerFila(i, marca, j -> {
+                    double w = peso.peso(fila, j);
+                    if (!Double.isNaN(w)) {
+                        agregar(fila, j, w);
+                    }
+                });
+            }
+            int total = hechas.addAndGet(hasta - desde);
+            if (progreso != null) {
+                progreso.avance(total, bloques.n);
+            }
+        }
+
+        private void agregar(int i, int j, double w) {
+            if (size == origen.length) {
+                int cap = Math.max(16, size * 2);
+                origen = Arrays.copyOf(origen, cap);
+                destino = Arrays.copyOf(destino, cap);
+                pesos = Arrays.copyOf(pesos, cap);
+            }
+            origen[size] = i;
+            destino[size] = j;
+            pesos[size] = w;
+            size++;
+        }
+
+        /** Vuelca las aristas en orden de filas, sin importar qué hilo las evaluó. */
+        void volcar(List<Cancion> lista, Destino salida) {
+            if (izquierda != null) {
+                izquierda.volcar(lista, salida);
+                derecha.volcar(lista, salida);
+                return;
+            }
+            for (int e = 0; e < size; e++) {
+                salida.arista(lista.get(origen[e]), lista.get(destino[e]), pesos[e]);
+            }
+        }
+    }
+
+    /**
+     * Agrupa las posiciones de las canciones por un atributo de texto.
+     */
+    private static Map<String, List<Integer>> agrupar(List<Cancion> lista, Function<Cancion, String> atributo) {
+        Map<String, List<Integer>> bloques = new HashMap<>();
+        for (int i = 0; i < lista.size(); i++) {
+            String k = plegar(atributo.apply(lista.get(i)));
+            if (k != null) {
+                bloques.computeIfAbsent(k, x -> new ArrayList<>()).add(i);
+            }
+        }
+        return bloques;
+    }
+
+    private static void recorrerBloque(Map<String, List<Integer>> bloques, String k, IntConsumer emitir) {
+        if (k == null) {
+            return;
+        }
+        List<Integer> bloque = bloques.get(k);
+        if (bloque != null) {
+            for (int j : bloque) {
+                emitir.accept(j);
+            }
+        }
+    }
+
+    /**
+     * Clave de bloque de un artista o género: el texto plegado salvo
+     * mayúsculas con la misma regla que {@link String#equalsIgnoreCase(String)},
+     * carácter a carácter pasado a mayúscula y luego a minúscula. Dos textos
+     * son iguales sin distinguir mayúsculas si y solo si sus claves son
+     * iguales, así que los bloques nunca separan dos canciones que las
+     * métricas consideran del mismo artista o género.
+     * Complejidad: O(L)
+     *
+     * @param valor Texto a plegar
+     * @return Texto plegado, o null si valor es null
+     */
+    public static String plegar(String valor) {
+        if (valor == null) {
+            return null;
+        }
+
+        char[] clave = new char[valor.length()];
+        for (int k = 0; k < clave.length; k++) {
+            clave[k] = Character.toLowerCase(Character.toUpperCase(valor.charAt(k)));
+        }
+        return new String(clave);
+    }
+
+    /**
+     * Canciones de cada género agrupadas por año y, dentro del año,
+     * ordenadas por ID. Permite hallar las m canciones del género más
+     * próximas en año a una canción, y las canciones que la tienen entre las
+     * suyas, sin recorrer el género entero.
+     *
+     * <p>El orden de cercanía es (diferencia de años, ID), sin llegar a
+     * {@value #TOPE_ANIOS} años de diferencia. Las claves de género ya vienen
+     * plegadas.</p>
+     */
+    private static final class GenerosPorAnio {
+        private final int m;
+        private final Map<String, TreeMap<Integer, TreeSet<String>>> generos = new HashMap<>();
+
+        GenerosPorAnio(int m) {
+            this.m = m;
+        }
+
+        void agregar(String genero, int anio, String id) {
+            generos.computeIfAbsent(genero, x -> new TreeMap<>())
+                    .computeIfAbsent(anio, x -> new TreeSet<>()).add(id);
+        }
+
+        void quitar(String genero, int anio, String id) {
+            TreeMap<Integer, TreeSet<String>> anios = generos.get(genero);
+            if (anios == null) {
+                return;
+            }
+            TreeSet<String> bloque = anios.get(anio);
+            if (bloque != null && bloque.remove(id) && bloque.isEmpty()) {
+                anios.remove(anio);
+                if (anios.isEmpty()) {
+                    generos.remove(genero);
+                }
+            }
+        }
+
+        /**
+         * Las m canciones del género más próximas a (anio, id), sin incluirla,
+         * en orden de cercanía.
+         * Complejidad: O((m + años recorridos) · log n)
+         */
+        List<String> cercanas(String genero, int anio, String id) {
+            List<String> out = new ArrayList<>(m);
+            TreeMap<Integer, TreeSet<String>> anios = generos.get(genero);
+            if (anios == null) {
+                return out;
+            }
+            Integer abajo = anios.floorKey(anio);
+            Integer arriba = anios.higherKey(anio);
+            while (out.size() < m) {
+                long dAbajo = abajo == null ? Long.MAX_VALUE : (long) anio - abajo;
+                long dArriba = arriba == null ? Long.MAX_VALUE : (long) arriba - anio;
+                long d = Math.min(dAbajo, dArriba);
+                if (d >= TOPE_ANIOS) {
+                    break;
+                }
+                // A igual diferencia, los dos años se recorren juntos por ID
+                Iterator<String> a = d == dAbajo ? anios.get(abajo).iterator() : Collections.emptyIterator();
+                Iterator<String> b = d == dArriba ? anios.get(arriba).iterator() : Collections.emptyIterator();
+                String x = siguiente(a, id);
+                String y = siguiente(b, id);
+                while (out.size() < m && (x != null || y != null)) {
+                    if (y == null || (x != null && x.compareTo(y) < 0)) {
+                        out.add(x);
+                        x = siguiente(a, id);
+                    } else {
+                        out.add(y);
+                        y = siguiente(b, id);
+                    }
+                }
+                if (d == dAbajo) {
+                    abajo = anios.lowerKey(abajo);
+                }
+                if (d == dArriba) {
+                    arriba = anios.higherKey(arriba);
+                }
+            }
+            return out;
+        }
+
+        /**
+         * Canciones del género que tienen a (anio, id) entre sus cercanas.
+         *
+         * <p>Para una canción c a d años, las que van antes que (anio, id) en
+         * su orden son las que están a menos de d años de c y las que están
+         * a exactamente d años con menor ID. Ese número es el mismo para
+         * todo el año de c (salvo c misma), así que se decide por año. Un
+         * lado se deja de recorrer cuando entre (anio, id) y el año actual
+         * ya hay más de m canciones: las de más allá tienen por lo menos esas
+         * delante.</p>
+         * Complejidad: O(años recorridos² + resultado)
+         */
+        List<String> queLaIncluyen(String genero, int anio, String id) {
+            List<String> out = new ArrayList<>();
+            TreeMap<Integer, TreeSet<String>> anios = generos.get(genero);
+            if (anios == null) {
+                return out;
+            }
+            TreeSet<String> propio = anios.get(anio);
+            int menoresPropio = propio == null ? 0 : menores(propio, id);
+            if (propio != null && menoresPropio <= m) {
+                for (String c : propio) {
+                    // las del mismo año con menor ID que c no la cuentan a ella
+                    int delante = c.compareTo(id) < 0 ? menoresPropio - 1 : menoresPropio;
+                    if (!c.equals(id) && delante < m) {
+                        out.add(c);
+                    }
+                }
+            }
+            for (int lado = -1; lado <= 1; lado += 2) {
+                int entre = 0; // canciones de los años ya recorridos de este lado
+                for (Integer y = siguienteAnio(anios, anio, lado); y != null; y = siguienteAnio(anios, y, lado)) {
+                    long d = Math.abs((long) y - anio);
+                    if (d >= TOPE_ANIOS) {
+                        break;
+                    }
+                    TreeSet<String> bloque = anios.get(y);
+                    // a menos de d años de c: años estrictamente entre anio y anio + 2d, salvo c
+                    int delante = contarEntre(anios, anio, anio + 2 * lado * d) - 1
+                            + menoresPropio + menores(anios.get((int) (anio + 2 * lado * d)), id);
+                    if (delante < m) {
+                        out.addAll(bloque);
+                    }
+                    entre += bloque.size();
+                    if (entre > m) {
+                        break;
+                    }
+                }
+            }
+            return out;
+        }
+
+        /** IDs del bloque menores que id, contando a lo sumo m + 1. */
+        private int menores(TreeSet<String> bloque, String id) {
+            if (bloque == null) {
+                return 0;
+            }
+            int cuenta = 0;
+            for (String otro : bloque) {
+                if (otro.compareTo(id) >= 0 || cuenta > m) {
+                    break;
+                }
+                cuenta++;
+            }
+            return cuenta;
+        }
+
+        /** Canciones con año estrictamente entre desde y hasta (en cualquier orden), hasta pasar de m + 1. */
+        private int contarEntre(TreeMap<Integer, TreeSet<String>> anios, long desde, long hasta) {
+            long lo = Math.min(desde, hasta);
+            long hi = Math.max(desde, hasta);
+            if (hi - lo < 2) {
+                return 0;
+            }
+            int cuenta = 0;
+            for (TreeSet<String> bloque : anios.subMap((int) lo, false, (int) hi, false).values()) {
+                cuenta += bloque.size();
+                if (cuenta > m + 1) {
+                    break;
+                }
+            }
+            return cuenta;
+        }
+
+        private static Integer siguienteAnio(TreeMap<Integer, TreeSet<String>> anios, int anio, int lado) {
+            return lado < 0 ? anios.lowerKey(anio) : anios.higherKey(anio);
+        }
+
+        /** Siguiente ID del iterador distinto de id, o null. */
+        private static String siguiente(Iterator<String> it, String id) {
+            while (it.hasNext()) {
+                String x = it.next();
+                if (!x.equals(id)) {
+                    return x;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Posiciones ordenadas por un atributo numérico, para recorrer en
+     * O(vecinos) las canciones dentro de una ventana.
+     */
+    private static final class Ventana {
+        private final int[] orden;    // posiciones ordenadas por valor
+        private final int[] valores;  // valores en ese orden
+        private final int[] rango;    // rango[i] = lugar de la posición i en 'orden'
+        private final int ancho;
+
+        Ventana(List<Cancion> lista, ToIntFunction<Cancion> atributo, int ancho) {
+            int n = lista.size();
+            Integer[] tmp = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                tmp[i] = i;
+            }
+            Arrays.sort(tmp, Comparator.comparingInt(i -> atributo.applyAsInt(lista.get(i))));
+
+            this.orden = new int[n];
+            this.valores = new int[n];
+            this.rango = new int[n];
+            for (int r = 0; r < n; r++) {
+                orden[r] = tmp[r];
+                valores[r] = atributo.applyAsInt(lista.get(tmp[r]));
+                rango[tmp[r]] = r;
+            }
+            this.ancho = ancho;
+        }
+
+        void recorrerVecinos(int i, IntConsumer emitir) {
+            int r = rango[i];
+            int v = valores[r];
+            for (int p = r - 1; p >= 0 && v - valores[p] <= ancho; p--) {
+                emitir.accept(orden[p]);
+            }
+            for (int p = r + 1; p < orden.length && valores[p] - v <= ancho; p++) {
+                emitir.accept(orden[p]);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.dubytube.dubytube.ds;
+
+import java.util.Arrays;
+
+/**
+ * Union-find sobre IDs enteros, con unión por tamaño y compresión de
+ * caminos por mitades: cada operación cuesta O(α(n)), prácticamente
+ * constante. Lleva la cuenta de conjuntos para consultarla en O(1).
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+final class ConjuntosDisjuntos {
+
+    private int[] padre = new int[16];
+    private int[] tamano = new int[16];
+    private int conjuntos;
+
+    /** Agrega id como conjunto unitario (id puede ser uno liberado antes). */
+    void agregar(int id) {
+        if (id >= padre.length) {
+            int capacidad = Math.max(id + 1, padre.length * 2);
+            padre = Arrays.copyOf(padre, capacidad);
+            tamano = Arrays.copyOf(tamano, capacidad);
+        }
+        padre[id] = id;
+        tamano[id] = 1;
+        conjuntos++;
+    }
+
+    /**
+     * Une los conjuntos de a y b.
+     *
+     * @return true si estaban separados
+     */
+    boolean unir(int a, int b) {
+        int ra = raiz(a);
+        int rb = raiz(b);
+        if (ra == rb) {
+            return false;
+        }
+        if (tamano[ra] < tamano[rb]) {
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        padre[rb] = ra;
+        tamano[ra] += tamano[rb];
+        conjuntos--;
+        return true;
+    }
+
+    int raiz(int a) {
+        while (padre[a] != a) {
+            padre[a] = padre[padre[a]];
+            a = padre[a];
+        }
+        return a;
+    }
+
+    int conjuntos() {
+        return conjuntos;
+    }
+
+    /** Vacía la estructura (los IDs deben volver a agregarse). */
+    void limpiar() {
+        conjuntos = 0;
+    }
+}
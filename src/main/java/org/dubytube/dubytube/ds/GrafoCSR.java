@@ -0,0 +1,107 @@
+package org.dubytube.dubytube.ds;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Grafo de similitud inmutable en formato CSR (compressed sparse row).
+ *
+ * <p>Cada canción es un vértice entero 0..n-1 y sus aristas ocupan el tramo
+ * {@code [offsets[u], offsets[u+1])} de los arreglos {@code destinos} y
+ * {@code pesos}. Sin mapas ni cajas por arista: recorrer los vecinos de un
+ * vértice es leer memoria contigua, y el grafo ocupa unos 8 bytes por arista
+ * dirigida.</p>
+ *
+ * <p>Se obtiene con {@link GrafoSimilitud#compactar()} una vez construido el
+ * grafo mutable, y sirve las consultas de recomendación y radio. Los pesos se
+ * guardan como {@code float}; las distancias acumuladas se suman en
+ * {@code double}.</p>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+public final class GrafoCSR implements GrafoCercania {
+
+    private final String[] ids;               // vértice -> ID de canción
+    private final Map<String, Integer> indice; // ID de canción -> vértice
+    private final int[] offsets;              // n + 1 posiciones
+    private final int[] destinos;
+    private final float[] pesos;
+
+    private final BusquedaCercanas busqueda = new BusquedaCercanas();
+
+    /**
+     * Constructor. Los arreglos pasan a ser propiedad del grafo.
+     *
+     * @param ids ID de canción de cada vértice
+     * @param offsets Inicio de las aristas de cada vértice (longitud n + 1)
+     * @param destinos Vértice destino de cada arista
+     * @param pesos Distancia de cada arista
+     * @throws IllegalArgumentException si las longitudes no son coherentes
+     */
+    GrafoCSR(String[] ids, int[] offsets, int[] destinos, float[] pesos) {
+        if (offsets.length != ids.length + 1 || destinos.length != pesos.length
+                || offsets[ids.length] != destinos.length) {
+            throw new IllegalArgumentException("Arreglos CSR inconsistentes");
+        }
+        this.ids = ids;
+        this.offsets = offsets;
+        this.destinos = destinos;
+        this.pesos = pesos;
+        this.indice = new HashMap<>(Math.max(16, (int) (ids.length / 0.75f) + 1));
+        for (int v = 0; v < ids.length; v++) {
+            indice.put(ids[v], v);
+        }
+    }
+
+    /**
+     * Las k canciones más cercanas a source (sin incluirla), con el mismo
+     * Dijkstra acotado que {@link GrafoSimilitud#masCercanas(String, int)}.
+     *
+     * <p>No es seguro llamarlo desde varios hilos a la vez: comparte la
+     * memoria de trabajo entre consultas.</p>
+     */
+    @Override
+    public List<Cercana> masCercanas(String source, int k) {
+        return masCercanas(source, k, null);
+    }
+
+    /**
+     * Como {@link #masCercanas(String, int)}, pero solo cuentan las canciones
+     * que pasan el filtro (null: todas).
+     */
+    @Override
+    public List<Cercana> masCercanas(String source, int k, Predicate<String> filtro) {
+        Integer s = indice.get(source);
+        if (s == null || k <= 0) {
+            return new ArrayList<>();
+        }
+        return busqueda.buscar(s, ids.length, k, (u, r) -> {
+            for (int i = offsets[u], fin = offsets[u + 1]; i < fin; i++) {
+                r.arista(destinos[i], pesos[i]);
+            }
+        }, v -> ids[v], filtro);
+    }
+
+    /**
+     * Obtiene el número de canciones.
+     *
+     * @return Cantidad de vértices
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Obtiene el número de aristas dirigidas (dos por cada similitud).
+     *
+     * @return Cantidad de aristas almacenadas
+     */
+    public int contarAristas() {
+        return destinos.length;
+    }
+}
@@ -0,0 +1,69 @@
+package org.dubytube.dubytube.ds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Vista de solo lectura de un grafo de similitud para recomendaciones:
+ * dada una canción, sus k canciones más cercanas por distancia mínima.
+ *
+ * <p>La implementan el grafo mutable {@link GrafoSimilitud} y su versión
+ * compacta {@link GrafoCSR}, de modo que los servicios de recomendación y
+ * radio pueden construir con el primero y consultar sobre el segundo.</p>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+public interface GrafoCercania {
+
+    /** Canción alcanzada desde el origen con su distancia mínima. */
+    final class Cercana {
+        public final String id;
+        public final double distancia;
+
+        public Cercana(String id, double distancia) {
+            this.id = id;
+            this.distancia = distancia;
+        }
+    }
+
+    /**
+     * Las k canciones más cercanas a source (sin incluirla), en orden de
+     * distancia. La búsqueda se detiene en cuanto fija k canciones.
+     *
+     * @param source ID de la canción origen
+     * @param k Número máximo de resultados
+     * @return Canciones con su distancia (vacío si source no existe)
+     */
+    List<Cercana> masCercanas(String source, int k);
+
+    /**
+     * Las k canciones más cercanas a source que cumplen un filtro, en orden
+     * de distancia. Las demás se recorren como parte de los caminos pero no
+     * cuentan para k, así que no hace falta pedir listas más largas y
+     * filtrarlas después.
+     *
+     * @param source ID de la canción origen
+     * @param k Número máximo de resultados
+     * @param filtro Canciones que pueden devolverse
+     * @return Canciones con su distancia (vacío si source no existe)
+     */
+    List<Cercana> masCercanas(String source, int k, Predicate<String> filtro);
+
+    /**
+     * IDs de las k canciones más cercanas a source (sin incluirla).
+     *
+     * @param source ID de la canción origen
+     * @param k Número máximo de resultados
+     * @return IDs ordenados de la más cercana a la menos
+     */
+    default List<String> recomendarDesde(String source, int k) {
+        List<String> out = new ArrayList<>();
+        for (Cercana c : masCercanas(source, k)) {
+            out.add(c.id);
+        }
+        return out;
+    }
+}
@@ -28,8 +28,10 @@ import java.util.*;
  * <p><b>Complejidad de operaciones principales:</b></p>
  * <ul>
  *   <li>Agregar vértice: O(1)</li>
- *   <li>Agregar arista: O(1)</li>
- *   <li>Obtener vecinos: O(1)</li>
+ *   <li>Agregar o actualizar arista: O(1)</li>
+ *   <li>Consultar una arista: O(1)</li>
+ *   <li>Eliminar vértice: O(grado)</li>
+ *   <li>Obtener vecinos: O(grado)</li>
  *   <li>Dijkstra: O((V + E) log V) con priority queue</li>
  * </ul>
  * 
@@ -65,11 +67,19 @@ public class GrafoDeSimilitud {
     }
     
     /**
-     * Estructura interna del grafo: mapa de adyacencia.
+     * Estructura interna del grafo: mapa de adyacencia indexado por vecino.
      * Key: Canción (vértice)
-     * Value: Lista de aristas (vecinos con pesos)
+     * Value: Aristas por canción destino (orden de inserción)
+     * 
+     * <p>Como el grafo es no dirigido, el mapa del vecino guarda la arista
+     * inversa: quitar un vértice solo recorre sus propios vecinos.</p>
      */
-    private final Map<Cancion, List<Arista>> grafo;
+    private final Map<Cancion, Map<Cancion, Arista>> grafo;
+    
+    /**
+     * Número de aristas no dirigidas.
+     */
+    private int aristas;
     
     /**
      * Constructor del grafo de similitud.
@@ -89,13 +99,13 @@ public class GrafoDeSimilitud {
             return;
         }
         
-        grafo.putIfAbsent(cancion, new ArrayList<>());
+        grafo.putIfAbsent(cancion, new LinkedHashMap<>());
     }
     
     /**
      * Elimina una canción del grafo.
      * También elimina todas las aristas que la involucran.
-     * Complejidad: O(V + E) en el peor caso
+     * Complejidad: O(grado)
      * 
      * @param cancion Canción a eliminar
      * @return true si se eliminó exitosamente
@@ -105,19 +115,19 @@ public class GrafoDeSimilitud {
             return false;
         }
         
-        // Eliminar aristas donde esta canción es destino
-        for (List<Arista> aristas : grafo.values()) {
-            aristas.removeIf(arista -> arista.destino.equals(cancion));
+        // Eliminar el vértice y la arista inversa en cada vecino
+        Map<Cancion, Arista> vecinos = grafo.remove(cancion);
+        for (Cancion vecino : vecinos.keySet()) {
+            grafo.get(vecino).remove(cancion);
         }
-        
-        // Eliminar el vértice
-        grafo.remove(cancion);
+        aristas -= vecinos.size();
         return true;
     }
     
     /**
      * Conecta dos canciones con un peso de similitud.
-     * Como es no dirigido, se crean dos aristas (A→B y B→A).
+     * Como es no dirigido, se crean dos aristas (A→B y B→A). Si ya estaban
+     * conectadas solo se actualiza el peso.
      * Complejidad: O(1)
      * 
      * @param cancion1 Primera canción
@@ -140,9 +150,11 @@ public class GrafoDeSimilitud {
         agregarCancion(cancion1);
         agregarCancion(cancion2);
         
-        // Grafo no dirigido: agregar arista en ambas direcciones
-        grafo.get(cancion1).add(new Arista(cancion2, similitud));
-        grafo.get(cancion2).add(new Arista(cancion1, similitud));
+        // Grafo no dirigido: agregar (o reemplazar) la arista en ambas direcciones
+        if (grafo.get(cancion1).put(cancion2, new Arista(cancion2, similitud)) == null) {
+            aristas++;
+        }
+        grafo.get(cancion2).put(cancion1, new Arista(cancion1, similitud));
     }
     
     /**
@@ -164,7 +176,7 @@ public class GrafoDeSimilitud {
     
     /**
      * Desconecta dos canciones eliminando sus aristas mutuas.
-     * Complejidad: O(E) donde E es el número de aristas de cada vértice
+     * Complejidad: O(1)
      * 
      * @param cancion1 Primera canción
      * @param cancion2 Segunda canción
@@ -179,15 +191,18 @@ public class GrafoDeSimilitud {
             return false;
         }
         
-        boolean removed1 = grafo.get(cancion1).removeIf(a -> a.destino.equals(cancion2));
-        boolean removed2 = grafo.get(cancion2).removeIf(a -> a.destino.equals(cancion1));
+        boolean removed1 = grafo.get(cancion1).remove(cancion2) != null;
+        boolean removed2 = grafo.get(cancion2).remove(cancion1) != null;
+        if (removed1) {
+            aristas--;
+        }
         
         return removed1 && removed2;
     }
     
     /**
      * Obtiene el peso de similitud entre dos canciones.
-     * Complejidad: O(E) donde E es el número de aristas del vértice
+     * Complejidad: O(1)
      * 
      * @param cancion1 Primera canción
      * @param cancion2 Segunda canción
@@ -198,18 +213,13 @@ public class GrafoDeSimilitud {
             return -1;
         }
         
-        for (Arista arista : grafo.get(cancion1)) {
-            if (arista.destino.equals(cancion2)) {
-                return arista.peso;
-            }
-        }
-        
-        return -1;
+        Arista arista = grafo.get(cancion1).get(cancion2);
+        return arista == null ? -1 : arista.peso;
     }
     
     /**
      * Verifica si dos canciones están conectadas.
-     * Complejidad: O(E)
+     * Complejidad: O(1)
      * 
      * @param cancion1 Primera canción
      * @param cancion2 Segunda canción
@@ -221,7 +231,7 @@ public class GrafoDeSimilitud {
     
     /**
      * Obtiene todos los vecinos de una canción con sus pesos.
-     * Complejidad: O(1)
+     * Complejidad: O(grado)
      * 
      * @param cancion Canción origen
      * @return Lista de aristas (vecinos con pesos), o lista vacía si no existe
@@ -231,7 +241,7 @@ public class GrafoDeSimilitud {
             return new ArrayList<>();
         }
         
-        return new ArrayList<>(grafo.get(cancion));
+        return new ArrayList<>(grafo.get(cancion).values());
     }
     
     /**
@@ -292,7 +302,7 @@ public class GrafoDeSimilitud {
             }
             
             // Explorar vecinos
-            for (Arista arista : grafo.get(cancionActual)) {
+            for (Arista arista : grafo.get(cancionActual).values()) {
                 Cancion vecino = arista.destino;
                 
                 // En este grafo, la similitud es directa (no acumulativa)
@@ -320,7 +330,7 @@ public class GrafoDeSimilitud {
     
     /**
      * Encuentra canciones similares con un umbral mínimo de similitud.
-     * Complejidad: O(V + E)
+     * Complejidad: O(d log d) donde d es el grado de la canción
      * 
      * @param origen Canción origen
      * @param umbralMinimo Similitud mínima requerida (0-100)
@@ -331,36 +341,52 @@ public class GrafoDeSimilitud {
             return new ArrayList<>();
         }
         
-        List<Cancion> resultado = new ArrayList<>();
+        List<Arista> candidatas = new ArrayList<>();
         
-        for (Arista arista : grafo.get(origen)) {
+        for (Arista arista : grafo.get(origen).values()) {
             if (arista.peso >= umbralMinimo) {
-                resultado.add(arista.destino);
+                candidatas.add(arista);
             }
         }
         
-        // Ordenar por similitud descendente
-        resultado.sort((c1, c2) -> {
-            int sim1 = getSimilitud(origen, c1);
-            int sim2 = getSimilitud(origen, c2);
-            return Integer.compare(sim2, sim1);
-        });
+        // Ordenar por similitud descendente (el peso ya está en la arista)
+        candidatas.sort((a1, a2) -> Integer.compare(a2.peso, a1.peso));
         
+        List<Cancion> resultado = new ArrayList<>(candidatas.size());
+        for (Arista arista : candidatas) {
+            resultado.add(arista.destino);
+        }
         return resultado;
     }
     
     /**
      * Construye automáticamente el grafo de similitud para una colección de canciones.
-     * Conecta cada par de canciones calculando su similitud.
+     * Calcula la similitud solo de los pares que pueden alcanzar el umbral
+     * ({@link #candidatosPara(int)}), no de todos contra todos.
      * 
      * <p>Solo crea aristas si la similitud es >= umbral.</p>
      * 
-     * <p>Complejidad: O(n²) donde n es el número de canciones</p>
+     * <p>Complejidad: O(n log n + P) donde P es el número de pares candidatos
+     * (O(n²) solo con umbral 0)</p>
      * 
      * @param canciones Colección de canciones
      * @param umbralMinimo Similitud mínima para crear una arista (0-100)
      */
     public void construirGrafoCompleto(Collection<Cancion> canciones, int umbralMinimo) {
+        construirGrafoCompleto(canciones, umbralMinimo, null);
+    }
+    
+    /**
+     * Igual que {@link #construirGrafoCompleto(Collection, int)}, informando
+     * el avance. Las similitudes se calculan en paralelo en todos los núcleos;
+     * el grafo solo se modifica desde el hilo que llama.
+     * 
+     * @param canciones Colección de canciones
+     * @param umbralMinimo Similitud mínima para crear una arista (0-100)
+     * @param progreso Avance por canciones procesadas (desde hilos de trabajo), o null
+     */
+    public void construirGrafoCompleto(Collection<Cancion> canciones, int umbralMinimo,
+                                       CandidatosSimilitud.Progreso progreso) {
         if (canciones == null || canciones.isEmpty()) {
             return;
         }
@@ -372,38 +398,56 @@ public class GrafoDeSimilitud {
             agregarCancion(c);
         }
         
-        // Conectar cada par de canciones
-        for (int i = 0; i < listaCanciones.size(); i++) {
-            for (int j = i + 1; j < listaCanciones.size(); j++) {
-                Cancion c1 = listaCanciones.get(i);
-                Cancion c2 = listaCanciones.get(j);
-                
-                int similitud = (int) Math.round(c1.calcularSimilitud(c2));
-                
-                // Solo conectar si la similitud supera el umbral
-                if (similitud >= umbralMinimo) {
-                    conectar(c1, c2, similitud);
-                }
-            }
-        }
+        // Evaluar los pares candidatos en paralelo sobre columnas primitivas
+        // (descartando los que no superan el umbral) y conectarlos después
+        // desde este hilo
+        RasgosCanciones rasgos = new RasgosCanciones(listaCanciones);
+        candidatosPara(umbralMinimo).paraCadaParParaleloPorPosicion(listaCanciones, (i, j) -> {
+            int similitud = (int) Math.round(rasgos.similitud(i, j));
+            return similitud >= umbralMinimo ? similitud : Double.NaN;
+        }, (c1, c2, similitud) -> conectar(c1, c2, (int) similitud), progreso);
         
         System.out.println("✓ Grafo construido con " + size() + " vértices y " 
                           + contarAristas() + " aristas (umbral: " + umbralMinimo + "%)");
     }
+
+    /**
+     * Elige los bloques de candidatos según el umbral, a partir de los pesos
+     * de {@link Cancion#calcularSimilitud(Cancion)}: género 40, artista 30,
+     * año (±5) hasta 20 y duración (±30 s) hasta 10.
+     * 
+     * <ul>
+     *   <li>Umbral &gt; 30: sin género ni artista no se pasa de 30</li>
+     *   <li>Umbral &gt; 10: sin año cercano no se pasa de 10</li>
+     *   <li>Umbral &gt; 0: hace falta al menos un atributo en común</li>
+     *   <li>Umbral &lt;= 0: todos los pares califican</li>
+     * </ul>
+     *
+     * @param umbralMinimo Similitud mínima de las aristas
+     * @return Generador de pares que no descarta ninguna arista válida
+     */
+    private static CandidatosSimilitud candidatosPara(int umbralMinimo) {
+        if (umbralMinimo > 30) {
+            return CandidatosSimilitud.porArtistaOGenero();
+        }
+        if (umbralMinimo > 10) {
+            return new CandidatosSimilitud(true, true, 5, CandidatosSimilitud.SIN_VENTANA);
+        }
+        if (umbralMinimo > 0) {
+            return new CandidatosSimilitud(true, true, 5, 30);
+        }
+        return new CandidatosSimilitud(true, true, Integer.MAX_VALUE, CandidatosSimilitud.SIN_VENTANA);
+    }
     
     /**
      * Cuenta el número total de aristas en el grafo.
      * Como es no dirigido, cada arista se cuenta una sola vez.
-     * Complejidad: O(V + E)
+     * Complejidad: O(1)
      * 
      * @return Número de aristas
      */
     public int contarAristas() {
-        int total = 0;
-        for (List<Arista> aristas : grafo.values()) {
-            total += aristas.size();
-        }
-        return total / 2; // Dividir por 2 porque es no dirigido
+        return aristas;
     }
     
     /**
@@ -452,6 +496,7 @@ public class GrafoDeSimilitud {
      */
     public void clear() {
         grafo.clear();
+        aristas = 0;
     }
     
     /**
@@ -484,7 +529,7 @@ public class GrafoDeSimilitud {
         Cancion hub = null;
         int maxGrado = -1;
         
-        for (Map.Entry<Cancion, List<Arista>> entry : grafo.entrySet()) {
+        for (Map.Entry<Cancion, Map<Cancion, Arista>> entry : grafo.entrySet()) {
             int grado = entry.getValue().size();
             if (grado > maxGrado) {
                 maxGrado = grado;
@@ -520,8 +565,8 @@ public class GrafoDeSimilitud {
         // Estadísticas de similitud
         int totalSimilitud = 0;
         int contador = 0;
-        for (List<Arista> aristas : grafo.values()) {
-            for (Arista a : aristas) {
+        for (Map<Cancion, Arista> vecinos : grafo.values()) {
+            for (Arista a : vecinos.values()) {
                 totalSimilitud += a.peso;
                 contador++;
             }
@@ -549,13 +594,13 @@ public class GrafoDeSimilitud {
         StringBuilder sb = new StringBuilder();
         sb.append("Grafo de Similitud (").append(size()).append(" canciones):\n");
         
-        for (Map.Entry<Cancion, List<Arista>> entry : grafo.entrySet()) {
+        for (Map.Entry<Cancion, Map<Cancion, Arista>> entry : grafo.entrySet()) {
             sb.append("  ").append(entry.getKey().getTitulo()).append(" → [");
             
-            List<Arista> aristas = entry.getValue();
-            for (int i = 0; i < aristas.size(); i++) {
-                sb.append(aristas.get(i));
-                if (i < aristas.size() - 1) {
+            Iterator<Arista> it = entry.getValue().values().iterator();
+            while (it.hasNext()) {
+                sb.append(it.next());
+                if (it.hasNext()) {
                     sb.append(", ");
                 }
             }
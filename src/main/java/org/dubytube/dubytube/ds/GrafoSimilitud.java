@@ -1,47 +1,208 @@
 package org.dubytube.dubytube.ds;
 import java.util.*;
-/** Grafo no dirigido; peso = "distancia" (más bajo = más similar). */
-public class GrafoSimilitud {
-    private final Map<String, Map<String, Double>> adj = new HashMap<>();
+import java.util.function.Predicate;
+/**
+ * Grafo no dirigido; peso = "distancia" (más bajo = más similar).
+ * Internamente cada canción recibe un ID entero denso (0..n-1); los de las
+ * canciones eliminadas se reutilizan (pila de libres, como en
+ * {@link GrafoSocial}), así que el grafo no crece con altas y bajas.
+ * Las recomendaciones usan {@link #masCercanas(String, int)}, que se
+ * detiene al fijar k canciones. Tanto esa búsqueda como
+ * {@link #dijkstra(String)}, que calcula las distancias a todo el grafo,
+ * usan un {@link MonticuloIndexado}: O(E log V). Para consultas de solo lectura sobre un
+ * grafo ya construido, {@link #compactar()} produce un {@link GrafoCSR}.
+ */
+public class GrafoSimilitud implements GrafoCercania {
+    private final Map<String, Integer> indice = new HashMap<>();   // ID de canción -> vértice
+    private final List<String> ids = new ArrayList<>();             // vértice -> ID de canción
+    private final List<Map<Integer, Double>> adj = new ArrayList<>(); // vértice -> (vecino -> distancia)
+    private int[] libres = new int[8];                              // vértices libres para reutilizar (pila)
+    private int totalLibres;
+
+    private final BusquedaCercanas busqueda = new BusquedaCercanas();
+
     public void agregarCancion(String id) {
-        adj.computeIfAbsent(id, k -> new HashMap<>());
+        vertice(id);
     }
     public void agregarSimilitud(String id1, String id2, double distancia) {
         if (id1.equals(id2)) return;
-        agregarCancion(id1); agregarCancion(id2);
-        adj.get(id1).put(id2, distancia);
-        adj.get(id2).put(id1, distancia);
+        int u = vertice(id1), v = vertice(id2);
+        adj.get(u).put(v, distancia);
+        adj.get(v).put(u, distancia);
+    }
+    /**
+     * Quita todas las aristas de una canción (la canción queda aislada).
+     * Complejidad: O(grado)
+     * @return IDs de los vecinos que tenía
+     */
+    public List<String> quitarAristas(String id) {
+        List<String> out = new ArrayList<>();
+        Integer u = indice.get(id);
+        if (u == null) return out;
+        for (int v : adj.get(u).keySet()) {
+            adj.get(v).remove(u);
+            out.add(ids.get(v));
+        }
+        adj.get(u).clear();
+        return out;
+    }
+    /**
+     * Elimina una canción con todas sus aristas. Su vértice queda libre para
+     * la próxima canción que se agregue; ni {@link #dijkstra(String)} ni
+     * {@link #compactar()} la vuelven a mostrar.
+     * Complejidad: O(grado)
+     * @return IDs de los vecinos que tenía (vacío si no estaba)
+     */
+    public List<String> eliminarCancion(String id) {
+        List<String> out = quitarAristas(id);
+        Integer u = indice.remove(id);
+        if (u == null) return out;
+        ids.set(u, null);
+        if (totalLibres == libres.length) libres = Arrays.copyOf(libres, totalLibres * 2);
+        libres[totalLibres++] = u;
+        return out;
+    }
+    /** Número de canciones del grafo. */
+    public int size() {
+        return indice.size();
+    }
+    /**
+     * Quita la arista entre dos canciones, si existe.
+     * Complejidad: O(1)
+     */
+    public void quitarArista(String id1, String id2) {
+        Integer u = indice.get(id1), v = indice.get(id2);
+        if (u == null || v == null) return;
+        adj.get(u).remove(v);
+        adj.get(v).remove(u);
+    }
+    /** Distancia de la arista entre dos canciones, o infinito si no están conectadas. */
+    public double getDistancia(String id1, String id2) {
+        Integer u = indice.get(id1), v = indice.get(id2);
+        if (u == null || v == null) return Double.POSITIVE_INFINITY;
+        return adj.get(u).getOrDefault(v, Double.POSITIVE_INFINITY);
+    }
+    /** IDs de los vecinos directos de una canción (vacío si no existe). */
+    public List<String> vecinos(String id) {
+        List<String> out = new ArrayList<>();
+        Integer u = indice.get(id);
+        if (u == null) return out;
+        for (int v : adj.get(u).keySet()) out.add(ids.get(v));
+        return out;
+    }
+    /** Elimina todas las canciones y aristas. */
+    public void clear() {
+        indice.clear();
+        ids.clear();
+        adj.clear();
+        totalLibres = 0;
     }
     /** Dijkstra estándar: retorna distancia mínima desde source a cada nodo. */
     public Map<String, Double> dijkstra(String source) {
-        Map<String, Double> dist = new HashMap<>();
-        for (String v : adj.keySet()) dist.put(v, Double.POSITIVE_INFINITY);
-        if (!adj.containsKey(source)) return dist;
-        dist.put(source, 0.0);
-        PriorityQueue<String> pq = new PriorityQueue<>(Comparator.comparingDouble(dist::get));
-        pq.add(source);
+        Map<String, Double> out = new HashMap<>();
+        Integer s = indice.get(source);
+        double[] dist = s == null ? null : dijkstra(s);
+        for (int v = 0; v < ids.size(); v++) {
+            if (ids.get(v) == null) continue; // vértice libre
+            out.put(ids.get(v), dist == null ? Double.POSITIVE_INFINITY : dist[v]);
+        }
+        return out;
+    }
+    /**
+     * Las k canciones más cercanas a source (sin incluirla), en orden de
+     * distancia y con su distancia, en una sola pasada de Dijkstra que se
+     * detiene en cuanto fija k vértices. El costo depende de k y de la
+     * densidad alrededor de source, no del tamaño del catálogo.
+     */
+    @Override
+    public List<Cercana> masCercanas(String source, int k) {
+        return masCercanas(source, k, null);
+    }
+    /**
+     * Como {@link #masCercanas(String, int)}, pero solo cuentan las canciones
+     * que pasan el filtro (null: todas).
+     */
+    @Override
+    public List<Cercana> masCercanas(String source, int k, Predicate<String> filtro) {
+        Integer s = indice.get(source);
+        if (s == null || k <= 0) return new ArrayList<>();
+        return busqueda.buscar(s, ids.size(), k, (u, r) -> {
+            for (Map.Entry<Integer, Double> e : adj.get(u).entrySet()) r.arista(e.getKey(), e.getValue());
+        }, ids::get, filtro);
+    }
+
+    /**
+     * Copia inmutable en formato CSR (arreglos primitivos contiguos), para
+     * servir recomendaciones sin el costo de los mapas por vértice. Los
+     * vértices libres no se copian: la copia numera de nuevo las canciones.
+     * Complejidad: O(V + E)
+     */
+    public GrafoCSR compactar() {
+        int total = ids.size();
+        int n = indice.size();
+        int[] nuevo = new int[total]; // vértice -> vértice en la copia
+        String[] vivos = new String[n];
+        for (int u = 0, w = 0; u < total; u++) {
+            if (ids.get(u) == null) continue;
+            nuevo[u] = w;
+            vivos[w++] = ids.get(u);
+        }
+        int[] offsets = new int[n + 1];
+        for (int w = 0; w < n; w++) offsets[w + 1] = offsets[w] + adj.get(indice.get(vivos[w])).size();
+        int[] destinos = new int[offsets[n]];
+        float[] pesos = new float[offsets[n]];
+        for (int w = 0; w < n; w++) {
+            int i = offsets[w];
+            for (Map.Entry<Integer, Double> e : adj.get(indice.get(vivos[w])).entrySet()) {
+                destinos[i] = nuevo[e.getKey()];
+                pesos[i] = e.getValue().floatValue();
+                i++;
+            }
+        }
+        return new GrafoCSR(vivos, offsets, destinos, pesos);
+    }
+
+    /**
+     * Dijkstra sobre vértices enteros. Cada vértice se extrae una sola vez
+     * del montículo y cada relajación es un "disminuir prioridad" en O(log V).
+     */
+    private double[] dijkstra(int s) {
+        int n = ids.size();
+        double[] dist = new double[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        boolean[] cerrado = new boolean[n];
+        MonticuloIndexado pq = new MonticuloIndexado(n);
+
+        dist[s] = 0.0;
+        pq.insertarODisminuir(s, 0.0);
         while (!pq.isEmpty()) {
-            String u = pq.poll();
-            for (Map.Entry<String, Double> e : adj.get(u).entrySet()) {
-                String v = e.getKey(); double w = e.getValue();
-                double alt = dist.get(u) + w;
-                if (alt < dist.get(v)) {
-                    dist.put(v, alt);
-                    pq.remove(v);
-                    pq.add(v);
+            int u = pq.extraerMin();
+            cerrado[u] = true;
+            for (Map.Entry<Integer, Double> e : adj.get(u).entrySet()) {
+                int v = e.getKey();
+                if (cerrado[v]) continue;
+                double alt = dist[u] + e.getValue();
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    pq.insertarODisminuir(v, alt);
                 }
             }
         }
         return dist;
     }
-    /** Recomienda las k canciones más cercanas (menor distancia), excluye la misma. */
-    public List<String> recomendarDesde(String source, int k) {
-        Map<String, Double> d = dijkstra(source);
-        return d.entrySet().stream()
-                .filter(e -> !e.getKey().equals(source) && e.getValue()!=Double.POSITIVE_INFINITY)
-                .sorted(Map.Entry.comparingByValue())
-                .limit(k)
-                .map(Map.Entry::getKey)
-                .toList();
+    private int vertice(String id) {
+        Integer v = indice.get(id);
+        if (v == null) {
+            if (totalLibres > 0) {
+                v = libres[--totalLibres];
+                ids.set(v, id); // su mapa de adyacencia quedó vacío al eliminarla
+            } else {
+                v = ids.size();
+                ids.add(id);
+                adj.add(new HashMap<>());
+            }
+            indice.put(id, v);
+        }
+        return v;
     }
 }
@@ -3,16 +3,17 @@ package org.dubytube.dubytube.ds;
 import org.dubytube.dubytube.domain.Usuario;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 
 /**
  * Grafo no dirigido para gestionar conexiones sociales entre usuarios.
- * 
+ *
  * <p>Requisitos cumplidos:</p>
  * <ul>
  *   <li>RF-023: Implementación de Grafo No Dirigido para red social</li>
  *   <li>RF-024: Algoritmo BFS para encontrar amigos de amigos</li>
  * </ul>
- * 
+ *
  * <p><b>Estructura:</b></p>
  * <ul>
  *   <li>Vértices: Objetos {@link Usuario}</li>
@@ -20,82 +21,154 @@ import java.util.*;
  *   <li>No dirigido: Si A es amigo de B, B también es amigo de A</li>
  *   <li>No pesado: Todas las amistades tienen el mismo valor (binario)</li>
  * </ul>
- * 
+ *
+ * <p><b>Representación:</b> cada usuario recibe un ID entero denso al
+ * entrar al grafo, y sus amigos se guardan como un {@code int[]} ordenado.
+ * Solo se calcula el hash del username al traducir un {@link Usuario} a su
+ * ID; los recorridos trabajan con enteros, colas {@code int[]} y
+ * {@link BitSet} de visitados. Distancias y caminos usan BFS bidireccional
+ * ({@link BusquedaBidireccional}).</p>
+ *
  * <p><b>Uso principal:</b> Sistema de recomendación de amigos y exploración
  * de la red social. Permite encontrar conexiones de segundo nivel
  * (amigos de amigos) y calcular distancias entre usuarios.</p>
- * 
+ *
  * <p><b>Complejidad de operaciones principales:</b></p>
  * <ul>
- *   <li>Agregar vértice: O(1)</li>
- *   <li>Agregar arista: O(1)</li>
- *   <li>Obtener amigos: O(1)</li>
+ *   <li>Agregar vértice: O(1) amortizado</li>
+ *   <li>Agregar o eliminar arista: O(grado)</li>
+ *   <li>Verificar amistad: O(log grado)</li>
+ *   <li>Contar amigos: O(1)</li>
  *   <li>BFS: O(V + E)</li>
- *   <li>DFS: O(V + E)</li>
  * </ul>
- * 
+ *
  * @author DubyTube Team
- * @version 1.0
+ * @version 2.0
  * @since 2025-11-18
  */
 public class GrafoSocial {
-    
+
+    private static final int[] SIN_AMIGOS = new int[0];
+
+    /** Usuario -> ID entero del vértice. */
+    private final Map<Usuario, Integer> indice = new HashMap<>();
+
+    /** ID -> usuario (null si el ID quedó libre tras eliminar al usuario). */
+    private final List<Usuario> usuarios = new ArrayList<>();
+
+    /** ID -> amigos ordenados; solo valen las primeras {@code grado[id]} posiciones. */
+    private int[][] vecinos = new int[16][];
+
+    /** ID -> número de amigos. */
+    private int[] grado = new int[16];
+
+    /** IDs libres para reutilizar (pila). */
+    private int[] libres = new int[8];
+    private int totalLibres;
+
+    /** Número de amistades (cada una contada una vez). */
+    private int aristas;
+
     /**
-     * Estructura interna del grafo: mapa de adyacencia.
-     * Key: Usuario (vértice)
-     * Value: Set de usuarios amigos (vecinos)
+     * Componentes conexas. Se actualizan en O(α) con cada amistad nueva;
+     * una baja puede partir una componente, así que solo las marca como
+     * vencidas y se reconstruyen en la próxima consulta.
      */
-    private final Map<Usuario, Set<Usuario>> grafo;
-    
+    private final ConjuntosDisjuntos componentes = new ConjuntosDisjuntos();
+    private boolean componentesVigentes = true;
+
+    /** Conteo de amigos en común por ID e IDs tocados, para {@link #sugerirAmigos}. */
+    private int[] mutuos = new int[0];
+    private int[] tocados = new int[0];
+
+    /** Memoria de trabajo reutilizada por las búsquedas de caminos. */
+    private final BusquedaBidireccional caminos = new BusquedaBidireccional();
+
+    /**
+     * Observadores de altas y bajas de amistades (p. ej. la persistencia).
+     */
+    private final List<AmistadListener> listeners = new ArrayList<>();
+
     /**
      * Constructor del grafo social.
      */
     public GrafoSocial() {
-        this.grafo = new HashMap<>();
     }
-    
+
     /**
      * Agrega un usuario como vértice al grafo.
-     * Complejidad: O(1)
-     * 
+     * Complejidad: O(1) amortizado
+     *
      * @param usuario Usuario a agregar
      */
     public void agregarUsuario(Usuario usuario) {
-        if (usuario == null) {
+        if (usuario == null || indice.containsKey(usuario)) {
             return;
         }
-        
-        grafo.putIfAbsent(usuario, new HashSet<>());
+
+        int id;
+        if (totalLibres > 0) {
+            id = libres[--totalLibres];
+            usuarios.set(id, usuario);
+        } else {
+            id = usuarios.size();
+            usuarios.add(usuario);
+            if (id == grado.length) {
+                vecinos = Arrays.copyOf(vecinos, id * 2);
+                grado = Arrays.copyOf(grado, id * 2);
+            }
+        }
+        vecinos[id] = SIN_AMIGOS;
+        grado[id] = 0;
+        indice.put(usuario, id);
+        if (componentesVigentes) {
+            componentes.agregar(id);
+        }
     }
-    
+
     /**
      * Elimina un usuario del grafo.
      * También elimina todas las amistades que lo involucran.
-     * Complejidad: O(V + E) en el peor caso
-     * 
+     * Complejidad: O(suma de los grados de sus amigos)
+     *
      * @param usuario Usuario a eliminar
      * @return true si se eliminó exitosamente
      */
     public boolean eliminarUsuario(Usuario usuario) {
-        if (usuario == null || !grafo.containsKey(usuario)) {
+        int u = id(usuario);
+        if (u < 0) {
             return false;
         }
-        
+
         // Eliminar este usuario de las listas de amigos de otros
-        for (Set<Usuario> amigos : grafo.values()) {
-            amigos.remove(usuario);
+        int[] amigos = Arrays.copyOf(vecinos[u], grado[u]);
+        for (int v : amigos) {
+            quitar(v, u);
+        }
+        aristas -= amigos.length;
+
+        Usuario eliminado = usuarios.get(u);
+        vecinos[u] = SIN_AMIGOS;
+        grado[u] = 0;
+        indice.remove(usuario);
+        usuarios.set(u, null);
+        if (totalLibres == libres.length) {
+            libres = Arrays.copyOf(libres, totalLibres * 2);
+        }
+        libres[totalLibres++] = u;
+        componentesVigentes = false;
+
+        for (int v : amigos) {
+            notificarEliminada(eliminado, usuarios.get(v));
         }
-        
-        // Eliminar el vértice
-        grafo.remove(usuario);
         return true;
     }
-    
+
     /**
      * Crea una amistad entre dos usuarios.
      * Como es no dirigido, se crean dos conexiones (A→B y B→A).
-     * Complejidad: O(1)
-     * 
+     * Complejidad: O(grado) por la inserción ordenada
+     *
      * @param usuario1 Primer usuario
      * @param usuario2 Segundo usuario
      * @return true si se creó la amistad, false si ya existía o los usuarios son el mismo
@@ -104,469 +177,583 @@ public class GrafoSocial {
         if (usuario1 == null || usuario2 == null) {
             return false;
         }
-        
+
         if (usuario1.equals(usuario2)) {
             return false; // Un usuario no puede ser amigo de sí mismo
         }
-        
+
         // Asegurar que ambos vértices existen
         agregarUsuario(usuario1);
         agregarUsuario(usuario2);
-        
+
+        int u = indice.get(usuario1);
+        int v = indice.get(usuario2);
+        if (esVecino(u, v)) {
+            return false;
+        }
+
         // Grafo no dirigido: agregar en ambas direcciones
-        boolean added1 = grafo.get(usuario1).add(usuario2);
-        boolean added2 = grafo.get(usuario2).add(usuario1);
-        
-        return added1 && added2;
+        insertar(u, v);
+        insertar(v, u);
+        aristas++;
+        if (componentesVigentes) {
+            componentes.unir(u, v);
+        }
+
+        for (AmistadListener l : listeners) {
+            l.onAmistadAgregada(usuario1, usuario2);
+        }
+        return true;
     }
-    
+
     /**
      * Elimina la amistad entre dos usuarios.
-     * Complejidad: O(1)
-     * 
+     * Complejidad: O(grado)
+     *
      * @param usuario1 Primer usuario
      * @param usuario2 Segundo usuario
      * @return true si se eliminó la amistad
      */
     public boolean eliminarAmistad(Usuario usuario1, Usuario usuario2) {
-        if (usuario1 == null || usuario2 == null) {
+        int u = id(usuario1);
+        int v = id(usuario2);
+        if (u < 0 || v < 0 || !esVecino(u, v)) {
             return false;
         }
-        
-        if (!grafo.containsKey(usuario1) || !grafo.containsKey(usuario2)) {
-            return false;
+
+        quitar(u, v);
+        quitar(v, u);
+        aristas--;
+        componentesVigentes = false; // Puede partir una componente
+
+        notificarEliminada(usuario1, usuario2);
+        return true;
+    }
+
+    /**
+     * Registra un observador de altas y bajas de amistades.
+     *
+     * @param listener Observador a registrar
+     */
+    public void addChangeListener(AmistadListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(AmistadListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Observador de cambios en las amistades. Se invoca después de
+     * actualizar el grafo, solo si la amistad realmente cambió.
+     */
+    public interface AmistadListener {
+        void onAmistadAgregada(Usuario usuario1, Usuario usuario2);
+
+        void onAmistadEliminada(Usuario usuario1, Usuario usuario2);
+    }
+
+    private void notificarEliminada(Usuario usuario1, Usuario usuario2) {
+        for (AmistadListener l : listeners) {
+            l.onAmistadEliminada(usuario1, usuario2);
         }
-        
-        boolean removed1 = grafo.get(usuario1).remove(usuario2);
-        boolean removed2 = grafo.get(usuario2).remove(usuario1);
-        
-        return removed1 && removed2;
     }
-    
+
     /**
      * Verifica si dos usuarios son amigos.
-     * Complejidad: O(1)
-     * 
+     * Complejidad: O(log grado)
+     *
      * @param usuario1 Primer usuario
      * @param usuario2 Segundo usuario
      * @return true si son amigos
      */
     public boolean sonAmigos(Usuario usuario1, Usuario usuario2) {
-        if (usuario1 == null || usuario2 == null || !grafo.containsKey(usuario1)) {
-            return false;
-        }
-        
-        return grafo.get(usuario1).contains(usuario2);
+        int u = id(usuario1);
+        int v = id(usuario2);
+        return u >= 0 && v >= 0 && esVecino(u, v);
     }
-    
+
     /**
      * Obtiene todos los amigos directos de un usuario.
-     * Complejidad: O(1) para acceso al set, O(k) para copiar donde k = número de amigos
-     * 
+     * Complejidad: O(k) donde k = número de amigos
+     *
      * @param usuario Usuario
      * @return Set de amigos, o set vacío si el usuario no existe
      */
     public Set<Usuario> getAmigos(Usuario usuario) {
-        if (usuario == null || !grafo.containsKey(usuario)) {
+        int u = id(usuario);
+        if (u < 0) {
             return new HashSet<>();
         }
-        
-        return new HashSet<>(grafo.get(usuario));
+
+        Set<Usuario> amigos = new HashSet<>(grado[u] * 2);
+        int[] a = vecinos[u];
+        for (int i = 0; i < grado[u]; i++) {
+            amigos.add(usuarios.get(a[i]));
+        }
+        return amigos;
     }
-    
+
     /**
      * Obtiene el número de amigos de un usuario (grado del vértice).
      * Complejidad: O(1)
-     * 
+     *
      * @param usuario Usuario
      * @return Número de amigos
      */
     public int contarAmigos(Usuario usuario) {
-        if (usuario == null || !grafo.containsKey(usuario)) {
-            return 0;
+        int u = id(usuario);
+        return u < 0 ? 0 : grado[u];
+    }
+
+    /**
+     * Recorre cada amistad una sola vez.
+     * Complejidad: O(V + E)
+     *
+     * @param accion Recibe los dos usuarios de cada amistad
+     */
+    public void paraCadaAmistad(BiConsumer<Usuario, Usuario> accion) {
+        for (int u = 0; u < usuarios.size(); u++) {
+            int[] a = vecinos[u];
+            for (int i = 0; i < grado[u]; i++) {
+                if (a[i] > u) {
+                    accion.accept(usuarios.get(u), usuarios.get(a[i]));
+                }
+            }
         }
-        
-        return grafo.get(usuario).size();
     }
-    
+
     /**
      * Encuentra amigos de amigos usando BFS (Breadth-First Search).
-     * 
+     *
      * <p><b>Algoritmo BFS:</b> Explora la red social nivel por nivel,
      * encontrando primero amigos directos (nivel 1) y luego amigos de amigos (nivel 2).</p>
-     * 
-     * <p>Complejidad: O(V + E) donde V = usuarios, E = amistades</p>
-     * 
+     *
+     * <p>Complejidad: O(suma de los grados de los amigos)</p>
+     *
      * <p><b>RF-024:</b> Implementación del algoritmo BFS para recomendaciones.</p>
-     * 
+     *
      * @param usuario Usuario origen
      * @return Set de usuarios que son amigos de amigos (excluye amigos directos y al usuario mismo)
      */
     public Set<Usuario> encontrarAmigosDeAmigos(Usuario usuario) {
-        if (usuario == null || !grafo.containsKey(usuario)) {
+        int u = id(usuario);
+        if (u < 0) {
             return new HashSet<>();
         }
-        
-        Set<Usuario> amigosDirectos = grafo.get(usuario);
-        Set<Usuario> amigosDeAmigos = new HashSet<>();
-        
-        // Recorrer cada amigo directo
-        for (Usuario amigo : amigosDirectos) {
-            // Obtener los amigos de este amigo
-            Set<Usuario> amigosDelAmigo = grafo.get(amigo);
-            
-            if (amigosDelAmigo != null) {
-                for (Usuario candidato : amigosDelAmigo) {
-                    // Excluir al usuario mismo y a sus amigos directos
-                    if (!candidato.equals(usuario) && !amigosDirectos.contains(candidato)) {
-                        amigosDeAmigos.add(candidato);
-                    }
+
+        // Nivel 0 y 1 marcados: solo quedan los de nivel 2
+        BitSet marcados = new BitSet(usuarios.size());
+        marcados.set(u);
+        int[] amigos = vecinos[u];
+        for (int i = 0; i < grado[u]; i++) {
+            marcados.set(amigos[i]);
+        }
+
+        Set<Usuario> amigosDeAmigos = new LinkedHashSet<>();
+        for (int i = 0; i < grado[u]; i++) {
+            int amigo = amigos[i];
+            int[] suyos = vecinos[amigo];
+            for (int j = 0; j < grado[amigo]; j++) {
+                int candidato = suyos[j];
+                if (!marcados.get(candidato)) {
+                    marcados.set(candidato);
+                    amigosDeAmigos.add(usuarios.get(candidato));
                 }
             }
         }
-        
+
         return amigosDeAmigos;
     }
-    
+
+    /**
+     * Cuenta los amigos de amigos sin construir el conjunto: el mismo
+     * segundo nivel que {@link #encontrarAmigosDeAmigos(Usuario)}, marcado
+     * en un {@link BitSet}.
+     *
+     * <p>Complejidad: O(suma de los grados de los amigos)</p>
+     *
+     * @param usuario Usuario origen
+     * @return Número de amigos de amigos (0 si el usuario no existe)
+     */
+    public int contarAmigosDeAmigos(Usuario usuario) {
+        int u = id(usuario);
+        if (u < 0) {
+            return 0;
+        }
+
+        BitSet marcados = new BitSet(usuarios.size());
+        marcados.set(u);
+        int[] amigos = vecinos[u];
+        for (int i = 0; i < grado[u]; i++) {
+            marcados.set(amigos[i]);
+        }
+
+        int total = 0;
+        for (int i = 0; i < grado[u]; i++) {
+            int amigo = amigos[i];
+            int[] suyos = vecinos[amigo];
+            for (int j = 0; j < grado[amigo]; j++) {
+                if (!marcados.get(suyos[j])) {
+                    marcados.set(suyos[j]);
+                    total++;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Usuario sugerido junto con cuántos amigos tiene en común con el
+     * usuario para el que se pidió la sugerencia.
+     */
+    public static final class Sugerencia {
+        public final Usuario usuario;
+        public final int amigosEnComun;
+        public Sugerencia(Usuario usuario, int amigosEnComun) {
+            this.usuario = usuario;
+            this.amigosEnComun = amigosEnComun;
+        }
+    }
+
     /**
      * Encuentra amigos de amigos ordenados por número de conexiones mutuas.
      * Útil para recomendar usuarios con más amigos en común.
-     * 
-     * <p>Complejidad: O(V + E + k log k) donde k = número de amigos de amigos</p>
-     * 
+     *
+     * <p>Complejidad: la de {@link #sugerirAmigos(Usuario, int)}</p>
+     *
      * @param usuario Usuario origen
      * @param limite Número máximo de recomendaciones
      * @return Lista ordenada de usuarios recomendados (más conexiones mutuas primero)
      */
     public List<Usuario> recomendarAmigos(Usuario usuario, int limite) {
-        if (usuario == null || !grafo.containsKey(usuario) || limite <= 0) {
+        List<Usuario> out = new ArrayList<>();
+        for (Sugerencia s : sugerirAmigos(usuario, limite)) {
+            out.add(s.usuario);
+        }
+        return out;
+    }
+
+    /**
+     * Los amigos de amigos con más amigos en común, con ese número, en una
+     * sola pasada por el segundo nivel.
+     *
+     * <p>Los conteos son un {@code int[]} por ID que se reutiliza entre
+     * llamadas (solo se limpian las posiciones tocadas), y los mejores se
+     * mantienen en un montículo de tamaño {@code limite}: no se ordena a
+     * todos los candidatos.</p>
+     *
+     * <p>Complejidad: O(suma de los grados de los amigos + C log k) donde
+     * C = amigos de amigos y k = limite</p>
+     *
+     * @param usuario Usuario origen
+     * @param limite Número máximo de sugerencias
+     * @return Sugerencias con más amigos en común primero (a igual número,
+     *         el de menor ID interno; como los IDs de usuarios eliminados se
+     *         reutilizan, no equivale al orden de alta)
+     */
+    public List<Sugerencia> sugerirAmigos(Usuario usuario, int limite) {
+        int u = id(usuario);
+        if (u < 0 || limite <= 0) {
             return new ArrayList<>();
         }
-        
-        Set<Usuario> amigosDirectos = grafo.get(usuario);
-        Map<Usuario, Integer> conexionesMutuas = new HashMap<>();
-        
+
+        int n = usuarios.size();
+        if (mutuos.length < n) {
+            mutuos = new int[Math.max(n, mutuos.length * 2)];
+            tocados = new int[mutuos.length];
+        }
+
+        // -1 marca al usuario y a sus amigos: no son candidatos
+        int totalTocados = 0;
+        int[] amigos = vecinos[u];
+        mutuos[u] = -1;
+        tocados[totalTocados++] = u;
+        for (int i = 0; i < grado[u]; i++) {
+            mutuos[amigos[i]] = -1;
+            tocados[totalTocados++] = amigos[i];
+        }
+
         // Contar conexiones mutuas para cada amigo de amigo
-        for (Usuario amigo : amigosDirectos) {
-            Set<Usuario> amigosDelAmigo = grafo.get(amigo);
-            
-            if (amigosDelAmigo != null) {
-                for (Usuario candidato : amigosDelAmigo) {
-                    // Excluir al usuario mismo y a sus amigos directos
-                    if (!candidato.equals(usuario) && !amigosDirectos.contains(candidato)) {
-                        conexionesMutuas.put(candidato, 
-                            conexionesMutuas.getOrDefault(candidato, 0) + 1);
-                    }
+        for (int i = 0; i < grado[u]; i++) {
+            int amigo = amigos[i];
+            int[] suyos = vecinos[amigo];
+            for (int j = 0; j < grado[amigo]; j++) {
+                int candidato = suyos[j];
+                if (mutuos[candidato] == 0) {
+                    tocados[totalTocados++] = candidato;
                 }
+                if (mutuos[candidato] >= 0) {
+                    mutuos[candidato]++;
+                }
+            }
+        }
+
+        // Montículo con el peor de los mejores en la raíz
+        int[] monticulo = new int[Math.min(limite, totalTocados)];
+        int tamano = 0;
+        for (int i = 0; i < totalTocados; i++) {
+            int c = tocados[i];
+            if (mutuos[c] <= 0) {
+                continue;
             }
+            if (tamano < monticulo.length) {
+                monticulo[tamano] = c;
+                subir(monticulo, tamano++);
+            } else if (mejorSugerencia(c, monticulo[0])) {
+                monticulo[0] = c;
+                bajar(monticulo, tamano);
+            }
+        }
+
+        // Extraer del peor al mejor y llenar la lista desde el final
+        Sugerencia[] orden = new Sugerencia[tamano];
+        while (tamano > 0) {
+            int c = monticulo[0];
+            orden[tamano - 1] = new Sugerencia(usuarios.get(c), mutuos[c]);
+            monticulo[0] = monticulo[--tamano];
+            bajar(monticulo, tamano);
         }
-        
-        // Ordenar por número de conexiones mutuas (descendente) y tomar los top K
-        return conexionesMutuas.entrySet().stream()
-                .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
-                .limit(limite)
-                .map(Map.Entry::getKey)
-                .toList();
+
+        for (int i = 0; i < totalTocados; i++) {
+            mutuos[tocados[i]] = 0;
+        }
+        return new ArrayList<>(Arrays.asList(orden));
     }
-    
+
     /**
-     * Calcula la distancia más corta entre dos usuarios usando BFS.
-     * La distancia es el número de aristas en el camino más corto.
-     * 
-     * <p>Complejidad: O(V + E)</p>
-     * 
-     * @param origen Usuario origen
-     * @param destino Usuario destino
-     * @return Distancia (número de saltos), o -1 si no están conectados
+     * Cuenta los amigos en común de dos usuarios intersecando sus listas
+     * ordenadas de amigos.
+     * Complejidad: O(grado1 + grado2)
+     *
+     * @param usuario1 Primer usuario
+     * @param usuario2 Segundo usuario
+     * @return Número de amigos en común (0 si alguno no existe)
      */
-    public int calcularDistancia(Usuario origen, Usuario destino) {
-        if (origen == null || destino == null || 
-            !grafo.containsKey(origen) || !grafo.containsKey(destino)) {
-            return -1;
-        }
-        
-        if (origen.equals(destino)) {
+    public int contarAmigosEnComun(Usuario usuario1, Usuario usuario2) {
+        int u = id(usuario1);
+        int v = id(usuario2);
+        if (u < 0 || v < 0) {
             return 0;
         }
-        
-        // BFS para encontrar el camino más corto
-        Queue<Usuario> cola = new LinkedList<>();
-        Map<Usuario, Integer> distancias = new HashMap<>();
-        
-        cola.offer(origen);
-        distancias.put(origen, 0);
-        
-        while (!cola.isEmpty()) {
-            Usuario actual = cola.poll();
-            int distanciaActual = distancias.get(actual);
-            
-            // Explorar vecinos
-            for (Usuario vecino : grafo.get(actual)) {
-                if (!distancias.containsKey(vecino)) {
-                    int nuevaDistancia = distanciaActual + 1;
-                    distancias.put(vecino, nuevaDistancia);
-                    
-                    if (vecino.equals(destino)) {
-                        return nuevaDistancia;
-                    }
-                    
-                    cola.offer(vecino);
-                }
+
+        int[] a = vecinos[u], b = vecinos[v];
+        int i = 0, j = 0, comunes = 0;
+        while (i < grado[u] && j < grado[v]) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                comunes++;
+                i++;
+                j++;
             }
         }
-        
-        return -1; // No hay camino
+        return comunes;
     }
-    
+
     /**
-     * Encuentra el camino más corto entre dos usuarios usando BFS.
-     * Retorna la secuencia de usuarios que conecta origen con destino.
-     * 
-     * <p>Complejidad: O(V + E)</p>
-     * 
+     * Calcula la distancia más corta entre dos usuarios usando BFS
+     * bidireccional. La distancia es el número de aristas en el camino más corto.
+     *
+     * <p>Complejidad: O(b^(d/2)) para grado medio b y distancia d, en lugar
+     * de O(b^d) de un BFS desde un solo extremo; O(V + E) en el peor caso</p>
+     *
+     * @param origen Usuario origen
+     * @param destino Usuario destino
+     * @return Distancia (número de saltos), o -1 si no están conectados
+     */
+    public int calcularDistancia(Usuario origen, Usuario destino) {
+        int[] camino = caminoMasCorto(origen, destino);
+        return camino == null ? -1 : camino.length - 1;
+    }
+
+    /**
+     * Encuentra el camino más corto entre dos usuarios usando BFS
+     * bidireccional. Retorna la secuencia de usuarios que conecta origen con destino.
+     *
+     * <p>Complejidad: la de {@link #calcularDistancia(Usuario, Usuario)}</p>
+     *
      * @param origen Usuario origen
      * @param destino Usuario destino
      * @return Lista con el camino (incluyendo origen y destino), o lista vacía si no hay camino
      */
     public List<Usuario> encontrarCamino(Usuario origen, Usuario destino) {
-        if (origen == null || destino == null || 
-            !grafo.containsKey(origen) || !grafo.containsKey(destino)) {
-            return new ArrayList<>();
-        }
-        
-        if (origen.equals(destino)) {
-            return List.of(origen);
-        }
-        
-        // BFS con reconstrucción de camino
-        Queue<Usuario> cola = new LinkedList<>();
-        Map<Usuario, Usuario> padres = new HashMap<>();
-        Set<Usuario> visitados = new HashSet<>();
-        
-        cola.offer(origen);
-        visitados.add(origen);
-        padres.put(origen, null);
-        
-        boolean encontrado = false;
-        
-        while (!cola.isEmpty() && !encontrado) {
-            Usuario actual = cola.poll();
-            
-            for (Usuario vecino : grafo.get(actual)) {
-                if (!visitados.contains(vecino)) {
-                    visitados.add(vecino);
-                    padres.put(vecino, actual);
-                    cola.offer(vecino);
-                    
-                    if (vecino.equals(destino)) {
-                        encontrado = true;
-                        break;
-                    }
-                }
-            }
-        }
-        
-        if (!encontrado) {
+        int[] camino = caminoMasCorto(origen, destino);
+        if (camino == null) {
             return new ArrayList<>();
         }
-        
-        // Reconstruir el camino desde destino hasta origen
-        List<Usuario> camino = new ArrayList<>();
-        Usuario actual = destino;
-        
-        while (actual != null) {
-            camino.add(0, actual); // Agregar al inicio
-            actual = padres.get(actual);
+
+        List<Usuario> out = new ArrayList<>(camino.length);
+        for (int v : camino) {
+            out.add(usuarios.get(v));
         }
-        
-        return camino;
+        return out;
     }
-    
+
     /**
      * Encuentra todos los usuarios alcanzables desde un usuario usando BFS.
      * Útil para identificar componentes conexas.
-     * 
+     *
      * <p>Complejidad: O(V + E)</p>
-     * 
+     *
      * @param usuario Usuario origen
      * @return Set de usuarios en la misma componente conexa
      */
     public Set<Usuario> encontrarComponente(Usuario usuario) {
-        if (usuario == null || !grafo.containsKey(usuario)) {
+        int u = id(usuario);
+        if (u < 0) {
             return new HashSet<>();
         }
-        
-        Set<Usuario> componente = new HashSet<>();
-        Queue<Usuario> cola = new LinkedList<>();
-        
-        cola.offer(usuario);
-        componente.add(usuario);
-        
-        while (!cola.isEmpty()) {
-            Usuario actual = cola.poll();
-            
-            for (Usuario vecino : grafo.get(actual)) {
-                if (!componente.contains(vecino)) {
-                    componente.add(vecino);
-                    cola.offer(vecino);
-                }
-            }
+
+        int[] cola = new int[usuarios.size()];
+        int fin = recorrerComponente(u, new BitSet(usuarios.size()), cola);
+
+        Set<Usuario> componente = new HashSet<>(fin * 2);
+        for (int i = 0; i < fin; i++) {
+            componente.add(usuarios.get(cola[i]));
         }
-        
         return componente;
     }
-    
+
     /**
      * Cuenta el número de componentes conexas en el grafo.
      * Una componente conexa es un subgrafo donde todos los usuarios están conectados.
-     * 
-     * <p>Complejidad: O(V + E)</p>
-     * 
+     *
+     * <p>Complejidad: O(1); O(V + E) solo en la primera consulta después de
+     * eliminar amistades o usuarios</p>
+     *
      * @return Número de componentes conexas
      */
     public int contarComponentes() {
-        Set<Usuario> visitados = new HashSet<>();
-        int componentes = 0;
-        
-        for (Usuario usuario : grafo.keySet()) {
-            if (!visitados.contains(usuario)) {
-                // Explorar toda la componente desde este usuario
-                Set<Usuario> componente = encontrarComponente(usuario);
-                visitados.addAll(componente);
-                componentes++;
-            }
-        }
-        
-        return componentes;
+        return componentes().conjuntos();
     }
-    
+
     /**
      * Verifica si el grafo es conexo (todos los usuarios están conectados).
-     * 
-     * <p>Complejidad: O(V + E)</p>
-     * 
+     *
+     * <p>Complejidad: la de {@link #contarComponentes()}</p>
+     *
      * @return true si hay exactamente una componente conexa
      */
     public boolean esConexo() {
         if (isEmpty()) {
             return true;
         }
-        
+
         return contarComponentes() == 1;
     }
-    
+
     /**
      * Encuentra el usuario con más amigos (hub de la red social).
      * Complejidad: O(V)
-     * 
+     *
      * @return Usuario con más amigos, o null si el grafo está vacío
      */
     public Usuario encontrarUsuarioMasPopular() {
-        if (isEmpty()) {
-            return null;
-        }
-        
         Usuario masPopular = null;
         int maxAmigos = -1;
-        
-        for (Map.Entry<Usuario, Set<Usuario>> entry : grafo.entrySet()) {
-            int numAmigos = entry.getValue().size();
-            if (numAmigos > maxAmigos) {
-                maxAmigos = numAmigos;
-                masPopular = entry.getKey();
+
+        for (int u = 0; u < usuarios.size(); u++) {
+            if (usuarios.get(u) != null && grado[u] > maxAmigos) {
+                maxAmigos = grado[u];
+                masPopular = usuarios.get(u);
             }
         }
-        
+
         return masPopular;
     }
-    
+
     /**
      * Encuentra usuarios con exactamente el número especificado de amigos.
      * Complejidad: O(V)
-     * 
+     *
      * @param numAmigos Número de amigos
      * @return Set de usuarios con ese número de amigos
      */
     public Set<Usuario> encontrarUsuariosPorNumAmigos(int numAmigos) {
         Set<Usuario> resultado = new HashSet<>();
-        
-        for (Map.Entry<Usuario, Set<Usuario>> entry : grafo.entrySet()) {
-            if (entry.getValue().size() == numAmigos) {
-                resultado.add(entry.getKey());
+
+        for (int u = 0; u < usuarios.size(); u++) {
+            if (usuarios.get(u) != null && grado[u] == numAmigos) {
+                resultado.add(usuarios.get(u));
             }
         }
-        
+
         return resultado;
     }
-    
+
     /**
      * Cuenta el número total de amistades en el grafo.
      * Como es no dirigido, cada amistad se cuenta una sola vez.
-     * Complejidad: O(V)
-     * 
+     * Complejidad: O(1)
+     *
      * @return Número de amistades
      */
     public int contarAmistades() {
-        int total = 0;
-        for (Set<Usuario> amigos : grafo.values()) {
-            total += amigos.size();
-        }
-        return total / 2; // Dividir por 2 porque es no dirigido
+        return aristas;
     }
-    
+
     /**
      * Obtiene el número de usuarios en el grafo.
      * Complejidad: O(1)
-     * 
+     *
      * @return Número de usuarios
      */
     public int size() {
-        return grafo.size();
+        return indice.size();
     }
-    
+
     /**
      * Verifica si el grafo está vacío.
-     * 
+     *
      * @return true si no hay usuarios
      */
     public boolean isEmpty() {
-        return grafo.isEmpty();
+        return indice.isEmpty();
     }
-    
+
     /**
      * Verifica si un usuario existe en el grafo.
      * Complejidad: O(1)
-     * 
+     *
      * @param usuario Usuario a verificar
      * @return true si existe
      */
     public boolean contiene(Usuario usuario) {
-        return usuario != null && grafo.containsKey(usuario);
+        return usuario != null && indice.containsKey(usuario);
     }
-    
+
     /**
      * Obtiene todos los usuarios del grafo.
      * Complejidad: O(V)
-     * 
+     *
      * @return Set de usuarios
      */
     public Set<Usuario> getUsuarios() {
-        return new HashSet<>(grafo.keySet());
+        return new HashSet<>(indice.keySet());
     }
-    
+
     /**
      * Limpia completamente el grafo.
-     * Complejidad: O(1)
+     * Complejidad: O(V)
      */
     public void clear() {
-        grafo.clear();
+        componentes.limpiar();
+        componentesVigentes = true;
+        indice.clear();
+        usuarios.clear();
+        Arrays.fill(vecinos, null);
+        totalLibres = 0;
+        aristas = 0;
     }
-    
+
     /**
      * Calcula la densidad del grafo.
      * Densidad = (2 * E) / (V * (V - 1))
      * Rango: 0.0 (sin conexiones) a 1.0 (totalmente conectado)
-     * 
+     *
      * @return Densidad entre 0.0 y 1.0
      */
     public double calcularDensidad() {
@@ -574,39 +761,34 @@ public class GrafoSocial {
         if (v <= 1) {
             return 0.0;
         }
-        
+
         int e = contarAmistades();
         return (2.0 * e) / (v * (v - 1));
     }
-    
+
     /**
      * Calcula el número promedio de amigos por usuario.
-     * 
+     *
      * @return Promedio de amigos, o 0.0 si el grafo está vacío
      */
     public double calcularPromedioAmigos() {
         if (isEmpty()) {
             return 0.0;
         }
-        
-        int totalAmigos = 0;
-        for (Set<Usuario> amigos : grafo.values()) {
-            totalAmigos += amigos.size();
-        }
-        
-        return (double) totalAmigos / size();
+
+        return (2.0 * aristas) / size();
     }
-    
+
     /**
      * Obtiene estadísticas del grafo social.
-     * 
+     *
      * @return String con información del grafo
      */
     public String getEstadisticas() {
         if (isEmpty()) {
             return "Grafo social vacío";
         }
-        
+
         StringBuilder sb = new StringBuilder();
         sb.append("=== Estadísticas del Grafo Social ===\n");
         sb.append("Usuarios: ").append(size()).append("\n");
@@ -615,19 +797,19 @@ public class GrafoSocial {
         sb.append("Densidad: ").append(String.format("%.2f%%", calcularDensidad() * 100)).append("\n");
         sb.append("Componentes conexas: ").append(contarComponentes()).append("\n");
         sb.append("Es conexo: ").append(esConexo() ? "Sí" : "No").append("\n");
-        
+
         Usuario masPopular = encontrarUsuarioMasPopular();
         if (masPopular != null) {
             sb.append("Usuario más popular: ").append(masPopular.getUsername())
               .append(" con ").append(contarAmigos(masPopular)).append(" amigos\n");
         }
-        
+
         return sb.toString();
     }
-    
+
     /**
      * Representación en String del grafo (para debugging).
-     * 
+     *
      * @return String con lista de adyacencia
      */
     @Override
@@ -635,23 +817,168 @@ public class GrafoSocial {
         if (isEmpty()) {
             return "Grafo social vacío";
         }
-        
+
         StringBuilder sb = new StringBuilder();
         sb.append("Grafo Social (").append(size()).append(" usuarios):\n");
-        
-        for (Map.Entry<Usuario, Set<Usuario>> entry : grafo.entrySet()) {
-            sb.append("  ").append(entry.getKey().getUsername()).append(" → [");
-            
-            List<String> amigosNombres = entry.getValue().stream()
-                    .map(Usuario::getUsername)
-                    .sorted()
-                    .toList();
-            
+
+        for (int u = 0; u < usuarios.size(); u++) {
+            if (usuarios.get(u) == null) {
+                continue;
+            }
+            sb.append("  ").append(usuarios.get(u).getUsername()).append(" → [");
+
+            List<String> amigosNombres = new ArrayList<>();
+            for (int i = 0; i < grado[u]; i++) {
+                amigosNombres.add(usuarios.get(vecinos[u][i]).getUsername());
+            }
+            Collections.sort(amigosNombres);
+
             sb.append(String.join(", ", amigosNombres));
             sb.append("]\n");
         }
-        
+
         return sb.toString();
     }
-}
 
+    // =====================================================
+    // REPRESENTACIÓN INTERNA (IDs enteros)
+    // =====================================================
+
+    /** ID del usuario, o -1 si es null o no está en el grafo. */
+    private int id(Usuario usuario) {
+        if (usuario == null) {
+            return -1;
+        }
+        Integer u = indice.get(usuario);
+        return u == null ? -1 : u;
+    }
+
+    private boolean esVecino(int u, int v) {
+        return Arrays.binarySearch(vecinos[u], 0, grado[u], v) >= 0;
+    }
+
+    /** Inserta v en la lista ordenada de u (v no debe estar). */
+    private void insertar(int u, int v) {
+        int n = grado[u];
+        int[] a = vecinos[u];
+        int pos = -Arrays.binarySearch(a, 0, n, v) - 1;
+        if (n == a.length) {
+            a = vecinos[u] = Arrays.copyOf(a, Math.max(4, n * 2));
+        }
+        System.arraycopy(a, pos, a, pos + 1, n - pos);
+        a[pos] = v;
+        grado[u] = n + 1;
+    }
+
+    /** Quita v de la lista ordenada de u (v debe estar). */
+    private void quitar(int u, int v) {
+        int n = grado[u];
+        int[] a = vecinos[u];
+        int pos = Arrays.binarySearch(a, 0, n, v);
+        System.arraycopy(a, pos + 1, a, pos, n - pos - 1);
+        grado[u] = n - 1;
+    }
+
+    /** IDs del camino más corto entre dos usuarios, o null si no hay camino. */
+    private int[] caminoMasCorto(Usuario origen, Usuario destino) {
+        int s = id(origen);
+        int t = id(destino);
+        if (s < 0 || t < 0) {
+            return null;
+        }
+        if (componentesVigentes && componentes.raiz(s) != componentes.raiz(t)) {
+            return null; // Componentes distintas: no hace falta buscar
+        }
+        return caminos.buscar(s, t, usuarios.size(), vecinos, grado);
+    }
+
+    /** Más amigos en común primero; a igual número, el ID menor. */
+    private boolean mejorSugerencia(int a, int b) {
+        return mutuos[a] != mutuos[b] ? mutuos[a] > mutuos[b] : a < b;
+    }
+
+    private void subir(int[] monticulo, int i) {
+        while (i > 0) {
+            int p = (i - 1) / 2;
+            if (!mejorSugerencia(monticulo[p], monticulo[i])) {
+                break;
+            }
+            int t = monticulo[p];
+            monticulo[p] = monticulo[i];
+            monticulo[i] = t;
+            i = p;
+        }
+    }
+
+    private void bajar(int[] monticulo, int tamano) {
+        int i = 0;
+        while (true) {
+            int peor = i;
+            int izq = 2 * i + 1, der = izq + 1;
+            if (izq < tamano && mejorSugerencia(monticulo[peor], monticulo[izq])) {
+                peor = izq;
+            }
+            if (der < tamano && mejorSugerencia(monticulo[peor], monticulo[der])) {
+                peor = der;
+            }
+            if (peor == i) {
+                return;
+            }
+            int t = monticulo[peor];
+            monticulo[peor] = monticulo[i];
+            monticulo[i] = t;
+            i = peor;
+        }
+    }
+
+    /**
+     * Componentes al día: si alguna baja las dejó vencidas, se rearman
+     * uniendo las aristas actuales.
+     * Complejidad: O(1), u O((V + E) · α) al reconstruir
+     */
+    private ConjuntosDisjuntos componentes() {
+        if (!componentesVigentes) {
+            componentes.limpiar();
+            for (int u = 0; u < usuarios.size(); u++) {
+                if (usuarios.get(u) != null) {
+                    componentes.agregar(u);
+                }
+            }
+            for (int u = 0; u < usuarios.size(); u++) {
+                int[] a = vecinos[u];
+                for (int i = 0; i < grado[u]; i++) {
+                    if (a[i] > u) {
+                        componentes.unir(u, a[i]);
+                    }
+                }
+            }
+            componentesVigentes = true;
+        }
+        return componentes;
+    }
+
+    /**
+     * Marca en visitados la componente de u y deja sus vértices en cola[0..fin).
+     *
+     * @return Número de vértices de la componente
+     */
+    private int recorrerComponente(int u, BitSet visitados, int[] cola) {
+        int inicio = 0, fin = 0;
+        cola[fin++] = u;
+        visitados.set(u);
+
+        while (inicio < fin) {
+            int actual = cola[inicio++];
+            int[] a = vecinos[actual];
+            for (int i = 0; i < grado[actual]; i++) {
+                int vecino = a[i];
+                if (!visitados.get(vecino)) {
+                    visitados.set(vecino);
+                    cola[fin++] = vecino;
+                }
+            }
+        }
+
+        return fin;
+    }
+}
@@ -0,0 +1,170 @@
+package org.dubytube.dubytube.ds;
+
+import java.util.Arrays;
+
+/**
+ * Montículo binario de mínimos indexado, sobre vértices enteros 0..n-1 con
+ * prioridad {@code double}.
+ *
+ * <p>Guarda la posición de cada vértice dentro del montículo, de modo que
+ * bajar la prioridad de un vértice ya encolado (la "relajación" de Dijkstra)
+ * cuesta O(log n) y no requiere buscarlo ni reinsertarlo. Todo en arreglos
+ * primitivos, sin cajas {@link Double} ni {@link Integer}.</p>
+ *
+ * <p>Se puede reutilizar entre búsquedas: {@link #vaciar()} solo recorre
+ * los vértices que quedaron encolados y {@link #asegurarCapacidad(int)}
+ * crece sin perder el estado, así que una búsqueda que se detiene pronto
+ * no paga O(n) por preparar el montículo.</p>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+public class MonticuloIndexado {
+
+    private int[] heap;      // heap[i] = vértice en la posición i
+    private int[] posicion;  // posicion[v] = lugar de v en heap, o -1
+    private double[] clave;  // clave[v] = prioridad de v
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param capacidad Número de vértices (IDs válidos: 0..capacidad-1)
+     */
+    public MonticuloIndexado(int capacidad) {
+        this.heap = new int[capacidad];
+        this.posicion = new int[capacidad];
+        this.clave = new double[capacidad];
+        Arrays.fill(posicion, -1);
+    }
+
+    /**
+     * Admite vértices 0..n-1, conservando los encolados.
+     * Complejidad: O(n) solo si hay que crecer
+     *
+     * @param n Número de vértices
+     */
+    public void asegurarCapacidad(int n) {
+        int anterior = posicion.length;
+        if (n <= anterior) {
+            return;
+        }
+        int capacidad = Math.max(n, anterior * 2);
+        heap = Arrays.copyOf(heap, capacidad);
+        posicion = Arrays.copyOf(posicion, capacidad);
+        clave = Arrays.copyOf(clave, capacidad);
+        Arrays.fill(posicion, anterior, capacidad, -1);
+    }
+
+    /**
+     * Saca todos los vértices encolados.
+     * Complejidad: O(size)
+     */
+    public void vaciar() {
+        for (int i = 0; i < size; i++) {
+            posicion[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Inserta un vértice o baja su prioridad si ya estaba y la nueva es menor.
+     * Complejidad: O(log n)
+     *
+     * @param v Vértice
+     * @param prioridad Nueva prioridad
+     */
+    public void insertarODisminuir(int v, double prioridad) {
+        int i = posicion[v];
+        if (i < 0) {
+            i = size++;
+            heap[i] = v;
+            posicion[v] = i;
+        } else if (prioridad >= clave[v]) {
+            return;
+        }
+        clave[v] = prioridad;
+        subir(i);
+    }
+
+    /**
+     * Extrae el vértice de menor prioridad.
+     * Complejidad: O(log n)
+     *
+     * @return Vértice extraído
+     * @throws IllegalStateException si el montículo está vacío
+     */
+    public int extraerMin() {
+        if (size == 0) {
+            throw new IllegalStateException("Montículo vacío");
+        }
+        int min = heap[0];
+        posicion[min] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            posicion[heap[0]] = 0;
+            bajar(0);
+        }
+        return min;
+    }
+
+    /**
+     * Prioridad actual de un vértice encolado (o la última que tuvo).
+     *
+     * @param v Vértice
+     * @return Prioridad
+     */
+    public double prioridad(int v) {
+        return clave[v];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void subir(int i) {
+        int v = heap[i];
+        double k = clave[v];
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            int p = heap[padre];
+            if (clave[p] <= k) {
+                break;
+            }
+            heap[i] = p;
+            posicion[p] = i;
+            i = padre;
+        }
+        heap[i] = v;
+        posicion[v] = i;
+    }
+
+    private void bajar(int i) {
+        int v = heap[i];
+        double k = clave[v];
+        while (true) {
+            int hijo = 2 * i + 1;
+            if (hijo >= size) {
+                break;
+            }
+            if (hijo + 1 < size && clave[heap[hijo + 1]] < clave[heap[hijo]]) {
+                hijo++;
+            }
+            int h = heap[hijo];
+            if (clave[h] >= k) {
+                break;
+            }
+            heap[i] = h;
+            posicion[h] = i;
+            i = hijo;
+        }
+        heap[i] = v;
+        posicion[v] = i;
+    }
+}
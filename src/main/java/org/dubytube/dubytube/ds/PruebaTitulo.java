@@ -1,6 +1,6 @@
 package org.dubytube.dubytube.ds;
 import org.dubytube.dubytube.domain.Cancion;
-import java.text.Normalizer;
+import org.dubytube.dubytube.util.TextoNormalizador;
 import java.util.*;
 public class PruebaTitulo {
     private static class Nodo {
@@ -9,19 +9,12 @@ public class PruebaTitulo {
         List<Cancion> payload = new ArrayList<>(); // canciones con ese título
     }
     private final Nodo raiz = new Nodo();
-    // normaliza: quita acentos, baja a minúsculas y limpia símbolos
+    // normaliza: quita acentos, baja a minúsculas y limpia símbolos (normalizador compartido)
     private static String norm(String s) {
-        if (s == null) return "";
-        String t = Normalizer.normalize(s, Normalizer.Form.NFD)
-                .replaceAll("\\p{M}", "");          // quita diacríticos
-        t = t.toLowerCase(Locale.ROOT)
-                .replaceAll("[^a-z0-9 ]", " ")        // solo letras/números/espacio
-                .replaceAll("\\s+", " ")              // espacios múltiples -> uno
-                .trim();
-        return t;
+        return TextoNormalizador.normalizar(s);
     }
     public void insert(Cancion c) {
-        String key = norm(c.getTitulo());
+        String key = c.getTituloNormalizado();
         if (key.isEmpty()) return;
         Nodo n = raiz;
         for (char ch : key.toCharArray()) {
@@ -0,0 +1,227 @@
+package org.dubytube.dubytube.ds;
+
+import org.dubytube.dubytube.domain.Cancion;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Atributos de un conjunto de canciones en columnas primitivas, para
+ * puntuar pares sin tocar cadenas.
+ *
+ * <p>Artista y género se internan una sola vez como enteros (la misma
+ * equivalencia que {@link String#equalsIgnoreCase(String)}), y año y
+ * duración se copian a {@code int[]}. Comparar dos canciones pasa a ser
+ * comparar enteros en arreglos contiguos, y el cálculo de una contra todas
+ * es un bucle simple sobre las columnas que el JIT puede desenrollar.</p>
+ *
+ * <p>Sobre las mismas columnas hay dos métricas, cada una idéntica, bit a
+ * bit, a su versión sobre objetos (mismas operaciones en el mismo orden):</p>
+ * <ul>
+ *   <li>{@link #similitud(int, int)}: puntaje 0-100 de
+ *       {@link Cancion#calcularSimilitud(Cancion)}, el de los pesos de
+ *       {@link GrafoDeSimilitud}</li>
+ *   <li>{@link #distancia(int, int)}: distancia del motor de similitud
+ *       ({@code MotorSimilitud.distanciaHeuristica})</li>
+ * </ul>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+public class RasgosCanciones {
+
+    /** Identificador de un artista o género nulo (nunca coincide). */
+    private static final int SIN_VALOR = -1;
+
+    private final int[] artistas;
+    private final int[] generos;
+    private final int[] anios;
+    private final int[] duraciones;
+
+    /**
+     * Constructor. La posición i de cada columna corresponde a
+     * {@code canciones.get(i)}.
+     * Complejidad: O(n · L) donde L es la longitud de artista y género
+     *
+     * @param canciones Canciones a codificar (se asume un ID distinto por posición)
+     */
+    public RasgosCanciones(List<Cancion> canciones) {
+        int n = canciones.size();
+        this.artistas = new int[n];
+        this.generos = new int[n];
+        this.anios = new int[n];
+        this.duraciones = new int[n];
+
+        Map<String, Integer> internadas = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Cancion c = canciones.get(i);
+            artistas[i] = internar(c.getArtista(), internadas);
+            generos[i] = internar(c.getGenero(), internadas);
+            anios[i] = c.getAnio();
+            duraciones[i] = c.getDuracionSeg();
+        }
+    }
+
+    /**
+     * Similitud entre las canciones de las posiciones i y j, igual a
+     * {@code canciones.get(i).calcularSimilitud(canciones.get(j))}.
+     * Complejidad: O(1)
+     *
+     * @param i Primera posición
+     * @param j Segunda posición
+     * @return Puntaje de similitud (0-100)
+     */
+    public double similitud(int i, int j) {
+        if (i == j) {
+            return 0.0;
+        }
+
+        double similitud = 0.0;
+        if (generos[i] != SIN_VALOR && generos[i] == generos[j]) {
+            similitud += 40.0;
+        }
+        if (artistas[i] != SIN_VALOR && artistas[i] == artistas[j]) {
+            similitud += 30.0;
+        }
+        int diferenciaAnio = Math.abs(anios[i] - anios[j]);
+        if (diferenciaAnio <= 5) {
+            similitud += 20.0 * (1.0 - diferenciaAnio / 5.0);
+        }
+        int diferenciaDuracion = Math.abs(duraciones[i] - duraciones[j]);
+        if (diferenciaDuracion <= 30) {
+            similitud += 10.0 * (1.0 - diferenciaDuracion / 30.0);
+        }
+        return similitud;
+    }
+
+    /**
+     * Similitud de la canción i contra todas, en una sola pasada por las
+     * columnas. {@code destino[i]} queda en 0.
+     * Complejidad: O(n)
+     *
+     * @param i Posición de la canción origen
+     * @param destino Arreglo de al menos {@link #size()} posiciones
+     */
+    public void similitudesCon(int i, double[] destino) {
+        int n = anios.length;
+        int genero = generos[i];
+        int artista = artistas[i];
+        int anio = anios[i];
+        int duracion = duraciones[i];
+
+        for (int j = 0; j < n; j++) {
+            double similitud = 0.0;
+            if (genero != SIN_VALOR && genero == generos[j]) {
+                similitud += 40.0;
+            }
+            if (artista != SIN_VALOR && artista == artistas[j]) {
+                similitud += 30.0;
+            }
+            int diferenciaAnio = Math.abs(anio - anios[j]);
+            if (diferenciaAnio <= 5) {
+                similitud += 20.0 * (1.0 - diferenciaAnio / 5.0);
+            }
+            int diferenciaDuracion = Math.abs(duracion - duraciones[j]);
+            if (diferenciaDuracion <= 30) {
+                similitud += 10.0 * (1.0 - diferenciaDuracion / 30.0);
+            }
+            destino[j] = similitud;
+        }
+        destino[i] = 0.0;
+    }
+
+    /**
+     * Distancia entre las canciones de las posiciones i y j, igual a
+     * {@code MotorSimilitud.distanciaHeuristica(canciones.get(i), canciones.get(j))}:
+     * parte de 1.0, resta 0.4 por género y 0.5 por artista compartidos y suma
+     * 0.01 por año de diferencia (hasta 0.4).
+     * Complejidad: O(1)
+     *
+     * @param i Primera posición
+     * @param j Segunda posición
+     * @return Distancia entre 0.05 y 1.4 (menor = más similar)
+     */
+    public double distancia(int i, int j) {
+        double d = 1.0;
+        if (generos[i] != SIN_VALOR && generos[i] == generos[j]) d -= 0.4;
+        if (artistas[i] != SIN_VALOR && artistas[i] == artistas[j]) d -= 0.5;
+        int diff = Math.abs(anios[i] - anios[j]);
+        d += Math.min(diff, 40) / 100.0;
+        if (d < 0.05) d = 0.05;
+        return d;
+    }
+
+    /**
+     * Distancia de la canción i contra todas, en una sola pasada por las
+     * columnas. {@code destino[i]} queda con la distancia de i consigo misma.
+     * Complejidad: O(n)
+     *
+     * @param i Posición de la canción origen
+     * @param destino Arreglo de al menos {@link #size()} posiciones
+     */
+    public void distanciasCon(int i, double[] destino) {
+        int n = anios.length;
+        int genero = generos[i];
+        int artista = artistas[i];
+        int anio = anios[i];
+
+        for (int j = 0; j < n; j++) {
+            double d = 1.0;
+            if (genero != SIN_VALOR && genero == generos[j]) d -= 0.4;
+            if (artista != SIN_VALOR && artista == artistas[j]) d -= 0.5;
+            int diff = Math.abs(anio - anios[j]);
+            d += Math.min(diff, 40) / 100.0;
+            if (d < 0.05) d = 0.05;
+            destino[j] = d;
+        }
+    }
+
+    /** Artista internado de la posición i (-1 si no tiene). */
+    public int artista(int i) {
+        return artistas[i];
+    }
+
+    /** Género internado de la posición i (-1 si no tiene). */
+    public int genero(int i) {
+        return generos[i];
+    }
+
+    /** Año de la canción de la posición i. */
+    public int anio(int i) {
+        return anios[i];
+    }
+
+    /** Duración (segundos) de la canción de la posición i. */
+    public int duracion(int i) {
+        return duraciones[i];
+    }
+
+    /**
+     * Obtiene el número de canciones codificadas.
+     *
+     * @return Cantidad de canciones
+     */
+    public int size() {
+        return anios.length;
+    }
+
+    /**
+     * Entero que identifica un texto salvo mayúsculas, con la misma clave
+     * que los bloques de {@link CandidatosSimilitud#plegar(String)}.
+     */
+    private static int internar(String valor, Map<String, Integer> internadas) {
+        if (valor == null) {
+            return SIN_VALOR;
+        }
+
+        String plegado = CandidatosSimilitud.plegar(valor);
+        Integer id = internadas.get(plegado);
+        if (id == null) {
+            id = internadas.size();
+            internadas.put(plegado, id);
+        }
+        return id;
+    }
+}
@@ -1,5 +1,10 @@
 package org.dubytube.dubytube.ds;
 
+import org.dubytube.dubytube.util.TextoNormalizador;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -11,8 +16,10 @@ import java.util.*;
  *   <li>Inserción en O(m) donde m es la longitud de la palabra</li>
  *   <li>Búsqueda en O(m)</li>
  *   <li>Autocompletado eficiente con prefijos</li>
- *   <li>Case-insensitive (convierte a minúsculas)</li>
+ *   <li>Insensible a mayúsculas, acentos y signos de puntuación ({@link TextoNormalizador})</li>
  *   <li>Soporta caracteres especiales y espacios</li>
+ *   <li>Nodos compactos: hijos en arreglos ordenados (sin HashMap por nodo)</li>
+ *   <li>Búsqueda aproximada (tolerante a errores de tipeo) por distancia de edición</li>
  * </ul>
  * 
  * <p>Ejemplo de uso:</p>
@@ -34,13 +41,26 @@ public class Trie {
     /**
      * Nodo interno del Trie.
      * Cada nodo representa un carácter y contiene referencias a sus hijos.
+     *
+     * <p>Los hijos se guardan en dos arreglos paralelos: {@code keys} (ordenado)
+     * y {@code children}. La búsqueda de un hijo es binaria sobre {@code keys},
+     * sin cajas {@link Character} ni tablas hash por nodo, y los hijos quedan
+     * recorridos en orden lexicográfico.</p>
      */
     private static class TrieNode {
+        private static final char[] NO_KEYS = new char[0];
+        private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+        /**
+         * Caracteres de los hijos, ordenados ascendentemente.
+         * keys[i] corresponde a children[i].
+         */
+        char[] keys;
+
         /**
-         * Mapa de caracteres a nodos hijos.
-         * Usamos HashMap para soportar cualquier carácter Unicode.
+         * Nodos hijos, en el mismo orden que {@code keys}.
          */
-        Map<Character, TrieNode> children;
+        TrieNode[] children;
         
         /**
          * Indica si este nodo marca el final de una palabra válida.
@@ -59,18 +79,146 @@ public class Trie {
          */
         int frequency;
 
+        /**
+         * Puntaje de popularidad real de la palabra (solo en nodos terminales),
+         * alimentado desde fuera (reproducciones, favoritos). Es el criterio
+         * principal de ranking; la frecuencia de paso solo desempata.
+         */
+        int score;
+
+        /**
+         * Caché de las palabras más populares del subárbol (nodos terminales),
+         * ordenadas por popularidad descendente. Nunca se modifica en sitio:
+         * se reemplaza el arreglo completo, por lo que un nodo con un único
+         * hijo y sin palabra propia puede compartir el arreglo del hijo.
+         */
+        TrieNode[] top;
+
         /**
          * Constructor del nodo Trie.
          */
         TrieNode() {
-            this.children = new HashMap<>();
+            this.keys = NO_KEYS;
+            this.children = NO_CHILDREN;
+            this.top = NO_CHILDREN;
             this.isEndOfWord = false;
             this.word = null;
             this.frequency = 0;
         }
+
+        /**
+         * Retorna el hijo asociado a un carácter.
+         * Complejidad: O(log d) donde d es el número de hijos
+         *
+         * @param ch Carácter buscado
+         * @return Nodo hijo, o null si no existe
+         */
+        TrieNode child(char ch) {
+            int i = Arrays.binarySearch(keys, ch);
+            return i >= 0 ? children[i] : null;
+        }
+
+        /**
+         * Retorna el hijo asociado a un carácter, creándolo si no existe.
+         * Los arreglos crecen de uno en uno para no reservar espacio ocioso.
+         *
+         * @param ch Carácter buscado
+         * @return Nodo hijo (existente o nuevo)
+         */
+        TrieNode getOrCreateChild(char ch) {
+            int i = Arrays.binarySearch(keys, ch);
+            if (i >= 0) {
+                return children[i];
+            }
+
+            int pos = -(i + 1);
+            int n = keys.length;
+            char[] newKeys = new char[n + 1];
+            TrieNode[] newChildren = new TrieNode[n + 1];
+            System.arraycopy(keys, 0, newKeys, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            System.arraycopy(keys, pos, newKeys, pos + 1, n - pos);
+            System.arraycopy(children, pos, newChildren, pos + 1, n - pos);
+
+            TrieNode node = new TrieNode();
+            newKeys[pos] = ch;
+            newChildren[pos] = node;
+            keys = newKeys;
+            children = newChildren;
+            return node;
+        }
+
+        /**
+         * Elimina el hijo asociado a un carácter (si existe).
+         *
+         * @param ch Carácter del hijo a eliminar
+         */
+        void removeChild(char ch) {
+            int i = Arrays.binarySearch(keys, ch);
+            if (i < 0) {
+                return;
+            }
+
+            int n = keys.length;
+            if (n == 1) {
+                keys = NO_KEYS;
+                children = NO_CHILDREN;
+                return;
+            }
+
+            char[] newKeys = new char[n - 1];
+            TrieNode[] newChildren = new TrieNode[n - 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(keys, i + 1, newKeys, i, n - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, n - i - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        /**
+         * Indica si el nodo no tiene hijos.
+         *
+         * @return true si es una hoja
+         */
+        boolean isLeaf() {
+            return keys.length == 0;
+        }
+
+        /**
+         * Elimina todos los hijos del nodo.
+         */
+        void clearChildren() {
+            keys = NO_KEYS;
+            children = NO_CHILDREN;
+        }
     }
 
+    /**
+     * Versión del formato binario de {@link #writeTo(DataOutput)}.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    /**
+     * Tamaño por defecto de la caché de populares por nodo.
+     */
+    public static final int DEFAULT_TOP_K = 10;
+
+    /**
+     * Orden de popularidad: puntaje descendente, luego frecuencia descendente
+     * y, a igualdad, alfabético.
+     */
+    private static final Comparator<TrieNode> POPULARITY = (a, b) -> {
+        int cmp = Integer.compare(b.score, a.score);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = Integer.compare(b.frequency, a.frequency);
+        return cmp != 0 ? cmp : String.CASE_INSENSITIVE_ORDER.compare(a.word, b.word);
+    };
+
     private final TrieNode root;
+    private final int topK;
     private int totalWords;
 
     /**
@@ -78,32 +226,64 @@ public class Trie {
      * Inicializa la estructura con un nodo raíz vacío.
      */
     public Trie() {
+        this(DEFAULT_TOP_K);
+    }
+
+    /**
+     * Constructor con tamaño de caché de populares configurable.
+     *
+     * @param topK Número de palabras populares precalculadas por nodo
+     * @throws IllegalArgumentException si topK es menor que 1
+     */
+    public Trie(int topK) {
+        if (topK < 1) {
+            throw new IllegalArgumentException("topK debe ser al menos 1");
+        }
         this.root = new TrieNode();
+        this.topK = topK;
         this.totalWords = 0;
     }
 
     /**
      * Inserta una palabra en el Trie.
-     * La palabra se convierte a minúsculas para búsquedas case-insensitive.
+     * La palabra se normaliza (minúsculas, sin acentos ni signos) para búsquedas flexibles.
      * Complejidad: O(m) donde m es la longitud de la palabra
      * 
      * @param word Palabra a insertar
-     * @throws IllegalArgumentException si la palabra es null o vacía
+     * @throws IllegalArgumentException si la palabra es null, vacía o sin letras ni dígitos
      */
     public void insert(String word) {
         if (word == null || word.trim().isEmpty()) {
             throw new IllegalArgumentException("La palabra no puede ser null o vacía");
         }
 
-        String normalizedWord = normalize(word);
+        insert(word, normalize(word));
+    }
+
+    /**
+     * Inserta una palabra cuya clave normalizada ya se conoce, evitando
+     * normalizarla de nuevo (por ejemplo, la clave cacheada de una canción).
+     * Complejidad: O(m) donde m es la longitud de la clave
+     *
+     * @param word Palabra original a guardar
+     * @param normalizedWord Clave producida por {@link TextoNormalizador#normalizar(String)}
+     * @throws IllegalArgumentException si la palabra es null o la clave está vacía
+     */
+    public void insert(String word, String normalizedWord) {
+        if (word == null || normalizedWord == null || normalizedWord.isEmpty()) {
+            throw new IllegalArgumentException("La palabra no contiene letras ni dígitos: " + word);
+        }
+
+        TrieNode[] path = new TrieNode[normalizedWord.length() + 1];
         TrieNode current = root;
+        path[0] = root;
 
         // Recorrer cada carácter de la palabra
-        for (char ch : normalizedWord.toCharArray()) {
+        for (int i = 0; i < normalizedWord.length(); i++) {
             // Si el carácter no existe, crear nuevo nodo
-            current.children.putIfAbsent(ch, new TrieNode());
-            current = current.children.get(ch);
+            current = current.getOrCreateChild(normalizedWord.charAt(i));
             current.frequency++; // Incrementar frecuencia de paso
+            path[i + 1] = current;
         }
 
         // Marcar el final de la palabra y guardar la original
@@ -112,6 +292,13 @@ public class Trie {
             current.word = word; // Guardar palabra original (con mayúsculas/minúsculas)
             totalWords++;
         }
+
+        // Las frecuencias cambiaron solo en este camino (y solo subieron)
+        boolean[] changed = new boolean[path.length];
+        for (int i = 1; i < path.length; i++) {
+            changed[i] = path[i].isEndOfWord;
+        }
+        refreshTopAlong(path, path.length - 1, changed, true);
     }
 
     /**
@@ -184,11 +371,8 @@ public class Trie {
             return results;
         }
 
-        // Realizar DFS para encontrar todas las palabras
+        // DFS en orden de hijos: las palabras salen ya ordenadas
         collectAllWords(node, results);
-        
-        // Ordenar alfabéticamente
-        Collections.sort(results);
 
         return results;
     }
@@ -196,29 +380,43 @@ public class Trie {
     /**
      * Busca y retorna un máximo de N palabras que comienzan con el prefijo dado.
      * Útil para limitar resultados de autocompletado.
-     * Complejidad: O(m + k) donde m es la longitud del prefijo y k = min(limit, total_results)
+     *
+     * <p>El recorrido visita los hijos en orden lexicográfico y se detiene al
+     * reunir {@code limit} palabras, por lo que no se recorre el subárbol completo.</p>
+     *
+     * Complejidad: O(m + k·h) donde m es la longitud del prefijo, k = min(limit, total_results)
+     * y h la altura del subárbol recorrido
      * 
      * @param prefix Prefijo a buscar
      * @param limit Número máximo de resultados a retornar
-     * @return Lista de palabras (máximo 'limit' elementos)
+     * @return Lista de palabras (máximo 'limit' elementos, ordenadas alfabéticamente)
      */
     public List<String> searchByPrefix(String prefix, int limit) {
-        if (limit <= 0) {
-            return new ArrayList<>();
+        List<String> results = new ArrayList<>();
+
+        if (prefix == null || prefix.trim().isEmpty() || limit <= 0) {
+            return results;
         }
 
-        List<String> allResults = searchByPrefix(prefix);
-        
-        if (allResults.size() <= limit) {
-            return allResults;
+        TrieNode node = searchNode(normalize(prefix));
+
+        if (node == null) {
+            return results;
         }
 
-        return allResults.subList(0, limit);
+        collectWords(node, results, limit);
+
+        return results;
     }
 
     /**
      * Busca las palabras más populares que comienzan con el prefijo dado.
-     * Ordena por frecuencia de búsqueda descendente.
+     * Ordena por puntaje de popularidad descendente y, a igualdad,
+     * por frecuencia de búsqueda descendente.
+     *
+     * <p>Si {@code limit} no supera el tamaño de la caché por nodo, la respuesta
+     * se lee directamente de la lista precalculada del nodo del prefijo en
+     * O(m + limit). Para límites mayores se recorre el subárbol completo.</p>
      * 
      * @param prefix Prefijo a buscar
      * @param limit Número máximo de resultados
@@ -238,22 +436,181 @@ public class Trie {
             return results;
         }
 
-        // Recolectar palabras con sus frecuencias
-        List<WordFrequency> wordFreqs = new ArrayList<>();
-        collectAllWordsWithFrequency(node, wordFreqs);
+        if (limit <= topK) {
+            int count = Math.min(limit, node.top.length);
+            for (int i = 0; i < count; i++) {
+                results.add(node.top[i].word);
+            }
+            return results;
+        }
 
-        // Ordenar por frecuencia descendente
-        wordFreqs.sort((a, b) -> Integer.compare(b.frequency, a.frequency));
+        // Límite mayor que la caché: recolectar terminales y ordenar
+        List<TrieNode> terminals = new ArrayList<>();
+        collectTerminals(node, terminals);
+        terminals.sort(POPULARITY);
 
         // Tomar los primeros 'limit' elementos
-        int count = Math.min(limit, wordFreqs.size());
+        int count = Math.min(limit, terminals.size());
         for (int i = 0; i < count; i++) {
-            results.add(wordFreqs.get(i).word);
+            results.add(terminals.get(i).word);
+        }
+
+        return results;
+    }
+
+    /**
+     * Busca las palabras a distancia de edición (Levenshtein) de a lo sumo
+     * {@code maxDistance} de la consulta, para tolerar errores de tipeo.
+     *
+     * <p>Recorre el Trie en profundidad calculando una fila de la matriz de
+     * Levenshtein por nodo; los prefijos compartidos reutilizan la fila del
+     * padre, y una rama se poda en cuanto el mínimo de su fila supera
+     * {@code maxDistance}, porque ninguna palabra de ese subárbol podría
+     * quedar más cerca. Con distancias 1-2 solo se visita una pequeña parte
+     * del árbol.</p>
+     *
+     * Complejidad: O(v · q) donde v es el número de nodos visitados y q la
+     * longitud de la consulta
+     *
+     * @param query Palabra buscada (puede contener errores)
+     * @param maxDistance Número máximo de inserciones, borrados o sustituciones
+     * @param limit Número máximo de resultados
+     * @return Palabras ordenadas por distancia y, a igual distancia, alfabéticamente
+     * @throws IllegalArgumentException si maxDistance es negativo
+     */
+    public List<String> searchFuzzy(String query, int maxDistance, int limit) {
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("La distancia máxima no puede ser negativa: " + maxDistance);
+        }
+
+        List<String> results = new ArrayList<>();
+        String target = normalize(query);
+        if (target.isEmpty() || limit <= 0) {
+            return results;
         }
 
+        // Una lista por distancia: el recorrido lexicográfico las deja ordenadas
+        List<List<String>> byDistance = new ArrayList<>(maxDistance + 1);
+        for (int d = 0; d <= maxDistance; d++) {
+            byDistance.add(new ArrayList<>());
+        }
+
+        int[] firstRow = new int[target.length() + 1];
+        for (int j = 0; j < firstRow.length; j++) {
+            firstRow[j] = j;
+        }
+        for (int i = 0; i < root.keys.length; i++) {
+            collectFuzzy(root.children[i], root.keys[i], target, firstRow, maxDistance, byDistance);
+        }
+
+        for (List<String> words : byDistance) {
+            for (String word : words) {
+                if (results.size() >= limit) {
+                    return results;
+                }
+                results.add(word);
+            }
+        }
         return results;
     }
 
+    /**
+     * Ajusta la frecuencia de una palabra existente y actualiza las cachés
+     * de populares de sus prefijos.
+     * Complejidad: O(m · K log K) como máximo; se detiene antes si la caché de
+     * un prefijo no cambia
+     *
+     * @param word Palabra cuya frecuencia se ajusta
+     * @param delta Incremento (o decremento si es negativo)
+     * @return true si la palabra existe y se actualizó
+     */
+    public boolean addFrequency(String word, int delta) {
+        TrieNode[] path = terminalPath(word);
+        if (path == null) {
+            return false;
+        }
+
+        TrieNode node = path[path.length - 1];
+        int previous = node.frequency;
+        node.frequency = Math.max(0, node.frequency + delta);
+        if (node.frequency != previous) {
+            refreshTopAlong(path, path.length - 1, onlyLast(path), node.frequency > previous);
+        }
+        return true;
+    }
+
+    /**
+     * Ajusta el puntaje de popularidad de una palabra existente y actualiza
+     * las cachés de populares de sus prefijos.
+     * Complejidad: O(m · K log K) como máximo; se detiene antes si la caché de
+     * un prefijo no cambia
+     *
+     * @param word Palabra cuyo puntaje se ajusta
+     * @param delta Incremento (o decremento si es negativo)
+     * @return true si la palabra existe y se actualizó
+     */
+    public boolean addScore(String word, int delta) {
+        TrieNode[] path = terminalPath(word);
+        if (path == null) {
+            return false;
+        }
+
+        TrieNode node = path[path.length - 1];
+        return setScore(path, Math.max(0, node.score + delta));
+    }
+
+    /**
+     * Fija el puntaje de popularidad de una palabra existente.
+     *
+     * @param word Palabra cuyo puntaje se fija
+     * @param score Nuevo puntaje (no negativo)
+     * @return true si la palabra existe y se actualizó
+     */
+    public boolean setScore(String word, int score) {
+        TrieNode[] path = terminalPath(word);
+        return path != null && setScore(path, Math.max(0, score));
+    }
+
+    /**
+     * Obtiene el puntaje de popularidad de una palabra.
+     *
+     * @param word Palabra a consultar
+     * @return Puntaje, o -1 si la palabra no existe
+     */
+    public int getScore(String word) {
+        TrieNode[] path = terminalPath(word);
+        return path != null ? path[path.length - 1].score : -1;
+    }
+
+    /**
+     * Fija el puntaje del último nodo del camino y refresca las cachés
+     * solo si el valor cambió.
+     *
+     * @param path Camino hasta un nodo terminal
+     * @param score Nuevo puntaje
+     * @return true siempre (la palabra existe)
+     */
+    private boolean setScore(TrieNode[] path, int score) {
+        TrieNode node = path[path.length - 1];
+        if (node.score != score) {
+            boolean increased = score > node.score;
+            node.score = score;
+            refreshTopAlong(path, path.length - 1, onlyLast(path), increased);
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene la frecuencia actual de una palabra.
+     *
+     * @param word Palabra a consultar
+     * @return Frecuencia, o -1 si la palabra no existe
+     */
+    public int getFrequency(String word) {
+        TrieNode[] path = terminalPath(word);
+        return path != null ? path[path.length - 1].frequency : -1;
+    }
+
     /**
      * Elimina una palabra del Trie.
      * Complejidad: O(m) donde m es la longitud de la palabra
@@ -267,48 +624,37 @@ public class Trie {
         }
 
         String normalizedWord = normalize(word);
-        return deleteHelper(root, normalizedWord, 0);
-    }
-
-    /**
-     * Método auxiliar recursivo para eliminar una palabra.
-     * 
-     * @param current Nodo actual
-     * @param word Palabra a eliminar
-     * @param index Índice actual en la palabra
-     * @return true si el nodo actual debe ser eliminado
-     */
-    private boolean deleteHelper(TrieNode current, String word, int index) {
-        if (index == word.length()) {
-            // Si no es fin de palabra, no hay nada que eliminar
-            if (!current.isEndOfWord) {
-                return false;
-            }
+        TrieNode[] path = pathTo(normalizedWord);
 
-            current.isEndOfWord = false;
-            current.word = null;
-            totalWords--;
-
-            // Retornar true si el nodo no tiene hijos (se puede eliminar)
-            return current.children.isEmpty();
+        // Si no es fin de palabra, no hay nada que eliminar
+        if (path == null || !path[path.length - 1].isEndOfWord) {
+            return false;
         }
 
-        char ch = word.charAt(index);
-        TrieNode node = current.children.get(ch);
-
-        if (node == null) {
-            return false;
+        // Claves que bajan: la palabra eliminada y las palabras del camino (frecuencia)
+        boolean[] changed = new boolean[path.length];
+        for (int i = 1; i < path.length; i++) {
+            changed[i] = path[i].isEndOfWord;
         }
 
-        boolean shouldDeleteChild = deleteHelper(node, word, index + 1);
+        TrieNode last = path[path.length - 1];
+        last.isEndOfWord = false;
+        last.word = null;
+        last.score = 0;
+        totalWords--;
 
-        if (shouldDeleteChild) {
-            current.children.remove(ch);
-            // Retornar true si el nodo actual no tiene hijos y no es fin de palabra
-            return current.children.isEmpty() && !current.isEndOfWord;
+        // Deshacer la frecuencia de paso y podar nodos que quedaron vacíos
+        int depth = path.length - 1;
+        for (int i = depth; i >= 1; i--) {
+            path[i].frequency--;
+        }
+        while (depth > 0 && path[depth].isLeaf() && !path[depth].isEndOfWord) {
+            path[depth - 1].removeChild(normalizedWord.charAt(depth - 1));
+            depth--;
         }
 
-        return false;
+        refreshTopAlong(path, depth, changed, false);
+        return true;
     }
 
     /**
@@ -336,10 +682,87 @@ public class Trie {
      * Complejidad: O(1)
      */
     public void clear() {
-        root.children.clear();
+        root.clearChildren();
+        root.top = TrieNode.NO_CHILDREN;
         totalWords = 0;
     }
 
+    /**
+     * Escribe la estructura del Trie en formato binario (nodos en pre-orden:
+     * frecuencia, palabra si es terminal, y sus hijos ordenados).
+     * El puntaje de popularidad no se guarda: se alimenta en cada sesión.
+     * Complejidad: O(N) donde N es el número de nodos
+     *
+     * @param out Destino
+     * @throws IOException si falla la escritura
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(totalWords);
+        writeNode(root, out);
+    }
+
+    /**
+     * Reemplaza el contenido del Trie por el leído de {@link #writeTo(DataOutput)}.
+     * Los nodos se reconstruyen directamente, sin reinsertar palabras, y la
+     * caché de populares se calcula una sola vez por nodo (de abajo hacia arriba).
+     * Si la lectura falla, el Trie queda sin cambios.
+     * Complejidad: O(N · K) donde N es el número de nodos
+     *
+     * @param in Origen
+     * @throws IOException si falla la lectura o el formato no es compatible
+     */
+    public void readFrom(DataInput in) throws IOException {
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Formato de Trie no soportado: " + version);
+        }
+
+        int words = in.readInt();
+        TrieNode loaded = new TrieNode();
+        readNode(loaded, in);
+
+        root.keys = loaded.keys;
+        root.children = loaded.children;
+        root.top = loaded.top;
+        totalWords = words;
+    }
+
+    private void writeNode(TrieNode node, DataOutput out) throws IOException {
+        out.writeInt(node.frequency);
+        out.writeBoolean(node.isEndOfWord);
+        if (node.isEndOfWord) {
+            out.writeUTF(node.word);
+        }
+
+        out.writeInt(node.keys.length);
+        for (int i = 0; i < node.keys.length; i++) {
+            out.writeChar(node.keys[i]);
+            writeNode(node.children[i], out);
+        }
+    }
+
+    private void readNode(TrieNode node, DataInput in) throws IOException {
+        node.frequency = in.readInt();
+        node.isEndOfWord = in.readBoolean();
+        if (node.isEndOfWord) {
+            node.word = in.readUTF();
+        }
+
+        int n = in.readInt();
+        if (n > 0) {
+            node.keys = new char[n];
+            node.children = new TrieNode[n];
+            for (int i = 0; i < n; i++) {
+                node.keys[i] = in.readChar();
+                node.children[i] = new TrieNode();
+                readNode(node.children[i], in);
+            }
+        }
+
+        refreshTop(node); // Hijos ya completos
+    }
+
     /**
      * Retorna todas las palabras almacenadas en el Trie.
      * Complejidad: O(n) donde n es el número total de palabras
@@ -349,7 +772,6 @@ public class Trie {
     public List<String> getAllWords() {
         List<String> allWords = new ArrayList<>();
         collectAllWords(root, allWords);
-        Collections.sort(allWords);
         return allWords;
     }
 
@@ -384,13 +806,191 @@ public class Trie {
     private int countWords(TrieNode node) {
         int count = node.isEndOfWord ? 1 : 0;
 
-        for (TrieNode child : node.children.values()) {
+        for (TrieNode child : node.children) {
             count += countWords(child);
         }
 
         return count;
     }
 
+    /**
+     * Retorna el camino de nodos desde la raíz hasta una palabra o prefijo.
+     * path[0] es la raíz y path[i] el nodo del carácter i-1.
+     *
+     * @param word Palabra o prefijo ya normalizado
+     * @return Camino de nodos, o null si el prefijo no existe
+     */
+    private TrieNode[] pathTo(String word) {
+        TrieNode[] path = new TrieNode[word.length() + 1];
+        TrieNode current = root;
+        path[0] = root;
+
+        for (int i = 0; i < word.length(); i++) {
+            current = current.child(word.charAt(i));
+            if (current == null) {
+                return null;
+            }
+            path[i + 1] = current;
+        }
+
+        return path;
+    }
+
+    /**
+     * Retorna el camino hasta una palabra solo si existe como palabra completa.
+     *
+     * @param word Palabra sin normalizar
+     * @return Camino de nodos, o null si la palabra no existe
+     */
+    private TrieNode[] terminalPath(String word) {
+        if (word == null || word.trim().isEmpty()) {
+            return null;
+        }
+
+        TrieNode[] path = pathTo(normalize(word));
+        return path != null && path[path.length - 1].isEndOfWord ? path : null;
+    }
+
+    /**
+     * Actualiza de abajo hacia arriba la caché de populares de los nodos
+     * {@code path[depth]} hasta la raíz, después de que cambiara la clave de
+     * popularidad de algunos nodos del camino.
+     *
+     * <p>Solo se mezclan los candidatos que cambiaron, no todos los hijos:</p>
+     * <ul>
+     *   <li>Si las claves solo subieron, el nuevo top-K de un prefijo está
+     *       dentro de su top-K anterior más los candidatos que cambiaron.</li>
+     *   <li>Si bajaron, solo hay que recalcular los prefijos cuyo top-K
+     *       anterior incluía alguno de ellos.</li>
+     * </ul>
+     * <p>Un candidato que queda fuera del top-K de un prefijo no puede estar
+     * en el de sus ancestros, así que al vaciarse la lista de candidatos
+     * vigentes la subida ya no hace trabajo.</p>
+     *
+     * @param path Camino desde la raíz (puede incluir nodos ya podados)
+     * @param depth Índice del nodo más profundo que sigue en el Trie
+     * @param changed changed[i] indica que cambió la clave de path[i]
+     * @param increased true si las claves solo subieron; false si solo bajaron
+     */
+    private void refreshTopAlong(TrieNode[] path, int depth, boolean[] changed, boolean increased) {
+        List<TrieNode> active = new ArrayList<>();
+        for (int i = path.length - 1; i > depth; i--) {
+            if (changed[i]) {
+                active.add(path[i]); // Nodos podados: pueden seguir en cachés de arriba
+            }
+        }
+
+        for (int i = depth; i >= 0; i--) {
+            TrieNode node = path[i];
+            if (changed[i]) {
+                active.add(node);
+            }
+
+            if (increased) {
+                if (active.isEmpty()) {
+                    continue;
+                }
+                if (!node.isEndOfWord && node.children.length == 1) {
+                    node.top = node.children[0].top;
+                } else {
+                    node.top = mergeInto(node.top, active);
+                }
+                retainIn(active, node.top);
+            } else {
+                retainIn(active, node.top);
+                if (!active.isEmpty()) {
+                    refreshTop(node);
+                }
+            }
+        }
+    }
+
+    /** Marca solo el último nodo del camino como cambiado. */
+    private static boolean[] onlyLast(TrieNode[] path) {
+        boolean[] changed = new boolean[path.length];
+        changed[path.length - 1] = true;
+        return changed;
+    }
+
+    /**
+     * Top-K de la unión entre una caché y unos candidatos, según las claves
+     * actuales. Complejidad: O((K + c) log(K + c)) para c candidatos
+     */
+    private TrieNode[] mergeInto(TrieNode[] top, List<TrieNode> candidates) {
+        List<TrieNode> merged = new ArrayList<>(top.length + candidates.size());
+        Collections.addAll(merged, top);
+        for (TrieNode c : candidates) {
+            if (c.isEndOfWord && !containsNode(top, c)) {
+                merged.add(c);
+            }
+        }
+        merged.sort(POPULARITY);
+        int size = Math.min(merged.size(), topK);
+        return merged.subList(0, size).toArray(new TrieNode[size]);
+    }
+
+    /** Deja en la lista solo los candidatos presentes en la caché. */
+    private static void retainIn(List<TrieNode> candidates, TrieNode[] top) {
+        candidates.removeIf(c -> !containsNode(top, c));
+    }
+
+    private static boolean containsNode(TrieNode[] top, TrieNode node) {
+        for (TrieNode t : top) {
+            if (t == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recalcula la caché de populares de un nodo a partir de su propia palabra
+     * y de las cachés (ya actualizadas y ordenadas) de sus hijos, con una
+     * mezcla acotada a K: O(K · d) donde d es el número de hijos.
+     *
+     * @param node Nodo a recalcular
+     */
+    private void refreshTop(TrieNode node) {
+        if (!node.isEndOfWord && node.children.length == 1) {
+            node.top = node.children[0].top; // mismo contenido: compartir
+            return;
+        }
+
+        int total = node.isEndOfWord ? 1 : 0;
+        for (TrieNode child : node.children) {
+            total += child.top.length;
+        }
+
+        int size = Math.min(total, topK);
+        if (size == 0) {
+            node.top = TrieNode.NO_CHILDREN;
+            return;
+        }
+
+        TrieNode[] top = new TrieNode[size];
+        int[] heads = new int[node.children.length];
+        boolean ownPending = node.isEndOfWord;
+        for (int n = 0; n < size; n++) {
+            TrieNode best = ownPending ? node : null;
+            int from = -1;
+            for (int c = 0; c < node.children.length; c++) {
+                TrieNode[] childTop = node.children[c].top;
+                if (heads[c] < childTop.length
+                        && (best == null || POPULARITY.compare(childTop[heads[c]], best) < 0)) {
+                    best = childTop[heads[c]];
+                    from = c;
+                }
+            }
+            if (from < 0) {
+                ownPending = false;
+            } else {
+                heads[from]++;
+            }
+            top[n] = best;
+        }
+        node.top = top;
+    }
+
     /**
      * Busca el nodo correspondiente a una palabra o prefijo.
      * Método auxiliar interno.
@@ -399,10 +999,14 @@ public class Trie {
      * @return Nodo correspondiente, o null si no existe
      */
     private TrieNode searchNode(String word) {
+        if (word.isEmpty()) {
+            return null; // Prefijo sin caracteres indexables
+        }
+
         TrieNode current = root;
 
         for (char ch : word.toCharArray()) {
-            TrieNode node = current.children.get(ch);
+            TrieNode node = current.child(ch);
             if (node == null) {
                 return null;
             }
@@ -420,7 +1024,20 @@ public class Trie {
      * @param results Lista donde se agregan las palabras encontradas
      */
     private void collectAllWords(TrieNode node, List<String> results) {
-        if (node == null) {
+        collectWords(node, results, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Recolecta palabras en pre-orden lexicográfico hasta alcanzar un límite.
+     * Como los hijos están ordenados, las palabras se agregan ya ordenadas
+     * y la búsqueda termina en cuanto la lista alcanza {@code limit}.
+     *
+     * @param node Nodo raíz del subárbol
+     * @param results Lista donde se agregan las palabras encontradas
+     * @param limit Número máximo de palabras en {@code results}
+     */
+    private void collectWords(TrieNode node, List<String> results, int limit) {
+        if (node == null || results.size() >= limit) {
             return;
         }
 
@@ -428,40 +1045,79 @@ public class Trie {
             results.add(node.word);
         }
 
-        for (TrieNode child : node.children.values()) {
-            collectAllWords(child, results);
+        for (TrieNode child : node.children) {
+            if (results.size() >= limit) {
+                return;
+            }
+            collectWords(child, results, limit);
         }
     }
 
     /**
-     * Recolecta todas las palabras con sus frecuencias en un subárbol.
+     * Paso del recorrido aproximado: calcula la fila de Levenshtein del nodo
+     * a partir de la del padre y desciende solo si aún puede haber coincidencias.
+     *
+     * @param node Nodo actual
+     * @param ch Carácter que lleva del padre a este nodo
+     * @param target Consulta normalizada
+     * @param prevRow Fila de distancias del padre
+     * @param maxDistance Distancia máxima admitida
+     * @param byDistance Listas de resultados, una por distancia
+     */
+    private void collectFuzzy(TrieNode node, char ch, String target, int[] prevRow,
+                              int maxDistance, List<List<String>> byDistance) {
+        int n = target.length();
+        int[] row = new int[n + 1];
+        row[0] = prevRow[0] + 1;
+        int rowMin = row[0];
+
+        for (int j = 1; j <= n; j++) {
+            int cost = target.charAt(j - 1) == ch ? 0 : 1;
+            row[j] = Math.min(Math.min(row[j - 1] + 1, prevRow[j] + 1), prevRow[j - 1] + cost);
+            rowMin = Math.min(rowMin, row[j]);
+        }
+
+        if (node.isEndOfWord && row[n] <= maxDistance) {
+            byDistance.get(row[n]).add(node.word);
+        }
+
+        if (rowMin > maxDistance) {
+            return; // Poda: ninguna palabra de este subárbol queda dentro de la distancia
+        }
+        for (int i = 0; i < node.keys.length; i++) {
+            collectFuzzy(node.children[i], node.keys[i], target, row, maxDistance, byDistance);
+        }
+    }
+
+    /**
+     * Recolecta todos los nodos terminales de un subárbol.
      * Método auxiliar interno.
      * 
      * @param node Nodo raíz del subárbol
-     * @param results Lista donde se agregan las palabras con frecuencias
+     * @param results Lista donde se agregan los nodos terminales
      */
-    private void collectAllWordsWithFrequency(TrieNode node, List<WordFrequency> results) {
+    private void collectTerminals(TrieNode node, List<TrieNode> results) {
         if (node == null) {
             return;
         }
 
         if (node.isEndOfWord) {
-            results.add(new WordFrequency(node.word, node.frequency));
+            results.add(node);
         }
 
-        for (TrieNode child : node.children.values()) {
-            collectAllWordsWithFrequency(child, results);
+        for (TrieNode child : node.children) {
+            collectTerminals(child, results);
         }
     }
 
     /**
-     * Normaliza una cadena para búsqueda (convierte a minúsculas y elimina espacios extra).
+     * Normaliza una cadena para búsqueda con el normalizador compartido.
      * 
      * @param str Cadena a normalizar
      * @return Cadena normalizada
      */
     private String normalize(String str) {
-        return str.toLowerCase().trim();
+        return TextoNormalizador.normalizar(str);
     }
 
     /**
@@ -498,19 +1154,6 @@ public class Trie {
                 .orElse(null);
     }
 
-    /**
-     * Clase auxiliar para almacenar palabras con su frecuencia.
-     */
-    private static class WordFrequency {
-        String word;
-        int frequency;
-
-        WordFrequency(String word, int frequency) {
-            this.word = word;
-            this.frequency = frequency;
-        }
-    }
-
     /**
      * Genera estadísticas del Trie.
      * 
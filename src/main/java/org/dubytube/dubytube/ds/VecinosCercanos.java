@@ -0,0 +1,243 @@
+package org.dubytube.dubytube.ds;
+
+import java.util.*;
+
+/**
+ * Acumulador de los k vecinos más cercanos de cada canción, para construir
+ * un {@link GrafoSimilitud} disperso en lugar de uno completo.
+ *
+ * <p>Cada canción tiene un montículo acotado (máximo por distancia) con sus
+ * k mejores vecinos vistos hasta el momento: ofrecer una arista cuesta
+ * O(log k) y la memoria total es O(n · k), sin importar cuántos pares se
+ * evalúen. Al volcar, una arista se conserva si está entre los k mejores de
+ * cualquiera de sus dos extremos, así que cada canción queda con al menos
+ * min(k, candidatos) vecinos.</p>
+ *
+ * <p>Además puede mantenerse al día con el grafo ya volcado: un índice
+ * inverso guarda en qué listas aparece cada canción, y {@link #quitar},
+ * {@link #recalcular} y {@link #ofrecerA(String, String, double, GrafoSimilitud, Collection)}
+ * agregan o quitan las aristas que correspondan. Así el grafo sigue siendo
+ * la unión de las listas, igual que tras una construcción completa.</p>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+public class VecinosCercanos {
+
+    /**
+     * Vecino candidato con su distancia.
+     */
+    private static final class Vecino {
+        final String id;
+        final double distancia;
+
+        Vecino(String id, double distancia) {
+            this.id = id;
+            this.distancia = distancia;
+        }
+    }
+
+    /** Peor vecino primero (mayor distancia; a igualdad, mayor ID). */
+    private static final Comparator<Vecino> PEOR_PRIMERO = (a, b) -> {
+        int cmp = Double.compare(b.distancia, a.distancia);
+        return cmp != 0 ? cmp : b.id.compareTo(a.id);
+    };
+
+    private final int k;
+    private final Map<String, PriorityQueue<Vecino>> mejores = new HashMap<>();
+    private final Map<String, Set<String>> enListasDe = new HashMap<>(); // ID -> dueños de listas que lo contienen
+
+    /**
+     * Constructor.
+     *
+     * @param k Número de vecinos a conservar por canción
+     * @throws IllegalArgumentException si k es menor que 1
+     */
+    public VecinosCercanos(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k debe ser al menos 1");
+        }
+        this.k = k;
+    }
+
+    /**
+     * Propone una arista no dirigida entre dos canciones.
+     * Complejidad: O(log k)
+     *
+     * @param id1 Primera canción
+     * @param id2 Segunda canción
+     * @param distancia Distancia (menor = más similar)
+     */
+    public void ofrecer(String id1, String id2, double distancia) {
+        if (id1.equals(id2)) {
+            return;
+        }
+        ofrecerA(id1, new Vecino(id2, distancia));
+        ofrecerA(id2, new Vecino(id1, distancia));
+    }
+
+    /**
+     * Ofrece v a la lista de origen.
+     *
+     * @return null si entró sin desplazar a nadie, el vecino desplazado si
+     *         entró en lugar de otro, o el mismo v si no entró (o ya estaba)
+     */
+    private Vecino ofrecerA(String origen, Vecino v) {
+        Set<String> duenos = enListasDe.get(v.id);
+        if (duenos != null && duenos.contains(origen)) {
+            return v; // ya está: mismo par, misma distancia
+        }
+        PriorityQueue<Vecino> heap = mejores.computeIfAbsent(origen, x -> new PriorityQueue<>(k + 1, PEOR_PRIMERO));
+        Vecino fuera = null;
+        if (heap.size() >= k) {
+            if (PEOR_PRIMERO.compare(v, heap.peek()) <= 0) {
+                return v;
+            }
+            // v es mejor que el peor conservado: lo reemplaza
+            fuera = heap.poll();
+            enListasDe.get(fuera.id).remove(origen);
+        }
+        heap.add(v);
+        enListasDe.computeIfAbsent(v.id, x -> new HashSet<>()).add(origen);
+        return fuera;
+    }
+
+    /**
+     * Agrega al grafo las aristas conservadas.
+     * Complejidad: O(n · k)
+     *
+     * @param grafo Grafo destino
+     */
+    public void volcarEn(GrafoSimilitud grafo) {
+        for (Map.Entry<String, PriorityQueue<Vecino>> e : mejores.entrySet()) {
+            for (Vecino v : e.getValue()) {
+                grafo.agregarSimilitud(e.getKey(), v.id, v.distancia);
+            }
+        }
+    }
+
+    /**
+     * Saca una canción de todas las listas (la suya y las de quienes la
+     * tenían) y la elimina del grafo con sus aristas (si sigue en el
+     * catálogo, hay que volver a agregarla). Las listas que la perdieron
+     * quedan con un lugar libre: hay que {@link #recalcular} cada una.
+     * Complejidad: O(k + d · k), con d las listas que la contenían
+     *
+     * @param id Canción a sacar
+     * @param grafo Grafo volcado a mantener
+     * @param tocadas Recibe los extremos de cada arista quitada
+     * @return Canciones cuya lista la contenía
+     */
+    public Set<String> quitar(String id, GrafoSimilitud grafo, Collection<String> tocadas) {
+        PriorityQueue<Vecino> propia = mejores.remove(id);
+        if (propia != null) {
+            for (Vecino v : propia) {
+                enListasDe.get(v.id).remove(id);
+            }
+        }
+        Set<String> duenos = enListasDe.remove(id);
+        if (duenos == null) {
+            duenos = new HashSet<>();
+        }
+        for (String dueno : duenos) {
+            mejores.get(dueno).removeIf(v -> v.id.equals(id));
+        }
+
+        tocadas.add(id);
+        tocadas.addAll(grafo.eliminarCancion(id));
+        return duenos;
+    }
+
+    /**
+     * Reemplaza la lista de una canción por los k mejores de sus candidatas
+     * y ajusta sus aristas en el grafo.
+     * Complejidad: O(c · log k), con c las candidatas
+     *
+     * @param id Canción dueña de la lista
+     * @param candidatas IDs de todas sus candidatas actuales
+     * @param distancias Distancia a cada candidata (misma posición)
+     * @param grafo Grafo volcado a mantener
+     * @param tocadas Recibe los extremos de cada arista agregada o quitada
+     */
+    public void recalcular(String id, List<String> candidatas, double[] distancias,
+                           GrafoSimilitud grafo, Collection<String> tocadas) {
+        PriorityQueue<Vecino> nueva = new PriorityQueue<>(k + 1, PEOR_PRIMERO);
+        for (int j = 0; j < candidatas.size(); j++) {
+            Vecino v = new Vecino(candidatas.get(j), distancias[j]);
+            if (v.id.equals(id)) {
+                continue;
+            }
+            if (nueva.size() < k) {
+                nueva.add(v);
+            } else if (PEOR_PRIMERO.compare(v, nueva.peek()) > 0) {
+                nueva.poll();
+                nueva.add(v);
+            }
+        }
+
+        Set<String> quedan = new HashSet<>();
+        for (Vecino v : nueva) {
+            quedan.add(v.id);
+        }
+        PriorityQueue<Vecino> vieja = mejores.put(id, nueva);
+        Set<String> estaban = new HashSet<>();
+        if (vieja != null) {
+            for (Vecino v : vieja) {
+                estaban.add(v.id);
+                if (!quedan.contains(v.id)) {
+                    enListasDe.get(v.id).remove(id);
+                    desconectarSiSobra(id, v.id, grafo, tocadas);
+                }
+            }
+        }
+        for (Vecino v : nueva) {
+            if (!estaban.contains(v.id)) {
+                enListasDe.computeIfAbsent(v.id, x -> new HashSet<>()).add(id);
+                grafo.agregarSimilitud(id, v.id, v.distancia);
+                tocadas.add(id);
+                tocadas.add(v.id);
+            }
+        }
+    }
+
+    /**
+     * Ofrece una canción a la lista de otra (en un solo sentido) y ajusta
+     * las aristas del grafo si entra o desplaza a alguien.
+     * Complejidad: O(log k)
+     *
+     * @param origen Canción dueña de la lista
+     * @param id Canción ofrecida
+     * @param distancia Distancia entre ambas
+     * @param grafo Grafo volcado a mantener
+     * @param tocadas Recibe los extremos de cada arista agregada o quitada
+     */
+    public void ofrecerA(String origen, String id, double distancia,
+                         GrafoSimilitud grafo, Collection<String> tocadas) {
+        if (origen.equals(id)) {
+            return;
+        }
+        Vecino v = new Vecino(id, distancia);
+        Vecino fuera = ofrecerA(origen, v);
+        if (fuera == v) {
+            return;
+        }
+        grafo.agregarSimilitud(origen, id, distancia);
+        tocadas.add(origen);
+        tocadas.add(id);
+        if (fuera != null) {
+            desconectarSiSobra(origen, fuera.id, grafo, tocadas);
+        }
+    }
+
+    /** Quita la arista a-b si ya no está en la lista de ninguno de los dos. */
+    private void desconectarSiSobra(String a, String b, GrafoSimilitud grafo, Collection<String> tocadas) {
+        Set<String> duenosDeA = enListasDe.get(a);
+        Set<String> duenosDeB = enListasDe.get(b);
+        if ((duenosDeA == null || !duenosDeA.contains(b)) && (duenosDeB == null || !duenosDeB.contains(a))) {
+            grafo.quitarArista(a, b);
+            tocadas.add(a);
+            tocadas.add(b);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package org.dubytube.dubytube.repo;
+
+import org.dubytube.dubytube.domain.Usuario;
+import org.dubytube.dubytube.ds.GrafoSocial;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Persistencia de las amistades del {@link GrafoSocial}.
+ *
+ * <p>Guarda dos archivos:</p>
+ * <ul>
+ *   <li><b>Snapshot:</b> lista compacta de aristas (pares de usernames).</li>
+ *   <li><b>Diario:</b> registro de solo-anexar con cada
+ *       {@code agregarAmistad}/{@code eliminarAmistad} posterior al snapshot.
+ *       Seguir o dejar de seguir cuesta un registro de pocos bytes, no
+ *       reescribir toda la red.</li>
+ * </ul>
+ *
+ * <p>Al arrancar se lee el snapshot y se reaplica el diario. Cuando el diario
+ * supera al snapshot se compacta: el diario se aparta, se abre uno nuevo y
+ * el snapshot se escribe en un hilo de fondo, sin frenar a la interfaz.</p>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+public class AmistadRepo implements GrafoSocial.AmistadListener {
+
+    /** Firma de los archivos de snapshot de amistades ("AMIG"). */
+    private static final int SNAPSHOT_MAGICO = 0x414D4947;
+
+    /** Versión del formato de snapshot. */
+    private static final int SNAPSHOT_FORMATO = 1;
+
+    /** Operaciones del diario a partir de las cuales se considera compactar. */
+    public static final int OPERACIONES_POR_DEFECTO = 1000;
+
+    private static final byte OP_AGREGAR = 1;
+    private static final byte OP_ELIMINAR = 0;
+
+    private final GrafoSocial grafo;
+    private final Path snapshot;
+    private final Path diario;
+    private final Path diarioAnterior; // diario apartado mientras se escribe el snapshot
+    private final int minimoOperaciones;
+
+    private final ExecutorService fondo = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "compactar-amistades");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private DataOutputStream salida;
+    private int operaciones;        // registros en el diario actual
+    private int aristasSnapshot;    // aristas en el último snapshot
+    private boolean compactando;
+
+    public AmistadRepo(GrafoSocial grafo, Path snapshot, Path diario) {
+        this(grafo, snapshot, diario, OPERACIONES_POR_DEFECTO);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param grafo Grafo social a persistir
+     * @param snapshot Archivo del snapshot de aristas
+     * @param diario Archivo del diario de operaciones
+     * @param minimoOperaciones Registros mínimos del diario antes de compactar
+     */
+    public AmistadRepo(GrafoSocial grafo, Path snapshot, Path diario, int minimoOperaciones) {
+        this.grafo = grafo;
+        this.snapshot = snapshot;
+        this.diario = diario;
+        this.diarioAnterior = diario.resolveSibling(diario.getFileName() + ".anterior");
+        this.minimoOperaciones = minimoOperaciones;
+    }
+
+    /**
+     * Carga las amistades guardadas en el grafo (snapshot y luego diario) y
+     * empieza a registrar los cambios posteriores.
+     * Complejidad: O(aristas del snapshot + registros del diario)
+     *
+     * @param buscarUsuario Usuario por username, o null para descartar la arista
+     */
+    public synchronized void cargar(Function<String, Usuario> buscarUsuario) {
+        aristasSnapshot = leerSnapshot(buscarUsuario);
+        boolean pendiente = Files.exists(diarioAnterior);
+        if (pendiente) {
+            leerDiario(diarioAnterior, buscarUsuario); // compactación interrumpida
+        }
+        int leidas = leerDiario(diario, buscarUsuario);
+        operaciones = Math.max(leidas, 0);
+
+        grafo.addChangeListener(this);
+
+        // Un diario a medias o una compactación interrumpida se resuelven
+        // ahora: el snapshot pasa a cubrir todo lo leído
+        if (pendiente || leidas < 0) {
+            try {
+                cerrarSalida();
+                List<String> aristas = aristas();
+                escribirSnapshot(aristas);
+                Files.deleteIfExists(diarioAnterior);
+                Files.deleteIfExists(diario);
+                aristasSnapshot = aristas.size() / 2;
+                operaciones = 0;
+            } catch (IOException e) {
+                System.err.println("⚠ Error compactando amistades: " + e.getMessage());
+            }
+        }
+        System.out.println("✓ Amistades cargadas: " + grafo.contarAmistades());
+    }
+
+    @Override
+    public void onAmistadAgregada(Usuario usuario1, Usuario usuario2) {
+        registrar(OP_AGREGAR, usuario1, usuario2);
+    }
+
+    @Override
+    public void onAmistadEliminada(Usuario usuario1, Usuario usuario2) {
+        registrar(OP_ELIMINAR, usuario1, usuario2);
+    }
+
+    /**
+     * Compacta ya: aparta el diario actual y escribe en segundo plano un
+     * snapshot con el estado presente del grafo. No hace nada si ya hay una
+     * compactación en curso.
+     * Complejidad: O(V + E) en el hilo llamador (copia de aristas)
+     */
+    public synchronized void compactar() {
+        if (compactando) {
+            return;
+        }
+
+        try {
+            cerrarSalida();
+            if (Files.exists(diario)) {
+                if (Files.exists(diarioAnterior)) {
+                    // Una compactación fallida dejó su diario: se conservan ambos
+                    Files.write(diarioAnterior, Files.readAllBytes(diario), StandardOpenOption.APPEND);
+                    Files.delete(diario);
+                } else {
+                    Files.move(diario, diarioAnterior, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("⚠ Error apartando el diario de amistades: " + e.getMessage());
+            return;
+        }
+
+        List<String> aristas = aristas();
+        operaciones = 0;
+        compactando = true;
+        fondo.execute(() -> {
+            try {
+                escribirSnapshot(aristas);
+                Files.deleteIfExists(diarioAnterior);
+            } catch (IOException e) {
+                System.err.println("⚠ Error guardando snapshot de amistades: " + e.getMessage());
+            } finally {
+                synchronized (this) {
+                    aristasSnapshot = aristas.size() / 2;
+                    compactando = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * Cierra el diario y espera a que termine la compactación en curso.
+     * Llamar al cerrar la app.
+     */
+    public void cerrar() {
+        synchronized (this) {
+            try {
+                cerrarSalida();
+            } catch (IOException e) {
+                System.err.println("⚠ Error cerrando el diario de amistades: " + e.getMessage());
+            }
+        }
+        fondo.shutdown();
+        try {
+            fondo.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Anexa una operación al diario y compacta si el diario ya supera al snapshot.
+     * Complejidad: O(1)
+     */
+    private synchronized void registrar(byte op, Usuario usuario1, Usuario usuario2) {
+        try {
+            if (salida == null) {
+                Files.createDirectories(diario.toAbsolutePath().getParent());
+                salida = new DataOutputStream(new BufferedOutputStream(
+                        new FileOutputStream(diario.toFile(), true)));
+            }
+            salida.writeByte(op);
+            salida.writeUTF(usuario1.getUsername());
+            salida.writeUTF(usuario2.getUsername());
+            salida.flush();
+            operaciones++;
+        } catch (IOException e) {
+            System.err.println("⚠ Error registrando amistad: " + e.getMessage());
+            return;
+        }
+
+        if (operaciones >= Math.max(minimoOperaciones, aristasSnapshot)) {
+            compactar();
+        }
+    }
+
+    private void cerrarSalida() throws IOException {
+        if (salida != null) {
+            salida.close();
+            salida = null;
+        }
+    }
+
+    /**
+     * Aristas actuales del grafo como usernames consecutivos (u1, v1, u2, v2...),
+     * cada amistad una sola vez.
+     */
+    private List<String> aristas() {
+        List<String> out = new ArrayList<>(grafo.contarAmistades() * 2);
+        grafo.paraCadaAmistad((u, v) -> {
+            out.add(u.getUsername());
+            out.add(v.getUsername());
+        });
+        return out;
+    }
+
+    /**
+     * Escribe el snapshot en un temporal y lo reemplaza, para no dejar nunca
+     * uno a medias.
+     */
+    private void escribirSnapshot(List<String> aristas) throws IOException {
+        Files.createDirectories(snapshot.toAbsolutePath().getParent());
+        Path temporal = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporal)))) {
+            out.writeInt(SNAPSHOT_MAGICO);
+            out.writeInt(SNAPSHOT_FORMATO);
+            out.writeInt(aristas.size() / 2);
+            for (String username : aristas) {
+                out.writeUTF(username);
+            }
+        }
+
+        Files.move(temporal, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return Aristas leídas del snapshot (0 si no existe o es inválido)
+     */
+    private int leerSnapshot(Function<String, Usuario> buscarUsuario) {
+        if (!Files.exists(snapshot)) {
+            return 0;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != SNAPSHOT_MAGICO || in.readInt() != SNAPSHOT_FORMATO) {
+                System.err.println("⚠ Snapshot de amistades con otro formato, se ignora");
+                return 0;
+            }
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                aplicar(OP_AGREGAR, in.readUTF(), in.readUTF(), buscarUsuario);
+            }
+            return n;
+        } catch (IOException e) {
+            System.err.println("⚠ Snapshot de amistades inválido: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Reaplica un diario en orden. Un último registro incompleto (cierre
+     * abrupto a mitad de escritura) se descarta.
+     *
+     * @return Registros aplicados, o -1 si el diario terminaba a medias
+     */
+    private int leerDiario(Path archivo, Function<String, Usuario> buscarUsuario) {
+        if (!Files.exists(archivo)) {
+            return 0;
+        }
+
+        int leidos = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(archivo)))) {
+            int op;
+            while ((op = in.read()) != -1) {
+                aplicar((byte) op, in.readUTF(), in.readUTF(), buscarUsuario);
+                leidos++;
+            }
+            return leidos;
+        } catch (IOException e) {
+            System.err.println("⚠ Diario de amistades incompleto tras " + leidos + " registros: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private void aplicar(byte op, String username1, String username2, Function<String, Usuario> buscarUsuario) {
+        Usuario u1 = buscarUsuario.apply(username1);
+        Usuario u2 = buscarUsuario.apply(username2);
+        if (u1 == null || u2 == null) {
+            return; // Usuario eliminado desde entonces
+        }
+        if (op == OP_AGREGAR) {
+            grafo.agregarAmistad(u1, u2);
+        } else {
+            grafo.eliminarAmistad(u1, u2);
+        }
+    }
+}
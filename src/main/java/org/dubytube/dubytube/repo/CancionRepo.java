@@ -5,12 +5,13 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import org.dubytube.dubytube.domain.Cancion;
 
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.zip.CRC32;
 
 /**
  * Repositorio de canciones con persistencia en JSON.
@@ -19,6 +20,10 @@ import java.util.*;
  * entre reinicios de la aplicación. Los archivos de audio se guardan
  * físicamente en src/main/resources/audio/</p>
  * 
+ * <p>Los cambios (alta, edición y baja) se notifican a los
+ * {@link RepoChangeListener} registrados, para que los índices derivados
+ * apliquen solo el cambio en lugar de reconstruirse.</p>
+ * 
  * @author DubyTube Team
  * @version 2.0
  * @since 2025-11-18
@@ -27,10 +32,23 @@ public class CancionRepo {
     
     private static final String FILE_PATH = "src/main/resources/data/canciones.json";
     
+    private final Path archivo;
     private final Map<String, Cancion> idx = new HashMap<>();
     private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final List<RepoChangeListener> listeners = new ArrayList<>();
+    private long version;
     
     public CancionRepo() {
+        this(Paths.get(FILE_PATH));
+    }
+    
+    /**
+     * Constructor con un archivo JSON propio (por ejemplo, una copia para pruebas).
+     *
+     * @param archivo Archivo JSON del catálogo
+     */
+    public CancionRepo(Path archivo) {
+        this.archivo = archivo;
         loadFromJson();
         System.out.println("✓ CancionRepo inicializado: " + idx.size() + " canciones cargadas");
     }
@@ -44,48 +62,99 @@ public class CancionRepo {
     }
     
     public Cancion save(Cancion c) {
-        idx.put(c.getId(), c);
+        Cancion anterior = idx.put(c.getId(), c);
         saveToJson();
         System.out.println("✓ Canción guardada: " + c.getTitulo());
+        for (RepoChangeListener l : listeners) {
+            l.onCancionGuardada(anterior, c);
+        }
         return c;
     }
     
     public boolean delete(String id) {
-        boolean removed = idx.remove(id) != null;
-        if (removed) {
+        Cancion removed = idx.remove(id);
+        if (removed != null) {
             saveToJson();
             System.out.println("✓ Canción eliminada: " + id);
+            for (RepoChangeListener l : listeners) {
+                l.onCancionEliminada(removed);
+            }
         }
-        return removed;
+        return removed != null;
     }
     
     public Collection<Cancion> findAll() {
         return idx.values();
     }
     
+    /**
+     * Versión del catálogo: suma de verificación del JSON cargado o guardado
+     * por última vez. Cambia con cada alta, edición o baja, y permite a los
+     * índices persistidos saber si siguen correspondiendo al catálogo.
+     */
+    public long getVersion() {
+        return version;
+    }
+    
     public void saveAll() {
         saveToJson();
         System.out.println("✓ Todas las canciones guardadas en JSON");
     }
     
+    private static long checksum(String json) {
+        CRC32 crc = new CRC32();
+        crc.update(json.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+    
+    // =====================================================
+    // LISTENERS
+    // =====================================================
+    
+    public void addChangeListener(RepoChangeListener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeChangeListener(RepoChangeListener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Observador de cambios del repositorio. Se invoca después de
+     * actualizar el mapa en memoria.
+     */
+    public interface RepoChangeListener {
+        /**
+         * @param anterior Canción que había con el mismo ID (null si es un alta);
+         *                 puede ser la misma instancia si se guardó tras editarla
+         * @param nueva Canción guardada
+         */
+        void onCancionGuardada(Cancion anterior, Cancion nueva);
+        
+        /**
+         * @param eliminada Canción quitada del repositorio
+         */
+        void onCancionEliminada(Cancion eliminada);
+    }
+    
     // =====================================================
     // MANEJO DE JSON
     // =====================================================
     
     private void loadFromJson() {
         try {
-            if (!Files.exists(Paths.get(FILE_PATH))) {
+            if (!Files.exists(archivo)) {
                 System.out.println("⚠ Archivo canciones.json no existe. Se creará uno nuevo al guardar.");
                 // Crear directorio si no existe
-                Files.createDirectories(Paths.get(FILE_PATH).getParent());
+                Files.createDirectories(archivo.toAbsolutePath().getParent());
                 return;
             }
             
-            FileReader reader = new FileReader(FILE_PATH);
+            String json = Files.readString(archivo, StandardCharsets.UTF_8);
+            version = checksum(json);
             
             Type listType = new TypeToken<List<Cancion>>() {}.getType();
-            List<Cancion> lista = gson.fromJson(reader, listType);
-            reader.close();
+            List<Cancion> lista = gson.fromJson(json, listType);
             
             if (lista != null) {
                 for (Cancion c : lista) {
@@ -103,14 +172,12 @@ public class CancionRepo {
     private void saveToJson() {
         try {
             // Crear directorio si no existe
-            Files.createDirectories(Paths.get(FILE_PATH).getParent());
-            
-            FileWriter writer = new FileWriter(FILE_PATH);
+            Files.createDirectories(archivo.toAbsolutePath().getParent());
             
             List<Cancion> lista = new ArrayList<>(idx.values());
-            gson.toJson(lista, writer);
-            
-            writer.close();
+            String json = gson.toJson(lista);
+            Files.writeString(archivo, json, StandardCharsets.UTF_8);
+            version = checksum(json);
             
         } catch (Exception e) {
             System.err.println("⚠ Error guardando canciones.json: " + e.getMessage());
@@ -3,6 +3,7 @@ package org.dubytube.dubytube.repo;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
+import org.dubytube.dubytube.domain.Cancion;
 import org.dubytube.dubytube.domain.Role;
 import org.dubytube.dubytube.domain.Usuario;
 import org.dubytube.dubytube.ds.MyLinkedList;
@@ -12,6 +13,7 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.lang.reflect.Type;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 
@@ -20,6 +22,11 @@ import java.util.*;
  * 
  * <p>Guarda los usuarios en un archivo JSON para mantener la persistencia
  * entre reinicios de la aplicación.</p>
+ *
+ * <p>Los favoritos se agregan y quitan a través de
+ * {@link #agregarFavorito(Usuario, Cancion)} y
+ * {@link #quitarFavorito(Usuario, Cancion)}, que guardan el cambio y avisan
+ * a los {@link FavoritoListener} registrados (por ejemplo, la popularidad).</p>
  * 
  * @author DubyTube Team
  * @version 2.0
@@ -29,13 +36,25 @@ public class UsuarioRepo {
 
     private static final String FILE_PATH = "src/main/resources/data/usuarios.json";
 
+    private final Path archivo;
     private final Map<String, Usuario> idx = new HashMap<>();
+    private final List<FavoritoListener> listeners = new ArrayList<>();
     private final Gson gson = new GsonBuilder()
             .setPrettyPrinting()
             .registerTypeAdapter(MyLinkedList.class, new MyLinkedListAdapter<>())
             .create();
 
     public UsuarioRepo() {
+        this(Paths.get(FILE_PATH));
+    }
+
+    /**
+     * Constructor con un archivo JSON propio (por ejemplo, una copia para pruebas).
+     *
+     * @param archivo Archivo JSON de usuarios
+     */
+    public UsuarioRepo(Path archivo) {
+        this.archivo = archivo;
         loadFromJson();
 
         // Si no existen usuarios, crear los iniciales
@@ -95,26 +114,83 @@ public class UsuarioRepo {
         return idx.values();
     }
 
+    // =====================================================
+    // FAVORITOS
+    // =====================================================
+
+    /**
+     * Agrega una canción a los favoritos del usuario, guarda y avisa a los listeners.
+     *
+     * @param u Usuario
+     * @param c Canción a marcar
+     * @return true si se agregó, false si ya era favorita
+     */
+    public boolean agregarFavorito(Usuario u, Cancion c) {
+        if (u == null || !u.addFavorito(c)) {
+            return false;
+        }
+        save(u);
+        for (FavoritoListener l : listeners) {
+            l.onFavoritoAgregado(u, c);
+        }
+        return true;
+    }
+
+    /**
+     * Quita una canción de los favoritos del usuario, guarda y avisa a los listeners.
+     *
+     * @param u Usuario
+     * @param c Canción a desmarcar
+     * @return true si se quitó, false si no era favorita
+     */
+    public boolean quitarFavorito(Usuario u, Cancion c) {
+        if (u == null || c == null || !u.removeFavoritoById(c.getId())) {
+            return false;
+        }
+        save(u);
+        for (FavoritoListener l : listeners) {
+            l.onFavoritoQuitado(u, c);
+        }
+        return true;
+    }
+
+    public void addFavoritoListener(FavoritoListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeFavoritoListener(FavoritoListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Recibe cada favorito agregado o quitado a través del repositorio.
+     */
+    public interface FavoritoListener {
+        void onFavoritoAgregado(Usuario usuario, Cancion cancion);
+
+        void onFavoritoQuitado(Usuario usuario, Cancion cancion);
+    }
+
     // =====================================================
     // MANEJO DE JSON
     // =====================================================
 
     private void loadFromJson() {
         try {
-            if (!Files.exists(Paths.get(FILE_PATH))) {
+            if (!Files.exists(archivo)) {
                 System.out.println("⚠ Archivo usuarios.json no existe. Se creará uno nuevo al guardar.");
                 // Crear directorio si no existe
-                Files.createDirectories(Paths.get(FILE_PATH).getParent());
+                Files.createDirectories(archivo.toAbsolutePath().getParent());
                 return;
             }
 
             // Verificar si el archivo está vacío
-            if (Files.size(Paths.get(FILE_PATH)) == 0) {
+            if (Files.size(archivo) == 0) {
                 System.out.println("⚠ Archivo usuarios.json está vacío. Se inicializará con usuarios por defecto.");
                 return;
             }
 
-            FileReader reader = new FileReader(FILE_PATH);
+            FileReader reader = new FileReader(archivo.toFile());
 
             Type listType = new TypeToken<List<Usuario>>() {}.getType();
             List<Usuario> lista = gson.fromJson(reader, listType);
@@ -136,9 +212,9 @@ public class UsuarioRepo {
     private void saveToJson() {
         try {
             // Crear directorio si no existe
-            Files.createDirectories(Paths.get(FILE_PATH).getParent());
+            Files.createDirectories(archivo.toAbsolutePath().getParent());
             
-            FileWriter writer = new FileWriter(FILE_PATH);
+            FileWriter writer = new FileWriter(archivo.toFile());
 
             List<Usuario> lista = new ArrayList<>(idx.values());
             gson.toJson(lista, writer);
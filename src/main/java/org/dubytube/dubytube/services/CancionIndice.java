@@ -1,11 +1,17 @@
 package org.dubytube.dubytube.services;
 
 import org.dubytube.dubytube.domain.Cancion;
+import org.dubytube.dubytube.ds.MyLinkedList;
 import org.dubytube.dubytube.ds.Trie;
 import org.dubytube.dubytube.repo.CancionRepo;
+import org.dubytube.dubytube.repo.CancionRepo.RepoChangeListener;
+import org.dubytube.dubytube.util.TextoNormalizador;
 
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Servicio de indexación y autocompletado de canciones usando Trie.
@@ -17,6 +23,13 @@ import java.util.stream.Collectors;
  *   <li>RF-026: Devuelve todas las palabras que comienzan con un prefijo dado</li>
  * </ul>
  * 
+ * <p>Junto al Trie mantiene un {@link SubcadenaIndice} con los n-gramas de
+ * título, artista y género, para las búsquedas "contiene".</p>
+ * 
+ * <p>El índice escucha los cambios del {@link CancionRepo}: tras la carga
+ * inicial, cada alta, edición (incluido el cambio de título) o baja se
+ * aplica como un cambio puntual en O(m), sin reconstruir nada.</p>
+ * 
  * <p>Este servicio mantiene un índice invertido de títulos de canciones
  * para permitir búsquedas rápidas por prefijo en O(m + k) donde m es la
  * longitud del prefijo y k el número de resultados.</p>
@@ -35,11 +48,53 @@ public class CancionIndice {
     private final Trie trieTitulos;
     
     /**
-     * Mapa para asociar títulos normalizados con objetos Cancion.
-     * Permite recuperar la canción completa desde el resultado del Trie.
-     * Key: título normalizado (lowercase), Value: Cancion
+     * Mapa para asociar títulos normalizados con las canciones que los llevan.
+     * Cada título del Trie tiene aquí su lista de canciones (varias canciones
+     * pueden llamarse igual), con inserción al final en O(1).
+     * Key: título normalizado ({@link Cancion#getTituloNormalizado()}), Value: canciones con ese título
+     */
+    private final Map<String, MyLinkedList<Cancion>> tituloToCanciones;
+
+    /**
+     * Título normalizado bajo el que está indexada cada canción, por ID.
+     * Permite sacar una canción de su título anterior aunque la instancia
+     * ya tenga el título nuevo.
+     */
+    private final Map<String, String> clavePorId;
+
+    /**
+     * Indica si ya se hizo la carga inicial desde el repositorio; a partir
+     * de ahí los cambios llegan por el listener del repositorio.
+     */
+    private boolean sincronizado;
+
+    /**
+     * Índice de n-gramas para búsquedas por subcadena en título, artista y género.
      */
-    private final Map<String, Cancion> tituloToCancion;
+    private final SubcadenaIndice subcadenas;
+
+    /**
+     * Longitud de consulta (normalizada) hasta la cual se admite un solo error
+     * de tipeo en la búsqueda aproximada; por encima se admiten dos.
+     */
+    private static final int LONGITUD_UN_ERROR = 4;
+
+    /** Firma de los archivos de snapshot del índice ("DUBY"). */
+    private static final int SNAPSHOT_MAGICO = 0x44554259;
+
+    /** Versión del formato de snapshot; cambiarla invalida los anteriores. */
+    private static final int SNAPSHOT_FORMATO = 3;
+
+    /**
+     * Número de canciones indexadas (puede superar el número de títulos).
+     */
+    private int totalCanciones;
+
+    /**
+     * Fuente opcional de popularidad (reproducciones y favoritos) usada para
+     * ordenar las sugerencias populares. Puede ser null.
+     */
+    private PopularidadService popularidad;
 
     /**
      * Constructor del servicio de indexación.
@@ -49,47 +104,166 @@ public class CancionIndice {
     public CancionIndice(CancionRepo repo) {
         this.repo = repo;
         this.trieTitulos = new Trie();
-        this.tituloToCancion = new HashMap<>();
+        this.tituloToCanciones = new HashMap<>();
+        this.clavePorId = new HashMap<>();
+        this.subcadenas = new SubcadenaIndice();
+        this.totalCanciones = 0;
+
+        repo.addChangeListener(new RepoChangeListener() {
+            @Override
+            public void onCancionGuardada(Cancion anterior, Cancion nueva) {
+                indexarCancion(nueva);
+            }
+
+            @Override
+            public void onCancionEliminada(Cancion eliminada) {
+                desindexarCancion(eliminada);
+            }
+        });
+    }
+
+    /**
+     * Conecta el índice con el servicio de popularidad.
+     * A partir de aquí las sugerencias populares se ordenan por puntaje real.
+     *
+     * @param popularidad Servicio de popularidad (null para desconectar)
+     */
+    public void setPopularidad(PopularidadService popularidad) {
+        this.popularidad = popularidad;
     }
 
     /**
      * Indexa todas las canciones existentes en el repositorio.
-     * Este método debe ser llamado al iniciar la aplicación.
+     * Este método debe ser llamado al iniciar la aplicación; las llamadas
+     * posteriores no hacen nada porque el índice ya sigue al repositorio.
      * Complejidad: O(n * m) donde n es el número de canciones y m el promedio de longitud de títulos
      */
     public void indexarExistentes() {
+        if (sincronizado) {
+            return;
+        }
+
         Collection<Cancion> todasCanciones = repo.findAll();
         
         for (Cancion c : todasCanciones) {
             indexarCancion(c);
         }
+        sincronizado = true;
         
-        System.out.println("✓ Indexadas " + trieTitulos.size() + " canciones en el Trie");
+        System.out.println("✓ Indexadas " + totalCanciones + " canciones (" 
+                + trieTitulos.size() + " títulos) en el Trie");
     }
 
     /**
      * Indexa una canción individual en el Trie.
+     * Si ya estaba indexada con ese título, solo se refresca la referencia
+     * (sin volver a insertar en el Trie); si estaba indexada con otro
+     * título, primero sale del anterior.
      * Método auxiliar privado.
      * 
      * @param c Canción a indexar
      */
     private void indexarCancion(Cancion c) {
-        if (c == null || c.getTitulo() == null || c.getTitulo().trim().isEmpty()) {
+        if (c == null || c.getId() == null) {
             return;
         }
         
-        String titulo = c.getTitulo();
-        String tituloNormalizado = titulo.toLowerCase().trim();
-        
-        // Insertar en el Trie
-        trieTitulos.insert(titulo);
-        
+        subcadenas.indexar(c);
+
+        String tituloNormalizado = c.getTituloNormalizado();
+        String claveAnterior = clavePorId.get(c.getId());
+        if (claveAnterior != null && !claveAnterior.equals(tituloNormalizado)) {
+            quitarDeTitulo(c, claveAnterior); // Cambió el título
+        }
+        if (tituloNormalizado.isEmpty()) {
+            return; // Título sin letras ni dígitos: no indexable
+        }
+        MyLinkedList<Cancion> canciones = tituloToCanciones.get(tituloNormalizado);
+        if (canciones == null) {
+            // Título nuevo: entra una sola vez al Trie, igual que sale una
+            // sola vez cuando se va su última canción
+            canciones = new MyLinkedList<>();
+            tituloToCanciones.put(tituloNormalizado, canciones);
+            // El Trie devuelve la clave normalizada: se usa tal cual en
+            // tituloToCanciones, y el título visible sale de la canción
+            trieTitulos.insert(tituloNormalizado, tituloNormalizado);
+        } else if (canciones.remove(c)) {
+            // Misma canción (mismo ID): reemplazar por la instancia actual
+            canciones.add(c);
+            return;
+        }
+
         // Guardar referencia a la canción
-        tituloToCancion.put(tituloNormalizado, c);
+        canciones.add(c);
+        clavePorId.put(c.getId(), tituloNormalizado);
+        totalCanciones++;
+
+        if (popularidad != null) {
+            // La clave ya normalizada se reconoce sin volver a normalizar
+            trieTitulos.setScore(tituloNormalizado, puntajeTitulo(canciones));
+        }
+    }
+
+    /**
+     * Suma el puntaje de popularidad de todas las canciones de un título.
+     *
+     * @param canciones Canciones que comparten el título
+     * @return Puntaje agregado del título
+     */
+    private int puntajeTitulo(MyLinkedList<Cancion> canciones) {
+        int total = 0;
+        for (Cancion c : canciones) {
+            total += popularidad.getPuntaje(c.getId());
+        }
+        return total;
     }
 
     /**
-     * Registra una nueva canción en el repositorio y la indexa.
+     * Expande una lista de títulos del Trie a sus canciones, hasta un límite.
+     *
+     * @param claves Títulos normalizados devueltos por el Trie
+     * @param limite Número máximo de canciones
+     * @return Canciones de esos títulos, en el mismo orden
+     */
+    private List<Cancion> expandir(List<String> claves, int limite) {
+        List<Cancion> out = new ArrayList<>();
+        for (String clave : claves) {
+            MyLinkedList<Cancion> canciones = tituloToCanciones.get(clave);
+            if (canciones == null) {
+                continue;
+            }
+            for (Cancion c : canciones) {
+                if (out.size() >= limite) {
+                    return out;
+                }
+                out.add(c);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Aplica al Trie, en un solo lote, los puntajes de popularidad que
+     * cambiaron desde la última aplicación.
+     * Complejidad: O(p · m · K) donde p es el número de canciones modificadas
+     */
+    public void aplicarPopularidad() {
+        if (popularidad == null || !popularidad.hayPendientes()) {
+            return;
+        }
+
+        for (String id : popularidad.drenarPendientes()) {
+            String clave = clavePorId.get(id);
+            if (clave == null) {
+                continue; // Canción ya no indexada
+            }
+            trieTitulos.setScore(clave, puntajeTitulo(tituloToCanciones.get(clave)));
+        }
+    }
+
+    /**
+     * Registra una nueva canción en el repositorio; el listener del
+     * repositorio la indexa.
      * Complejidad: O(m) donde m es la longitud del título
      * 
      * @param c Canción a registrar
@@ -100,11 +274,11 @@ public class CancionIndice {
         }
         
         repo.save(c);
-        indexarCancion(c);
     }
 
     /**
-     * Elimina una canción del índice y del repositorio.
+     * Elimina una canción del repositorio; el listener del repositorio
+     * la quita del índice.
      * Complejidad: O(m) donde m es la longitud del título
      * 
      * @param c Canción a eliminar
@@ -115,15 +289,45 @@ public class CancionIndice {
             return false;
         }
         
-        boolean eliminadaRepo = repo.delete(c.getId());
-        
-        if (eliminadaRepo) {
-            String tituloNormalizado = c.getTitulo().toLowerCase().trim();
-            trieTitulos.delete(c.getTitulo());
-            tituloToCancion.remove(tituloNormalizado);
+        return repo.delete(c.getId());
+    }
+
+    /**
+     * Quita una canción del índice, buscándola por el título con el que
+     * fue indexada.
+     *
+     * @param c Canción a quitar
+     */
+    private void desindexarCancion(Cancion c) {
+        subcadenas.eliminar(c.getId());
+
+        String clave = clavePorId.get(c.getId());
+        if (clave != null) {
+            quitarDeTitulo(c, clave);
+        }
+    }
+
+    /**
+     * Quita una canción de la lista de un título. El título solo sale del
+     * Trie cuando ya no queda ninguna canción con ese nombre.
+     *
+     * @param c Canción a quitar
+     * @param tituloNormalizado Título bajo el que estaba indexada
+     */
+    private void quitarDeTitulo(Cancion c, String tituloNormalizado) {
+        clavePorId.remove(c.getId());
+        MyLinkedList<Cancion> canciones = tituloToCanciones.get(tituloNormalizado);
+        if (canciones == null || !canciones.remove(c)) {
+            return;
+        }
+
+        totalCanciones--;
+        if (canciones.isEmpty()) {
+            trieTitulos.delete(tituloNormalizado);
+            tituloToCanciones.remove(tituloNormalizado);
+        } else if (popularidad != null) {
+            trieTitulos.setScore(tituloNormalizado, puntajeTitulo(canciones));
         }
-        
-        return eliminadaRepo;
     }
 
     /**
@@ -133,21 +337,62 @@ public class CancionIndice {
      * 
      * @param prefijo Prefijo a buscar (case-insensitive)
      * @param k Número máximo de sugerencias a retornar
-     * @return Lista de canciones sugeridas (máximo k elementos)
+     * @return Lista de canciones sugeridas (máximo k elementos); los títulos
+     *         repetidos aportan todas sus canciones. Solo coincidencias
+     *         exactas de prefijo: para tolerar errores de tipeo usar
+     *         {@link #sugerirAproximado(String, int)}
      */
     public List<Cancion> sugerirPorTitulo(String prefijo, int k) {
         if (prefijo == null || prefijo.trim().isEmpty() || k <= 0) {
             return new ArrayList<>();
         }
 
-        // Buscar títulos que coincidan con el prefijo
+        // Buscar títulos que coincidan con el prefijo (k títulos bastan: cada uno aporta al menos una canción)
         List<String> titulosCoincidentes = trieTitulos.searchByPrefix(prefijo, k);
         
         // Convertir títulos a objetos Cancion
-        return titulosCoincidentes.stream()
-                .map(titulo -> tituloToCancion.get(titulo.toLowerCase()))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        return expandir(titulosCoincidentes, k);
+    }
+
+    /**
+     * Sugiere canciones cuyo título se parece al texto aunque tenga errores
+     * de tipeo (distancia de edición 1 para textos cortos, 2 para el resto).
+     * Complejidad: proporcional a los nodos del Trie dentro de la distancia,
+     * no al número total de títulos
+     *
+     * @param texto Título buscado, posiblemente mal escrito
+     * @param k Número máximo de canciones a retornar
+     * @return Canciones ordenadas de la más parecida a la menos (máximo k elementos)
+     */
+    public List<Cancion> sugerirAproximado(String texto, int k) {
+        String normalizado = TextoNormalizador.normalizar(texto);
+        if (normalizado.isEmpty() || k <= 0) {
+            return new ArrayList<>();
+        }
+
+        int distancia = normalizado.length() <= LONGITUD_UN_ERROR ? 1 : 2;
+        return expandir(trieTitulos.searchFuzzy(normalizado, distancia, k), k);
+    }
+
+    /**
+     * Sugiere las canciones más populares cuyo título comience con el prefijo.
+     * Primero aplica los eventos de popularidad pendientes y luego lee la
+     * caché de populares del Trie.
+     * Complejidad: O(m + k) si k no supera la caché del Trie
+     *
+     * @param prefijo Prefijo a buscar (case-insensitive)
+     * @param k Número máximo de sugerencias a retornar
+     * @return Lista de canciones ordenadas por popularidad (máximo k elementos)
+     */
+    public List<Cancion> sugerirPopulares(String prefijo, int k) {
+        if (prefijo == null || prefijo.trim().isEmpty() || k <= 0) {
+            return new ArrayList<>();
+        }
+
+        aplicarPopularidad();
+
+        List<String> titulos = trieTitulos.searchByPrefixMostPopular(prefijo, k);
+        return expandir(titulos, k);
     }
 
     /**
@@ -163,10 +408,7 @@ public class CancionIndice {
 
         List<String> titulosCoincidentes = trieTitulos.searchByPrefix(prefijo);
         
-        return titulosCoincidentes.stream()
-                .map(titulo -> tituloToCancion.get(titulo.toLowerCase()))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        return expandir(titulosCoincidentes, Integer.MAX_VALUE);
     }
 
     /**
@@ -174,22 +416,59 @@ public class CancionIndice {
      * Complejidad: O(m) donde m es la longitud del título
      * 
      * @param titulo Título exacto a buscar
-     * @return Canción si existe, null en caso contrario
+     * @return Primera canción con ese título si existe, null en caso contrario
      */
     public Cancion buscarPorTituloExacto(String titulo) {
+        List<Cancion> canciones = buscarTodasPorTituloExacto(titulo);
+        return canciones.isEmpty() ? null : canciones.get(0);
+    }
+
+    /**
+     * Busca todas las canciones con un título exacto.
+     * Complejidad: O(m + r) donde m es la longitud del título y r el número de canciones
+     *
+     * @param titulo Título exacto a buscar
+     * @return Canciones con ese título (lista vacía si no hay)
+     */
+    public List<Cancion> buscarTodasPorTituloExacto(String titulo) {
         if (titulo == null || titulo.trim().isEmpty()) {
-            return null;
+            return new ArrayList<>();
         }
 
-        if (!trieTitulos.search(titulo)) {
-            return null;
+        MyLinkedList<Cancion> canciones = tituloToCanciones.get(TextoNormalizador.normalizar(titulo));
+        List<Cancion> out = new ArrayList<>();
+        if (canciones != null) {
+            canciones.forEach(out::add);
         }
+        return out;
+    }
+
+    /**
+     * Busca canciones cuyo título, artista o género contenga el texto,
+     * usando el índice de n-gramas en lugar de recorrer el catálogo.
+     * Complejidad: O(q + c · log k) donde q es la longitud del texto y c el número de candidatos
+     *
+     * @param texto Texto a buscar (insensible a mayúsculas y acentos)
+     * @param k Número máximo de canciones a retornar
+     * @return Canciones que contienen el texto, ordenadas por título (máximo k elementos)
+     */
+    public List<Cancion> buscarPorSubcadena(String texto, int k) {
+        return subcadenas.buscar(texto, k);
+    }
 
-        return tituloToCancion.get(titulo.toLowerCase().trim());
+    /**
+     * Devuelve los IDs de las canciones cuyo título, artista o género
+     * contenga el texto. Útil para filtrar listas ya cargadas.
+     *
+     * @param texto Texto a buscar
+     * @return IDs coincidentes
+     */
+    public Set<String> idsPorSubcadena(String texto) {
+        return subcadenas.buscarIds(texto);
     }
 
     /**
-     * Cuenta cuántas canciones tienen títulos que comienzan con el prefijo.
+     * Cuenta cuántos títulos distintos comienzan con el prefijo.
      * Complejidad: O(m + k) donde m es la longitud del prefijo y k el número de coincidencias
      * 
      * @param prefijo Prefijo a contar
@@ -201,15 +480,130 @@ public class CancionIndice {
 
     /**
      * Re-indexa completamente el Trie.
-     * Útil después de cambios masivos en el repositorio.
+     * No es necesario tras altas, ediciones o bajas hechas con el
+     * repositorio (se aplican solas); queda para recuperarse de cambios
+     * hechos por fuera de él.
      * Complejidad: O(n * m) donde n es el número de canciones
      */
     public void reindexar() {
-        trieTitulos.clear();
-        tituloToCancion.clear();
+        limpiar();
         indexarExistentes();
     }
 
+    /**
+     * Guarda el índice completo en un archivo binario, asociado a la versión
+     * del catálogo con la que se construyó. Se escribe en un archivo temporal
+     * y luego se reemplaza, para no dejar nunca un snapshot a medias.
+     * Complejidad: O(tamaño del índice)
+     *
+     * @param archivo Ruta del snapshot
+     * @param versionCatalogo Versión del catálogo ({@link CancionRepo#getVersion()})
+     * @return true si se guardó; false si el índice aún no está cargado o hubo un error
+     */
+    public boolean guardarSnapshot(Path archivo, long versionCatalogo) {
+        if (!sincronizado) {
+            return false; // Un índice incompleto no debe sustituir al catálogo
+        }
+
+        try {
+            Files.createDirectories(archivo.toAbsolutePath().getParent());
+            Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporal)))) {
+                out.writeInt(SNAPSHOT_MAGICO);
+                out.writeInt(SNAPSHOT_FORMATO);
+                out.writeLong(versionCatalogo);
+
+                trieTitulos.writeTo(out);
+
+                out.writeInt(tituloToCanciones.size());
+                for (Map.Entry<String, MyLinkedList<Cancion>> e : tituloToCanciones.entrySet()) {
+                    out.writeUTF(e.getKey());
+                    out.writeInt(e.getValue().size());
+                    for (Cancion c : e.getValue()) {
+                        out.writeUTF(c.getId());
+                    }
+                }
+
+                subcadenas.escribir(out);
+            }
+
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            System.err.println("⚠ Error guardando snapshot del índice: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Carga el índice desde un snapshot, si corresponde a la versión actual
+     * del catálogo. Evita reinsertar cada título en el arranque: los nodos
+     * del Trie y las listas del índice se leen ya armados.
+     * Complejidad: O(tamaño del índice)
+     *
+     * @param archivo Ruta del snapshot
+     * @param versionCatalogo Versión actual del catálogo ({@link CancionRepo#getVersion()})
+     * @return true si se cargó; false si no existe, es de otra versión o está
+     *         dañado (el índice queda vacío y hay que llamar a {@link #indexarExistentes()})
+     */
+    public boolean cargarSnapshot(Path archivo, long versionCatalogo) {
+        if (!Files.exists(archivo)) {
+            return false;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(archivo)))) {
+            if (in.readInt() != SNAPSHOT_MAGICO || in.readInt() != SNAPSHOT_FORMATO
+                    || in.readLong() != versionCatalogo) {
+                return false; // Otro formato o catálogo modificado desde el snapshot
+            }
+
+            limpiar();
+            trieTitulos.readFrom(in);
+
+            int titulos = in.readInt();
+            for (int i = 0; i < titulos; i++) {
+                String clave = in.readUTF();
+                int n = in.readInt();
+                MyLinkedList<Cancion> canciones = new MyLinkedList<>();
+                for (int j = 0; j < n; j++) {
+                    String id = in.readUTF();
+                    Cancion c = repo.find(id)
+                            .orElseThrow(() -> new IOException("Canción no encontrada en el catálogo: " + id));
+                    canciones.add(c);
+                    clavePorId.put(id, clave);
+                    totalCanciones++;
+                }
+                tituloToCanciones.put(clave, canciones);
+            }
+
+            subcadenas.leer(in, id -> repo.find(id).orElse(null));
+            sincronizado = true;
+
+            System.out.println("✓ Índice cargado desde snapshot: " + totalCanciones + " canciones ("
+                    + trieTitulos.size() + " títulos)");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("⚠ Snapshot del índice inválido, se reconstruirá: " + e.getMessage());
+            limpiar();
+            return false;
+        }
+    }
+
+    /**
+     * Deja el índice vacío y pendiente de carga.
+     */
+    private void limpiar() {
+        trieTitulos.clear();
+        tituloToCanciones.clear();
+        clavePorId.clear();
+        subcadenas.clear();
+        totalCanciones = 0;
+        sincronizado = false;
+    }
+
     /**
      * Obtiene estadísticas del índice.
      * 
@@ -218,24 +612,31 @@ public class CancionIndice {
     public String getEstadisticas() {
         StringBuilder sb = new StringBuilder();
         sb.append("=== Estado del Índice de Canciones ===\n");
-        sb.append("Canciones indexadas: ").append(trieTitulos.size()).append("\n");
+        sb.append("Canciones indexadas: ").append(totalCanciones).append("\n");
+        sb.append("Títulos distintos: ").append(trieTitulos.size()).append("\n");
         sb.append("Canciones en repositorio: ").append(repo.findAll().size()).append("\n");
         
         if (!trieTitulos.isEmpty()) {
-            sb.append("Título más largo: ").append(trieTitulos.getLongestWord()).append("\n");
-            sb.append("Título más corto: ").append(trieTitulos.getShortestWord()).append("\n");
+            sb.append("Título más largo: ").append(tituloVisible(trieTitulos.getLongestWord())).append("\n");
+            sb.append("Título más corto: ").append(tituloVisible(trieTitulos.getShortestWord())).append("\n");
         }
         
         return sb.toString();
     }
 
+    /** Título de la primera canción con esa clave normalizada. */
+    private String tituloVisible(String clave) {
+        MyLinkedList<Cancion> canciones = tituloToCanciones.get(clave);
+        return canciones == null || canciones.isEmpty() ? clave : canciones.getFirst().getTitulo();
+    }
+
     /**
      * Obtiene el número total de canciones indexadas.
      * 
      * @return Cantidad de canciones en el índice
      */
     public int size() {
-        return trieTitulos.size();
+        return totalCanciones;
     }
 
     /**
@@ -244,7 +645,7 @@ public class CancionIndice {
      * @return true si no hay canciones indexadas
      */
     public boolean isEmpty() {
-        return trieTitulos.isEmpty();
+        return totalCanciones == 0;
     }
 }
 
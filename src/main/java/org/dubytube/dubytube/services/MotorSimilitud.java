@@ -0,0 +1,418 @@
+package org.dubytube.dubytube.services;
+
+import org.dubytube.dubytube.domain.Cancion;
+import org.dubytube.dubytube.ds.CacheCercanas;
+import org.dubytube.dubytube.ds.CandidatosSimilitud;
+import org.dubytube.dubytube.ds.GrafoCercania;
+import org.dubytube.dubytube.ds.GrafoSimilitud;
+import org.dubytube.dubytube.ds.RasgosCanciones;
+import org.dubytube.dubytube.ds.VecinosCercanos;
+import org.dubytube.dubytube.repo.CancionRepo;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Motor de similitud único del catálogo: una sola función de distancia, un
+ * solo grafo y un solo camino de actualización.
+ *
+ * <p>Recomendaciones, radio y CRUD consultan este motor:</p>
+ * <ul>
+ *   <li>El grafo ({@link GrafoSimilitud}) se construye una vez, en paralelo,
+ *       conservando los k vecinos más cercanos de cada canción.</li>
+ *   <li>Cada alta, edición o baja del {@link CancionRepo} rehace las
+ *       aristas de esa canción y rellena las listas de k vecinos que la
+ *       perdieron, buscando candidatas en los bloques de artista y género.
+ *       El grafo resultante es el mismo que daría {@link #reconstruir}.</li>
+ *   <li>Las consultas se sirven desde una copia compacta ({@link GrafoCercania})
+ *       con caché por canción, invalidada solo donde hubo cambios. Tras un
+ *       cambio la caché consulta el grafo mutable, que ya está al día, y la
+ *       copia compacta se rehace una vez cada {@value #CAMBIOS_POR_COMPACTAR}
+ *       cambios en lugar de tras cada uno. Las distancias de ambos grafos
+ *       pueden diferir en el redondeo a float de la copia compacta.</li>
+ * </ul>
+ *
+ * <p>La distancia la da un {@link Puntuador} intercambiable, evaluado sobre
+ * las columnas primitivas de {@link RasgosCanciones}. El de por defecto,
+ * {@link #POR_RASGOS}, es {@link #distanciaHeuristica(Cancion, Cancion)};
+ * {@link #POR_PUNTAJE} usa el puntaje 0-100 de
+ * {@link Cancion#calcularSimilitud(Cancion)}.
+ * Solo se comparan canciones del mismo artista y, dentro de cada género,
+ * las k más próximas en año a cada una
+ * ({@link CandidatosSimilitud#porArtistaYGeneroCercano(int)}): con la
+ * métrica por defecto el resto no puede entrar entre los k vecinos por
+ * debajo de distancia 1.0, y la construcción queda en O(n · k) pares de
+ * género aunque el catálogo tenga pocos géneros. Conservando todas las
+ * aristas (k de 0 o menos) se compara el género entero. Una canción que
+ * no alcanza k cercanas por el grafo (por ejemplo, con artista y género
+ * únicos) se completa con las más próximas en año, para que las
+ * recomendaciones no queden vacías.</p>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+public class MotorSimilitud {
+
+    /** Vecinos por canción que conserva el grafo si no se indica otro valor. */
+    public static final int VECINOS_POR_DEFECTO = 10;
+
+    /** Canciones semilla con sus cercanas en memoria. */
+    private static final int CACHE_CANCIONES = 512;
+    /** Cercanas calculadas por semilla (el máximo que pide la UI). */
+    private static final int CACHE_VECINOS = 20;
+    /** Cambios del catálogo que se acumulan antes de rehacer la copia compacta. */
+    private static final int CAMBIOS_POR_COMPACTAR = 32;
+
+    /**
+     * Función de distancia del motor, sobre las posiciones de un
+     * {@link RasgosCanciones}. Se llama desde varios hilos a la vez al
+     * reconstruir, así que no debe guardar estado.
+     */
+    @FunctionalInterface
+    public interface Puntuador {
+        /**
+         * @return Distancia entre las canciones de las posiciones i y j
+         *         (menor = más similar)
+         */
+        double distancia(RasgosCanciones rasgos, int i, int j);
+
+        /**
+         * Distancia de la posición i contra todas. Por defecto llama a
+         * {@link #distancia} por cada posición.
+         *
+         * @param destino Arreglo de al menos {@code rasgos.size()} posiciones
+         */
+        default void distanciasCon(RasgosCanciones rasgos, int i, double[] destino) {
+            for (int j = 0; j < rasgos.size(); j++) {
+                destino[j] = distancia(rasgos, i, j);
+            }
+        }
+    }
+
+    /**
+     * Puntuador por defecto: {@link #distanciaHeuristica(Cancion, Cancion)}
+     * sobre columnas ({@link RasgosCanciones#distancia(int, int)}), con la
+     * pasada de una contra todas de {@link RasgosCanciones#distanciasCon}.
+     */
+    public static final Puntuador POR_RASGOS = new Puntuador() {
+        @Override
+        public double distancia(RasgosCanciones rasgos, int i, int j) {
+            return rasgos.distancia(i, j);
+        }
+
+        @Override
+        public void distanciasCon(RasgosCanciones rasgos, int i, double[] destino) {
+            rasgos.distanciasCon(i, destino);
+        }
+    };
+
+    /**
+     * Puntuador con el puntaje de {@link Cancion#calcularSimilitud(Cancion)}
+     * (género 40, artista 30, año hasta 20, duración hasta 10) sobre columnas
+     * ({@link RasgosCanciones#similitud(int, int)}), expresado como distancia
+     * {@code 1 - puntaje / 100}: a mayor puntaje, más cerca.
+     */
+    public static final Puntuador POR_PUNTAJE = new Puntuador() {
+        @Override
+        public double distancia(RasgosCanciones rasgos, int i, int j) {
+            return 1.0 - rasgos.similitud(i, j) / 100.0;
+        }
+
+        @Override
+        public void distanciasCon(RasgosCanciones rasgos, int i, double[] destino) {
+            rasgos.similitudesCon(i, destino);
+            for (int j = 0; j < rasgos.size(); j++) {
+                destino[j] = 1.0 - destino[j] / 100.0;
+            }
+        }
+    };
+
+    private final CancionRepo repo;
+    private final int vecinosPorCancion;
+    private final Puntuador puntuador;
+    private final CandidatosSimilitud candidatos;
+
+    private final GrafoSimilitud grafo = new GrafoSimilitud(); // mutable: recibe los cambios
+    private CandidatosSimilitud.IndiceBloques bloques;          // canciones indexadas del grafo
+    private VecinosCercanos vecinos;                            // listas de k vecinos, o null si se conservan todas
+    private final CacheCercanas cache;                          // sobre la copia compacta
+    private int cambiosSinCompactar;
+
+    private MotorSimilitud(CancionRepo repo, int vecinosPorCancion, Puntuador puntuador) {
+        this.repo = repo;
+        this.vecinosPorCancion = vecinosPorCancion;
+        this.puntuador = puntuador;
+        this.candidatos = vecinosPorCancion > 0
+                ? CandidatosSimilitud.porArtistaYGeneroCercano(vecinosPorCancion)
+                : CandidatosSimilitud.porArtistaOGenero();
+        this.cache = new CacheCercanas(grafo, CACHE_CANCIONES, CACHE_VECINOS);
+    }
+
+    /**
+     * Motor con {@value #VECINOS_POR_DEFECTO} vecinos por canción.
+     *
+     * @param repo Repositorio de canciones
+     * @return Motor con el grafo construido y suscrito al repositorio
+     */
+    public static MotorSimilitud crear(CancionRepo repo) {
+        return crear(repo, VECINOS_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un motor, construye el grafo con el catálogo actual y lo suscribe
+     * a los cambios del repositorio. La suscripción se hace aquí y no en el
+     * constructor para no publicar un motor a medio construir.
+     *
+     * @param repo Repositorio de canciones
+     * @param vecinosPorCancion Vecinos más cercanos a conservar por canción;
+     *                          0 o menos conserva todas las aristas candidatas
+     * @return Motor con el grafo construido y suscrito al repositorio
+     */
+    public static MotorSimilitud crear(CancionRepo repo, int vecinosPorCancion) {
+        return crear(repo, vecinosPorCancion, POR_RASGOS);
+    }
+
+    /**
+     * Igual que {@link #crear(CancionRepo, int)}, con otra función de
+     * distancia. Se usa tanto al reconstruir como al actualizar una canción.
+     *
+     * @param repo Repositorio de canciones
+     * @param vecinosPorCancion Vecinos más cercanos a conservar por canción;
+     *                          0 o menos conserva todas las aristas candidatas
+     * @param puntuador Distancia entre canciones (solo se evalúa sobre los
+     *                  pares candidatos, ver la descripción de la clase)
+     * @return Motor con el grafo construido y suscrito al repositorio
+     */
+    public static MotorSimilitud crear(CancionRepo repo, int vecinosPorCancion, Puntuador puntuador) {
+        MotorSimilitud motor = new MotorSimilitud(repo, vecinosPorCancion, Objects.requireNonNull(puntuador));
+        motor.reconstruir(null);
+
+        repo.addChangeListener(new CancionRepo.RepoChangeListener() {
+            @Override
+            public void onCancionGuardada(Cancion anterior, Cancion nueva) {
+                motor.actualizarCancion(nueva, true);
+            }
+
+            @Override
+            public void onCancionEliminada(Cancion eliminada) {
+                motor.actualizarCancion(eliminada, false);
+            }
+        });
+        return motor;
+    }
+
+    /**
+     * Métrica del motor: parte de 1.0, resta 0.4 si comparten género y
+     * 0.5 si comparten artista, y suma 0.01 por año de diferencia (hasta 0.4).
+     *
+     * <p>Es la referencia de {@link RasgosCanciones#distancia(int, int)},
+     * que usa el puntuador por defecto ({@link #POR_RASGOS}).</p>
+     *
+     * @return Distancia entre 0.05 y 1.4 (menor = más similar)
+     */
+    public static double distanciaHeuristica(Cancion a, Cancion b) {
+        double d = 1.0;
+        if (a.getGenero() != null && b.getGenero() != null &&
+                a.getGenero().equalsIgnoreCase(b.getGenero())) d -= 0.4;
+        if (a.getArtista() != null && b.getArtista() != null &&
+                a.getArtista().equalsIgnoreCase(b.getArtista())) d -= 0.5;
+        int diff = Math.abs(a.getAnio() - b.getAnio());
+        d += Math.min(diff, 40) / 100.0; // +0.00..+0.40
+        if (d < 0.05) d = 0.05;
+        return d;
+    }
+
+    /**
+     * Reconstruye el grafo completo con el catálogo actual, evaluando los
+     * pares en paralelo. Normalmente no hace falta: el motor se mantiene
+     * al día con los cambios del repositorio.
+     *
+     * @param progreso Avance por canciones procesadas (desde hilos de trabajo), o null
+     */
+    public void reconstruir(CandidatosSimilitud.Progreso progreso) {
+        grafo.clear();
+        List<Cancion> lista = new ArrayList<>(repo.findAll());
+        bloques = candidatos.nuevoIndice();
+        for (Cancion c : lista) {
+            grafo.agregarCancion(c.getId()); // también las que no tengan vecinos
+            bloques.agregar(c);
+        }
+
+        RasgosCanciones rasgos = new RasgosCanciones(lista);
+        VecinosCercanos vecinos = vecinosPorCancion > 0 ? new VecinosCercanos(vecinosPorCancion) : null;
+        this.vecinos = vecinos;
+        candidatos.paraCadaParParaleloPorPosicion(lista, (i, j) -> puntuador.distancia(rasgos, i, j), (a, b, d) -> {
+            if (vecinos != null) {
+                vecinos.ofrecer(a.getId(), b.getId(), d);
+            } else {
+                grafo.agregarSimilitud(a.getId(), b.getId(), d);
+            }
+        }, progreso);
+        if (vecinos != null) {
+            vecinos.volcarEn(grafo);
+        }
+
+        cache.clear();
+        compactar();
+    }
+
+    /**
+     * Las k canciones más cercanas a una canción (sin incluirla). Primero
+     * las alcanzables por el grafo, en orden de distancia; si no llegan a k,
+     * se completan con las más próximas en año que no estaban, ordenadas por
+     * la distancia del puntuador.
+     *
+     * @param id ID de la canción semilla
+     * @param k Número máximo de resultados
+     * @return Cercanas con su distancia (vacío si la canción no existe; menos
+     *         de k solo si el catálogo no tiene más canciones)
+     */
+    public List<GrafoCercania.Cercana> masCercanas(String id, int k) {
+        return masCercanas(id, k, null);
+    }
+
+    /**
+     * Como {@link #masCercanas(String, int)}, pero solo devuelve canciones
+     * que cumplen el filtro (por ejemplo, las de una playlist). La búsqueda
+     * del grafo recorre las demás sin contarlas, así que basta pedir k.
+     *
+     * @param id ID de la canción semilla
+     * @param k Número máximo de resultados
+     * @param filtro Canciones que pueden devolverse, o null para todas
+     * @return Cercanas con su distancia (menos de k solo si no hay más
+     *         canciones que cumplan el filtro)
+     */
+    public List<GrafoCercania.Cercana> masCercanas(String id, int k, Predicate<String> filtro) {
+        List<GrafoCercania.Cercana> cercanas = filtro == null
+                ? cache.masCercanas(id, k)
+                : cache.masCercanas(id, k, filtro);
+        Cancion semilla = id == null ? null : bloques.get(id);
+        if (cercanas.size() >= k || semilla == null) {
+            return cercanas;
+        }
+
+        Set<String> vistas = new HashSet<>();
+        for (GrafoCercania.Cercana c : cercanas) {
+            vistas.add(c.id);
+        }
+        Predicate<String> excluir = filtro == null
+                ? vistas::contains
+                : otra -> vistas.contains(otra) || !filtro.test(otra);
+        List<Cancion> porAnio = bloques.masCercanasPorAnio(id, k - cercanas.size(), excluir);
+        double[] distancias = distanciasDesde(semilla, porAnio);
+        List<GrafoCercania.Cercana> relleno = new ArrayList<>(porAnio.size());
+        for (int j = 0; j < porAnio.size(); j++) {
+            relleno.add(new GrafoCercania.Cercana(porAnio.get(j).getId(), distancias[j]));
+        }
+        relleno.sort(Comparator.comparingDouble(c -> c.distancia)); // estable: empates por año
+        cercanas.addAll(relleno);
+        return cercanas;
+    }
+
+    /**
+     * Grafo mutable del motor, para estadísticas o recorridos completos.
+     * No debe modificarse desde fuera.
+     *
+     * @return Grafo de similitud del catálogo
+     */
+    public GrafoSimilitud getGrafo() {
+        return grafo;
+    }
+
+    /**
+     * Rehace las aristas de una canción y deja el grafo igual al que daría
+     * {@link #reconstruir}:
+     * <ol>
+     *   <li>La canción sale de todas las listas de vecinos; las que la
+     *       tenían quedan pendientes de rellenar.</li>
+     *   <li>Si sigue en el catálogo, su lista se calcula con las candidatas
+     *       de sus bloques, y se ofrece a la lista de cada candidata.</li>
+     *   <li>Las listas pendientes se recalculan con sus propias candidatas.</li>
+     * </ol>
+     * <p>Las demás listas no cambian: no contenían la canción, y ofrecerla
+     * basta para que la incluyan si ahora está entre sus k mejores. Se
+     * invalidan las cercanas cacheadas que tocan alguna arista modificada.</p>
+     * Complejidad: O(b · (1 + p)), con b el tamaño de los bloques y p las
+     * listas que contenían a la canción
+     */
+    private void actualizarCancion(Cancion c, boolean existe) {
+        String id = c.getId();
+        Set<String> afectadas = new HashSet<>();
+        Set<String> pendientes;
+        if (vecinos != null) {
+            pendientes = vecinos.quitar(id, grafo, afectadas);
+        } else {
+            pendientes = Set.of();
+            afectadas.add(id);
+            afectadas.addAll(grafo.eliminarCancion(id));
+        }
+
+        bloques.quitar(id);
+        if (existe) {
+            grafo.agregarCancion(id);
+            bloques.agregar(c);
+            List<Cancion> candidatas = bloques.candidatas(id);
+            double[] distancias = distanciasDesde(c, candidatas);
+            if (vecinos != null) {
+                vecinos.recalcular(id, ids(candidatas), distancias, grafo, afectadas);
+                for (int j = 0; j < candidatas.size(); j++) {
+                    String otra = candidatas.get(j).getId();
+                    if (!pendientes.contains(otra)) {
+                        vecinos.ofrecerA(otra, id, distancias[j], grafo, afectadas);
+                    }
+                }
+            } else {
+                for (int j = 0; j < candidatas.size(); j++) {
+                    grafo.agregarSimilitud(id, candidatas.get(j).getId(), distancias[j]);
+                    afectadas.add(candidatas.get(j).getId());
+                }
+            }
+        }
+
+        for (String pendiente : pendientes) {
+            Cancion dueno = bloques.get(pendiente);
+            if (dueno == null) {
+                continue;
+            }
+            List<Cancion> candidatas = bloques.candidatas(pendiente);
+            double[] distancias = distanciasDesde(dueno, candidatas);
+            vecinos.recalcular(pendiente, ids(candidatas), distancias, grafo, afectadas);
+        }
+
+        cache.invalidar(afectadas);
+        if (++cambiosSinCompactar >= CAMBIOS_POR_COMPACTAR) {
+            compactar();
+        } else {
+            cache.setGrafo(grafo); // la copia compacta ya no refleja el cambio
+        }
+    }
+
+    /**
+     * Rehace la copia compacta y la pone detrás de la caché. Las entradas
+     * cacheadas se conservan: ya se invalidaron las que cambiaron.
+     * Complejidad: O(V + E)
+     */
+    private void compactar() {
+        cache.setGrafo(grafo.compactar());
+        cambiosSinCompactar = 0;
+    }
+
+    /** Distancia de origen a cada candidata, en el orden de la lista. */
+    private double[] distanciasDesde(Cancion origen, List<Cancion> candidatas) {
+        List<Cancion> lista = new ArrayList<>(candidatas.size() + 1);
+        lista.add(origen);
+        lista.addAll(candidatas);
+        double[] fila = new double[lista.size()];
+        puntuador.distanciasCon(new RasgosCanciones(lista), 0, fila);
+        return Arrays.copyOfRange(fila, 1, fila.length);
+    }
+
+    private static List<String> ids(List<Cancion> canciones) {
+        List<String> out = new ArrayList<>(canciones.size());
+        for (Cancion c : canciones) {
+            out.add(c.getId());
+        }
+        return out;
+    }
+}
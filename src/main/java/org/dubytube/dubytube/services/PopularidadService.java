@@ -0,0 +1,156 @@
+package org.dubytube.dubytube.services;
+
+import org.dubytube.dubytube.domain.Cancion;
+import org.dubytube.dubytube.domain.Usuario;
+import org.dubytube.dubytube.repo.UsuarioRepo;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio que acumula la popularidad real de cada canción.
+ *
+ * <p>Las reproducciones del radio y los "Me Gusta" suman puntos al puntaje
+ * de la canción. El registro de un evento solo actualiza el puntaje total
+ * y marca la canción como pendiente, ambos en O(1). El índice de títulos
+ * ({@link CancionIndice}) aplica los pendientes por lotes cuando necesita
+ * ordenar sugerencias, de modo que la reproducción nunca espera al Trie.</p>
+ *
+ * <p><b>Persistencia:</b> la parte de favoritos no se guarda aparte, se
+ * reconstruye al arrancar con {@link #sembrarFavoritos(Iterable)} a partir
+ * de los favoritos guardados de cada usuario, y luego la mantiene al día el
+ * {@link UsuarioRepo} como {@link UsuarioRepo.FavoritoListener}. Las
+ * reproducciones son solo de la sesión: se pierden al cerrar la app.</p>
+ *
+ * <p><b>Pesos:</b></p>
+ * <ul>
+ *   <li>Reproducción: {@value #PESO_REPRODUCCION} punto</li>
+ *   <li>Favorito: {@value #PESO_FAVORITO} puntos (se restan al quitarlo)</li>
+ * </ul>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+public class PopularidadService implements UsuarioRepo.FavoritoListener {
+
+    /** Puntos que suma cada reproducción. */
+    public static final int PESO_REPRODUCCION = 1;
+
+    /** Puntos que suma marcar una canción como favorita. */
+    public static final int PESO_FAVORITO = 3;
+
+    /**
+     * Puntaje acumulado por ID de canción.
+     */
+    private final Map<String, Integer> puntajes = new ConcurrentHashMap<>();
+
+    /**
+     * IDs de canciones cuyo puntaje cambió y aún no se reflejó en el índice.
+     * Su tamaño está acotado por el número de canciones distintas.
+     */
+    private final Set<String> pendientes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Suma el peso de favorito por cada favorito guardado de los usuarios.
+     * Llamar una vez al arrancar, antes de registrar el listener.
+     * Complejidad: O(total de favoritos)
+     *
+     * @param usuarios Usuarios registrados
+     */
+    public void sembrarFavoritos(Iterable<Usuario> usuarios) {
+        for (Usuario u : usuarios) {
+            if (u.getFavoritos() == null) {
+                continue;
+            }
+            for (Cancion c : u.getFavoritos()) {
+                registrarFavorito(c);
+            }
+        }
+    }
+
+    @Override
+    public void onFavoritoAgregado(Usuario usuario, Cancion cancion) {
+        registrarFavorito(cancion);
+    }
+
+    @Override
+    public void onFavoritoQuitado(Usuario usuario, Cancion cancion) {
+        quitarFavorito(cancion);
+    }
+
+    /**
+     * Registra una reproducción de la canción.
+     * Complejidad: O(1)
+     *
+     * @param c Canción reproducida
+     */
+    public void registrarReproduccion(Cancion c) {
+        sumar(c, PESO_REPRODUCCION);
+    }
+
+    /**
+     * Registra que un usuario marcó la canción como favorita.
+     * Complejidad: O(1)
+     *
+     * @param c Canción marcada
+     */
+    public void registrarFavorito(Cancion c) {
+        sumar(c, PESO_FAVORITO);
+    }
+
+    /**
+     * Registra que un usuario quitó la canción de sus favoritos.
+     * Complejidad: O(1)
+     *
+     * @param c Canción desmarcada
+     */
+    public void quitarFavorito(Cancion c) {
+        sumar(c, -PESO_FAVORITO);
+    }
+
+    /**
+     * Obtiene el puntaje acumulado de una canción.
+     *
+     * @param id ID de la canción
+     * @return Puntaje (0 si no tiene eventos)
+     */
+    public int getPuntaje(String id) {
+        return id == null ? 0 : puntajes.getOrDefault(id, 0);
+    }
+
+    /**
+     * Indica si hay puntajes pendientes de aplicar al índice.
+     *
+     * @return true si hay pendientes
+     */
+    public boolean hayPendientes() {
+        return !pendientes.isEmpty();
+    }
+
+    /**
+     * Retira y devuelve los IDs cuyo puntaje cambió desde la última llamada.
+     * El consumidor debe leer el puntaje actual con {@link #getPuntaje(String)}.
+     *
+     * @return IDs de canciones con puntaje modificado
+     */
+    public Set<String> drenarPendientes() {
+        Set<String> lote = new HashSet<>();
+        for (String id : pendientes) {
+            if (pendientes.remove(id)) {
+                lote.add(id);
+            }
+        }
+        return lote;
+    }
+
+    private void sumar(Cancion c, int delta) {
+        if (c == null) {
+            return;
+        }
+        puntajes.merge(c.getId(), Math.max(0, delta), (a, b) -> Math.max(0, a + delta));
+        pendientes.add(c.getId());
+    }
+}
@@ -5,7 +5,7 @@ import javafx.scene.media.MediaPlayer;
 import javafx.util.Duration;
 import org.dubytube.dubytube.domain.Cancion;
 import org.dubytube.dubytube.ds.ColaCircular;
-import org.dubytube.dubytube.ds.GrafoSimilitud;
+import org.dubytube.dubytube.ds.GrafoCercania;
 
 import java.io.File;
 import java.util.*;
@@ -15,14 +15,14 @@ import java.util.stream.Collectors;
  * Servicio de reproductor de audio tipo radio con recomendaciones inteligentes.
  * 
  * <p>Implementa un reproductor continuo que usa una cola circular para
- * reproducir canciones. Utiliza GrafoSimilitud para recomendar canciones
+ * reproducir canciones. Utiliza el {@link MotorSimilitud} del catálogo para recomendar canciones
  * basadas en similitud de género, artista y año. Si no encuentra canciones
  * similares, reproduce canciones aleatorias.</p>
  * 
  * <p><b>Estructuras de datos utilizadas:</b></p>
  * <ul>
  *   <li>ColaCircular: Para gestionar la playlist circular</li>
- *   <li>GrafoSimilitud: Para recomendaciones basadas en similitud</li>
+ *   <li>MotorSimilitud: Para recomendaciones basadas en similitud (grafo compartido)</li>
  * </ul>
  * 
  * @author DubyTube Team
@@ -38,7 +38,7 @@ public class RadioService {
     private boolean repeat;
     private boolean usarRecomendaciones; // Nuevo: activar/desactivar recomendaciones inteligentes
     
-    private GrafoSimilitud grafoSimilitud; // Nuevo: grafo para similitud
+    private final MotorSimilitud motorSimilitud; // Grafo de similitud compartido con las recomendaciones
     private Map<String, Cancion> cancionesDisponibles; // Nuevo: todas las canciones para recomendaciones
     private Set<String> cancionesReproducidas; // Nuevo: historial para evitar repetir inmediatamente
     
@@ -46,7 +46,15 @@ public class RadioService {
     private List<CancionChangeListener> cancionChangeListeners;
     private List<PlaybackStateListener> playbackStateListeners;
 
-    public RadioService() {
+    /** Canciones similares entre las que se elige la siguiente. */
+    private static final int SIMILARES_POR_SALTO = 10;
+
+    /**
+     * Constructor.
+     * 
+     * @param motorSimilitud Motor de similitud del catálogo
+     */
+    public RadioService(MotorSimilitud motorSimilitud) {
         this.playlist = new ColaCircular<>(500); // Capacidad para 500 canciones
         this.cancionChangeListeners = new ArrayList<>();
         this.playbackStateListeners = new ArrayList<>();
@@ -55,20 +63,20 @@ public class RadioService {
         this.usarRecomendaciones = true; // Por defecto, usar recomendaciones inteligentes
         this.playlist.setModoRadio(true);
         
-        this.grafoSimilitud = new GrafoSimilitud();
+        this.motorSimilitud = motorSimilitud;
         this.cancionesDisponibles = new HashMap<>();
         this.cancionesReproducidas = new LinkedHashSet<>(); // Mantiene orden de inserción
     }
 
     /**
-     * Carga una lista de canciones en el reproductor y construye el grafo de similitud.
+     * Carga una lista de canciones en el reproductor. La similitud sale del
+     * motor compartido, que ya está al día con el catálogo.
      * 
      * @param canciones Lista de canciones a cargar
      */
     public void cargarPlaylist(List<Cancion> canciones) {
         playlist.clear();
         cancionesDisponibles.clear();
-        grafoSimilitud = new GrafoSimilitud(); // Reiniciar grafo
         cancionesReproducidas.clear();
         
         // Cargar canciones en playlist y mapa
@@ -76,71 +84,16 @@ public class RadioService {
             if (c.getArchivoAudio() != null && !c.getArchivoAudio().isEmpty()) {
                 playlist.enqueue(c);
                 cancionesDisponibles.put(c.getId(), c);
-                grafoSimilitud.agregarCancion(c.getId());
             }
         }
         
-        // Construir aristas del grafo basadas en similitud
-        construirGrafoSimilitud(new ArrayList<>(cancionesDisponibles.values()));
-        
         if (shuffle) {
             playlist.shuffle();
         }
         
         System.out.println("✓ Playlist cargada: " + playlist.size() + " canciones");
-        System.out.println("✓ Grafo de similitud construido con " + cancionesDisponibles.size() + " nodos");
     }
     
-    /**
-     * Construye las aristas del grafo calculando similitud entre todas las canciones.
-     */
-    private void construirGrafoSimilitud(List<Cancion> canciones) {
-        for (int i = 0; i < canciones.size(); i++) {
-            for (int j = i + 1; j < canciones.size(); j++) {
-                Cancion a = canciones.get(i);
-                Cancion b = canciones.get(j);
-                double distancia = calcularDistancia(a, b);
-                grafoSimilitud.agregarSimilitud(a.getId(), b.getId(), distancia);
-            }
-        }
-    }
-    
-    /**
-     * Calcula la distancia (disimilitud) entre dos canciones.
-     * Menor distancia = mayor similitud.
-     * 
-     * Heurística:
-     * - Mismo género: -0.4
-     * - Mismo artista: -0.5
-     * - Años cercanos: reduce distancia
-     * 
-     * @return Distancia entre 0.05 y ~1.4
-     */
-    private double calcularDistancia(Cancion a, Cancion b) {
-        double d = 1.0;
-        
-        // Género igual = más similares
-        if (a.getGenero() != null && b.getGenero() != null &&
-                a.getGenero().equalsIgnoreCase(b.getGenero())) {
-            d -= 0.4;
-        }
-        
-        // Artista igual = muy similares
-        if (a.getArtista() != null && b.getArtista() != null &&
-                a.getArtista().equalsIgnoreCase(b.getArtista())) {
-            d -= 0.5;
-        }
-        
-        // Años cercanos = algo similares
-        int diffAnios = Math.abs(a.getAnio() - b.getAnio());
-        d += Math.min(diffAnios, 40) / 100.0; // +0.00 a +0.40
-        
-        // Distancia mínima
-        if (d < 0.05) d = 0.05;
-        
-        return d;
-    }
-
     /**
      * Agrega una canción a la playlist.
      * 
@@ -265,7 +218,7 @@ public class RadioService {
         }
         
         // Obtener canciones similares usando el grafo
-        List<String> similares = grafoSimilitud.recomendarDesde(cancionActual.getId(), 10);
+        List<String> similares = similaresEnPlaylist(cancionActual.getId(), SIMILARES_POR_SALTO);
         
         if (similares.isEmpty()) {
             System.out.println("⚠ No se encontraron canciones similares, reproduciendo aleatoria");
@@ -295,6 +248,19 @@ public class RadioService {
         return siguiente;
     }
     
+    /**
+     * Las n canciones más similares que están en la playlist. El motor
+     * recorre el grafo de todo el catálogo pero solo cuenta las de la
+     * playlist, así que no hace falta pedir listas más largas y filtrarlas.
+     */
+    private List<String> similaresEnPlaylist(String id, int n) {
+        List<String> out = new ArrayList<>();
+        for (GrafoCercania.Cercana c : motorSimilitud.masCercanas(id, n, cancionesDisponibles::containsKey)) {
+            out.add(c.id);
+        }
+        return out;
+    }
+    
     /**
      * Obtiene una canción aleatoria de las disponibles.
      */
@@ -559,7 +525,7 @@ public class RadioService {
     /**
      * Activa o desactiva el sistema de recomendaciones inteligentes.
      * 
-     * Si está activo: Usa GrafoSimilitud para recomendar canciones similares
+     * Si está activo: Usa el motor de similitud para recomendar canciones similares
      * Si está desactivo: Reproduce en orden circular/shuffle normal
      * 
      * @param activar true para activar recomendaciones
@@ -567,7 +533,7 @@ public class RadioService {
     public void setUsarRecomendaciones(boolean activar) {
         this.usarRecomendaciones = activar;
         System.out.println(activar ? 
-            "✓ Recomendaciones inteligentes ACTIVADAS (usa GrafoSimilitud)" : 
+            "✓ Recomendaciones inteligentes ACTIVADAS (usa MotorSimilitud)" : 
             "✓ Recomendaciones inteligentes DESACTIVADAS (modo circular)");
     }
     
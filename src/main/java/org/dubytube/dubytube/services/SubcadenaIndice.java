@@ -0,0 +1,315 @@
+package org.dubytube.dubytube.services;
+
+import org.dubytube.dubytube.domain.Cancion;
+import org.dubytube.dubytube.util.TextoNormalizador;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Índice invertido de n-gramas para búsquedas "contiene" sobre título,
+ * artista y género de las canciones.
+ *
+ * <p>Cada campo normalizado ({@link TextoNormalizador}) se descompone en
+ * todos sus fragmentos de 1 a {@value #N} caracteres, y cada fragmento
+ * apunta a los IDs de las canciones que lo contienen:</p>
+ * <ul>
+ *   <li>Consultas de hasta {@value #N} caracteres: una sola lista de
+ *       resultados, sin verificación.</li>
+ *   <li>Consultas más largas: intersección de las listas de sus trigramas,
+ *       empezando por la más corta, y verificación final de los candidatos
+ *       contra el campo original (descarta falsos positivos).</li>
+ * </ul>
+ *
+ * <p>El costo por tecla depende del número de candidatos y no del tamaño
+ * del catálogo, a diferencia del recorrido completo con {@code contains()}.</p>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+public class SubcadenaIndice {
+
+    /** Longitud máxima de los n-gramas indexados. */
+    public static final int N = 3;
+
+    /**
+     * Lista de IDs de canciones por n-grama.
+     * Key: n-grama (1 a N caracteres), Value: IDs de canciones que lo contienen
+     */
+    private final Map<String, Set<String>> postings = new HashMap<>();
+
+    /**
+     * Campos normalizados de cada canción indexada (título, artista, género),
+     * usados para verificar candidatos y para desindexar.
+     */
+    private final Map<String, String[]> camposPorId = new HashMap<>();
+
+    /**
+     * Canción indexada por ID, para devolver objetos en las búsquedas.
+     */
+    private final Map<String, Cancion> cancionesPorId = new HashMap<>();
+
+    /**
+     * Orden de los resultados: título normalizado y, a igualdad, ID. No
+     * depende del orden de las listas de n-gramas, así que el mismo catálogo
+     * da siempre los mismos resultados, también tras cargar un snapshot.
+     */
+    private final Comparator<String> ordenResultados = Comparator
+            .<String, String>comparing(id -> camposPorId.get(id)[0])
+            .thenComparing(Comparator.naturalOrder());
+
+    /**
+     * Indexa (o reindexa) una canción. Si el ID ya estaba indexado, se
+     * reemplazan sus n-gramas por los de los campos actuales.
+     * Complejidad: O(L · N) donde L es la longitud total de los campos
+     *
+     * @param c Canción a indexar
+     */
+    public void indexar(Cancion c) {
+        if (c == null || c.getId() == null) {
+            return;
+        }
+
+        eliminar(c.getId());
+
+        String[] campos = {
+                c.getTituloNormalizado(),
+                TextoNormalizador.normalizar(c.getArtista()),
+                TextoNormalizador.normalizar(c.getGenero())
+        };
+        for (String campo : campos) {
+            recorrerGramas(campo, g -> postings.computeIfAbsent(g, k -> new HashSet<>()).add(c.getId()));
+        }
+        camposPorId.put(c.getId(), campos);
+        cancionesPorId.put(c.getId(), c);
+    }
+
+    /**
+     * Quita una canción del índice.
+     * Complejidad: O(L · N) donde L es la longitud total de los campos
+     *
+     * @param id ID de la canción
+     * @return true si estaba indexada
+     */
+    public boolean eliminar(String id) {
+        String[] campos = camposPorId.remove(id);
+        if (campos == null) {
+            return false;
+        }
+
+        cancionesPorId.remove(id);
+        for (String campo : campos) {
+            recorrerGramas(campo, g -> {
+                Set<String> ids = postings.get(g);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    postings.remove(g);
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Busca canciones cuyo título, artista o género contenga la consulta
+     * (insensible a mayúsculas, acentos y puntuación).
+     * Complejidad: O(q + c · log limite) donde q es la longitud de la
+     * consulta y c el tamaño de la lista de trigramas más corta
+     *
+     * @param consulta Texto a buscar
+     * @param limite Número máximo de resultados
+     * @return Canciones que contienen la consulta, ordenadas por título
+     *         normalizado y luego por ID (máximo limite elementos)
+     */
+    public List<Cancion> buscar(String consulta, int limite) {
+        if (limite <= 0) {
+            return new ArrayList<>();
+        }
+
+        Set<String> ids = buscarIds(consulta);
+        List<String> elegidos;
+        if (ids.size() <= limite) {
+            elegidos = new ArrayList<>(ids);
+            elegidos.sort(ordenResultados);
+        } else {
+            // Los primeros 'limite' en orden sin ordenar todo: montículo
+            // acotado con el peor de los elegidos en la cima, O(c · log limite)
+            PriorityQueue<String> mejores = new PriorityQueue<>(limite + 1, ordenResultados.reversed());
+            for (String id : ids) {
+                mejores.offer(id);
+                if (mejores.size() > limite) {
+                    mejores.poll();
+                }
+            }
+            elegidos = new ArrayList<>(mejores);
+            elegidos.sort(ordenResultados);
+        }
+
+        List<Cancion> out = new ArrayList<>(elegidos.size());
+        for (String id : elegidos) {
+            out.add(cancionesPorId.get(id));
+        }
+        return out;
+    }
+
+    /**
+     * Devuelve los IDs de las canciones que contienen la consulta.
+     *
+     * @param consulta Texto a buscar
+     * @return IDs coincidentes (conjunto vacío si la consulta no tiene letras ni dígitos)
+     */
+    public Set<String> buscarIds(String consulta) {
+        String q = TextoNormalizador.normalizar(consulta);
+        if (q.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        // Consulta corta: el propio n-grama es la respuesta exacta
+        if (q.length() <= N) {
+            Set<String> ids = postings.get(q);
+            return ids == null ? new HashSet<>() : new HashSet<>(ids);
+        }
+
+        // Consulta larga: intersectar las listas de sus trigramas
+        List<Set<String>> listas = new ArrayList<>();
+        for (int i = 0; i + N <= q.length(); i++) {
+            Set<String> ids = postings.get(q.substring(i, i + N));
+            if (ids == null) {
+                return new HashSet<>(); // Algún trigrama no aparece en ninguna canción
+            }
+            listas.add(ids);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+
+        Set<String> out = new HashSet<>();
+        Set<String> menor = listas.get(0);
+        for (String id : menor) {
+            if (estaEnTodas(id, listas) && contiene(camposPorId.get(id), q)) {
+                out.add(id);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Vacía el índice.
+     */
+    public void clear() {
+        postings.clear();
+        camposPorId.clear();
+        cancionesPorId.clear();
+    }
+
+    /**
+     * Escribe el índice en formato binario: primero la tabla de canciones
+     * (ID y campos normalizados) y luego cada n-grama con las posiciones de
+     * sus canciones en esa tabla, para no repetir los IDs.
+     *
+     * @param out Destino
+     * @throws IOException si falla la escritura
+     */
+    public void escribir(DataOutput out) throws IOException {
+        Map<String, Integer> posicion = new HashMap<>();
+        out.writeInt(camposPorId.size());
+        for (Map.Entry<String, String[]> e : camposPorId.entrySet()) {
+            posicion.put(e.getKey(), posicion.size());
+            out.writeUTF(e.getKey());
+            String[] campos = e.getValue();
+            out.writeInt(campos.length);
+            for (String campo : campos) {
+                out.writeUTF(campo);
+            }
+        }
+
+        out.writeInt(postings.size());
+        for (Map.Entry<String, Set<String>> e : postings.entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeInt(e.getValue().size());
+            for (String id : e.getValue()) {
+                out.writeInt(posicion.get(id));
+            }
+        }
+    }
+
+    /**
+     * Reemplaza el contenido del índice por el leído de {@link #escribir(DataOutput)}.
+     *
+     * @param in Origen
+     * @param buscarCancion Resuelve cada ID a su canción actual
+     * @throws IOException si falla la lectura o algún ID ya no existe
+     */
+    public void leer(DataInput in, Function<String, Cancion> buscarCancion) throws IOException {
+        clear();
+
+        int n = in.readInt();
+        String[] ids = new String[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = in.readUTF();
+            String[] campos = new String[in.readInt()];
+            for (int j = 0; j < campos.length; j++) {
+                campos[j] = in.readUTF();
+            }
+
+            Cancion c = buscarCancion.apply(ids[i]);
+            if (c == null) {
+                throw new IOException("Canción no encontrada en el catálogo: " + ids[i]);
+            }
+            camposPorId.put(ids[i], campos);
+            cancionesPorId.put(ids[i], c);
+        }
+
+        int gramas = in.readInt();
+        for (int i = 0; i < gramas; i++) {
+            String grama = in.readUTF();
+            int m = in.readInt();
+            Set<String> lista = new HashSet<>(Math.max(16, (int) (m / 0.75f) + 1));
+            for (int j = 0; j < m; j++) {
+                lista.add(ids[in.readInt()]);
+            }
+            postings.put(grama, lista);
+        }
+    }
+
+    /**
+     * Obtiene el número de canciones indexadas.
+     *
+     * @return Cantidad de canciones
+     */
+    public int size() {
+        return camposPorId.size();
+    }
+
+    private static boolean estaEnTodas(String id, List<Set<String>> listas) {
+        for (int i = 1; i < listas.size(); i++) {
+            if (!listas.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contiene(String[] campos, String q) {
+        for (String campo : campos) {
+            if (campo.contains(q)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recorre todos los n-gramas (1 a N caracteres) de un campo.
+     */
+    private static void recorrerGramas(String campo, Consumer<String> accion) {
+        int len = campo.length();
+        for (int i = 0; i < len; i++) {
+            for (int n = 1; n <= N && i + n <= len; n++) {
+                accion.accept(campo.substring(i, i + n));
+            }
+        }
+    }
+}
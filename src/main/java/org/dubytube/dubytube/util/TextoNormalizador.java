@@ -0,0 +1,130 @@
+package org.dubytube.dubytube.util;
+
+import java.text.Normalizer;
+
+/**
+ * Normalizador único de texto para los índices de búsqueda (Trie de títulos,
+ * índice de canciones).
+ *
+ * <p>Reglas aplicadas en una sola pasada, sin expresiones regulares:</p>
+ * <ul>
+ *   <li>Minúsculas</li>
+ *   <li>Sin acentos ni diacríticos ("Canción" → "cancion")</li>
+ *   <li>Apóstrofes eliminados ("Don't" → "dont")</li>
+ *   <li>Cualquier otro signo o espacio → un único espacio</li>
+ *   <li>Sin espacios al inicio ni al final</li>
+ * </ul>
+ *
+ * <p>Los textos ASCII no pasan por {@link Normalizer}, y si el texto ya está
+ * normalizado se devuelve la misma instancia sin reservar memoria, por lo
+ * que normalizar una clave ya normalizada es prácticamente gratis.</p>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+public final class TextoNormalizador {
+
+    private TextoNormalizador() {}
+
+    /**
+     * Normaliza un texto para usarlo como clave de búsqueda.
+     * Complejidad: O(n) donde n es la longitud del texto
+     *
+     * @param texto Texto original (puede ser null)
+     * @return Texto normalizado, o cadena vacía si es null o no tiene letras ni dígitos
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+
+        String s = esAscii(texto) ? texto : Normalizer.normalize(texto, Normalizer.Form.NFD);
+        if (yaNormalizado(s)) {
+            return s;
+        }
+
+        char[] out = new char[s.length()];
+        int len = 0;
+        boolean espacioPendiente = false;
+
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+
+            if (esApostrofe(ch) || esDiacritico(ch)) {
+                continue;
+            }
+            if (!esLetraODigito(ch)) {
+                // Separador: se emite como un solo espacio antes del siguiente carácter válido
+                espacioPendiente = len > 0;
+                continue;
+            }
+
+            if (espacioPendiente) {
+                out[len++] = ' ';
+                espacioPendiente = false;
+            }
+            out[len++] = aMinuscula(ch);
+        }
+
+        return new String(out, 0, len);
+    }
+
+    /**
+     * Verifica si un texto ya cumple todas las reglas de normalización.
+     *
+     * @param s Texto (ya descompuesto si tenía caracteres no ASCII)
+     * @return true si normalizar no lo cambiaría
+     */
+    private static boolean yaNormalizado(String s) {
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            char ch = s.charAt(i);
+            if (ch == ' ') {
+                if (i == 0 || i == n - 1 || s.charAt(i - 1) == ' ') {
+                    return false;
+                }
+            } else if (esApostrofe(ch) || esDiacritico(ch) || !esLetraODigito(ch) || aMinuscula(ch) != ch) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean esAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean esApostrofe(char ch) {
+        return ch == '\'' || ch == '’';
+    }
+
+    private static boolean esDiacritico(char ch) {
+        if (ch < 128) {
+            return false;
+        }
+        int tipo = Character.getType(ch);
+        return tipo == Character.NON_SPACING_MARK
+                || tipo == Character.COMBINING_SPACING_MARK
+                || tipo == Character.ENCLOSING_MARK;
+    }
+
+    private static boolean esLetraODigito(char ch) {
+        if (ch < 128) {
+            return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9');
+        }
+        return Character.isLetterOrDigit(ch);
+    }
+
+    private static char aMinuscula(char ch) {
+        if (ch < 128) {
+            return ch >= 'A' && ch <= 'Z' ? (char) (ch + ('a' - 'A')) : ch;
+        }
+        return Character.toLowerCase(ch);
+    }
+}
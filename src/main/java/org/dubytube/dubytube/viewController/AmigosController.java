@@ -53,10 +53,7 @@ public class AmigosController {
         // Obtener usuario actual
         usuarioActual = Session.get();
         
-        // Sincronizar todos los usuarios del sistema con el grafo social
-        for (Usuario usuario : usuarioRepo.findAll()) {
-            g.agregarUsuario(usuario);
-        }
+        // Los usuarios del sistema y sus amistades ya se cargaron en AppContext
         
         // Cargar lista de seguidos (usuarios que sigue el usuario actual)
         if (usuarioActual != null) {
@@ -130,7 +127,10 @@ public class AmigosController {
                 return u;
             }
         }
-        return null;
+        // Registrado después del arranque: se incorpora al grafo
+        Usuario registrado = usuarioRepo.find(username).orElse(null);
+        g.agregarUsuario(registrado);
+        return registrado;
     }
 
     /**
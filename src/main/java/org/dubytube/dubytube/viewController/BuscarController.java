@@ -157,17 +157,14 @@ public class BuscarController {
         Usuario usuario = Session.get();
         boolean esFavorito = usuario.getFavoritos().contains(cancion);
         
+        // El repositorio guarda el cambio y avisa a la popularidad
         if (esFavorito) {
-            usuario.getFavoritos().remove(cancion);
+            AppContext.getUsuarioRepo().quitarFavorito(usuario, cancion);
             mostrarInfo("Canción eliminada de favoritos");
-        } else {
-            usuario.getFavoritos().add(cancion);
+        } else if (AppContext.getUsuarioRepo().agregarFavorito(usuario, cancion)) {
             mostrarInfo("Canción añadida a favoritos ❤️");
         }
         
-        // Guardar cambios en el repositorio
-        AppContext.getUsuarioRepo().save(usuario);
-        
         // Refrescar tabla para actualizar el icono
         tblResultados.refresh();
     }
@@ -215,10 +212,16 @@ public class BuscarController {
     }
     
     /**
-     * Muestra sugerencias del Trie basadas en el prefijo ingresado.
+     * Muestra sugerencias del Trie basadas en el prefijo ingresado,
+     * ordenadas por popularidad (reproducciones y favoritos). Si ningún
+     * título empieza con el prefijo, sugiere títulos parecidos por si hay
+     * un error de tipeo.
      */
     private void mostrarSugerencias(String prefijo) {
-        List<Cancion> sugerencias = indice.sugerirPorTitulo(prefijo, 10);
+        List<Cancion> sugerencias = indice.sugerirPopulares(prefijo, 10);
+        if (sugerencias.isEmpty()) {
+            sugerencias = indice.sugerirAproximado(prefijo, 10);
+        }
         
         if (sugerencias.isEmpty()) {
             ocultarSugerencias();
@@ -256,9 +259,9 @@ public class BuscarController {
             return;
         }
         
-        query = query.trim().toLowerCase();
+        query = query.trim();
         
-        // Búsqueda combinada usando Trie y búsqueda por coincidencia
+        // Búsqueda combinada usando Trie e índice de subcadenas
         LinkedHashMap<String, Cancion> resultadosMap = new LinkedHashMap<>();
         
         // 1. Primero: sugerencias del Trie (por prefijo de título)
@@ -266,13 +269,9 @@ public class BuscarController {
             resultadosMap.put(c.getId(), c);
         }
         
-        // 2. Segundo: búsqueda por coincidencia en título, artista y género
-        for (Cancion c : todasLasCanciones) {
-            if (contiene(c.getTitulo(), query) ||
-                contiene(c.getArtista(), query) ||
-                contiene(c.getGenero(), query)) {
-                resultadosMap.putIfAbsent(c.getId(), c);
-            }
+        // 2. Segundo: coincidencia en título, artista y género (n-gramas, sin recorrer el catálogo)
+        for (Cancion c : indice.buscarPorSubcadena(query, Integer.MAX_VALUE)) {
+            resultadosMap.putIfAbsent(c.getId(), c);
         }
         
         actualizarResultados(new ArrayList<>(resultadosMap.values()));
@@ -330,12 +329,9 @@ public class BuscarController {
         // Aplicar búsqueda de texto si hay algo en el campo
         String query = txtBusqueda.getText();
         if (query != null && !query.trim().isEmpty()) {
-            String queryLower = query.trim().toLowerCase();
+            Set<String> coincidentes = indice.idsPorSubcadena(query);
             resultados = resultados.stream()
-                    .filter(c -> 
-                        contiene(c.getTitulo(), queryLower) ||
-                        contiene(c.getArtista(), queryLower) ||
-                        contiene(c.getGenero(), queryLower))
+                    .filter(c -> coincidentes.contains(c.getId()))
                     .collect(Collectors.toList());
         }
         
@@ -403,13 +399,6 @@ public class BuscarController {
         lblResultados.setText(resultados.size() + " resultado" + (resultados.size() != 1 ? "s" : ""));
     }
     
-    /**
-     * Verifica si un texto contiene una consulta (case-insensitive).
-     */
-    private boolean contiene(String texto, String query) {
-        return texto != null && texto.toLowerCase().contains(query);
-    }
-    
     /**
      * Muestra una alerta informativa.
      */
@@ -12,7 +12,6 @@ import org.dubytube.dubytube.AppContext;
 import org.dubytube.dubytube.HelloApplication;
 import org.dubytube.dubytube.domain.Cancion;
 import org.dubytube.dubytube.repo.CancionRepo;
-import org.dubytube.dubytube.services.CancionIndice;
 import org.dubytube.dubytube.services.Session;
 
 import java.io.File;
@@ -23,7 +22,6 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 public class CrudCancionController {
 
@@ -37,9 +35,8 @@ public class CrudCancionController {
     @FXML private TextField txtArchivoAudio;
     @FXML private Button btnSeleccionarAudio;
 
-    // Repos/índice COMPARTIDOS (una sola fuente de verdad)
+    // Repo COMPARTIDO (una sola fuente de verdad; el índice lo escucha)
     private final CancionRepo repo        = AppContext.canciones();
-    private final CancionIndice indice    = AppContext.indice();
     
     // Archivo de audio seleccionado temporalmente
     private File archivoAudioSeleccionado = null;
@@ -88,8 +85,7 @@ public class CrudCancionController {
 
     private void refrescarTabla() {
         tbl.setItems(FXCollections.observableArrayList(repo.findAll()));
-        // Mantener el trie sincronizado para que Buscar/Avanzada vean los cambios
-        indice.indexarExistentes();
+        // El índice de títulos sigue al repositorio: no hace falta reindexar
     }
 
     private void limpiarFormulario() {
@@ -199,12 +195,9 @@ public class CrudCancionController {
                 // Actualiza: si cambia el ID, elimina la vieja; luego guarda la nueva
                 if (cambiaId) repo.delete(seleccionada.getId());
             }
+            // El índice de títulos y el grafo de similitud se actualizan al guardar
             repo.save(nueva);
 
-            // Índice de títulos y grafo de similitud
-            AppContext.indice().registrarCancion(nueva);
-            conectarSimilitudesHeuristica(nueva);
-
             refrescarTabla();
             seleccionarEnTabla(id);
             archivoAudioSeleccionado = null; // Limpiar archivo temporal
@@ -244,8 +237,7 @@ public class CrudCancionController {
                 eliminarArchivoAudio(sel.getArchivoAudio());
             }
             
-            repo.delete(sel.getId());
-            // (Opcional) TODO: remover aristas del grafo si implementas un método específico
+            repo.delete(sel.getId()); // también quita sus aristas del grafo de similitud
             refrescarTabla();
             limpiarFormulario();
         }
@@ -283,34 +275,6 @@ public class CrudCancionController {
 
     private void alertError(String m) { new Alert(Alert.AlertType.ERROR, m).showAndWait(); }
 
-    /**
-     * Conecta la canción guardada con el resto aplicando una métrica simple:
-     * +5 si coincide artista, +3 si coincide género, +2 si año dif <= 2, +1 si dif <=5.
-     * Distancia = 10 - score (acotada a mínimo 0.5). Menor distancia = más similar.
-     */
-    private void conectarSimilitudesHeuristica(Cancion c) {
-        var grafo = AppContext.similitud();
-        var todas = AppContext.canciones().findAll().stream()
-                .filter(o -> !o.getId().equals(c.getId()))
-                .collect(Collectors.toList());
-
-        for (var o : todas) {
-            double score = 0;
-            if (c.getArtista()!=null && o.getArtista()!=null &&
-                    c.getArtista().equalsIgnoreCase(o.getArtista())) score += 5.0;
-
-            if (c.getGenero()!=null && o.getGenero()!=null &&
-                    c.getGenero().equalsIgnoreCase(o.getGenero()))   score += 3.0;
-
-            int diff = Math.abs(c.getAnio() - o.getAnio());
-            if (diff <= 2)      score += 2.0;
-            else if (diff <= 5) score += 1.0;
-
-            double distancia = Math.max(0.5, 10.0 - score);
-            grafo.agregarSimilitud(c.getId(), o.getId(), distancia); // no dirigido (u<->v) dentro del grafo
-        }
-    }
-    
     /**
      * Copia el archivo de audio al directorio del proyecto y retorna el nombre del archivo guardado.
      */
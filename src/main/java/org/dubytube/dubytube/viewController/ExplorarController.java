@@ -65,17 +65,21 @@ public class ExplorarController {
         containerSugerencias.getChildren().clear();
         containerAleatorios.getChildren().clear();
 
-        // 1. Sugerencias: Amigos de amigos (BFS nivel 2)
-        Set<Usuario> sugerencias = grafo.encontrarAmigosDeAmigos(usuarioActual);
-        lblSugerencias.setText("SUGERENCIAS PARA TI (" + sugerencias.size() + ")");
+        // 1. Sugerencias: Amigos de amigos con más amigos en común (BFS nivel 2),
+        //    ya con el conteo que muestra cada card; el título cuenta a todos
+        List<GrafoSocial.Sugerencia> sugerencias = grafo.sugerirAmigos(usuarioActual, 5);
+        Set<Usuario> sugeridos = new HashSet<>();
+        lblSugerencias.setText("SUGERENCIAS PARA TI (" + grafo.contarAmigosDeAmigos(usuarioActual) + ")");
         
         if (sugerencias.isEmpty()) {
             Label noSugerencias = new Label("No hay sugerencias disponibles");
             noSugerencias.setStyle("-fx-text-fill: #b3b3b3; -fx-font-size: 14px;");
             containerSugerencias.getChildren().add(noSugerencias);
         } else {
-            for (Usuario sugerido : sugerencias.stream().limit(5).collect(Collectors.toList())) {
-                containerSugerencias.getChildren().add(crearCardUsuario(sugerido, true));
+            for (GrafoSocial.Sugerencia sugerencia : sugerencias) {
+                sugeridos.add(sugerencia.usuario);
+                containerSugerencias.getChildren().add(
+                        crearCardUsuario(sugerencia.usuario, true, sugerencia.amigosEnComun));
             }
         }
 
@@ -84,7 +88,7 @@ public class ExplorarController {
         List<Usuario> noAmigos = AppContext.usuarios().findAll().stream()
                 .filter(u -> !u.equals(usuarioActual)) // No incluir al usuario actual
                 .filter(u -> !amigos.contains(u)) // No incluir amigos actuales
-                .filter(u -> !sugerencias.contains(u)) // No duplicar con sugerencias
+                .filter(u -> !sugeridos.contains(u)) // No duplicar con sugerencias
                 .collect(Collectors.toList());
 
         // Mezclar aleatoriamente
@@ -98,7 +102,7 @@ public class ExplorarController {
             containerAleatorios.getChildren().add(noAleatorios);
         } else {
             for (Usuario usuario : noAmigos.stream().limit(10).collect(Collectors.toList())) {
-                containerAleatorios.getChildren().add(crearCardUsuario(usuario, false));
+                containerAleatorios.getChildren().add(crearCardUsuario(usuario, false, 0));
             }
         }
 
@@ -107,8 +111,10 @@ public class ExplorarController {
 
     /**
      * Crea una card de usuario con información y botón de seguir/dejar de seguir.
+     *
+     * @param amigosEnComun Amigos en común con el usuario actual (solo se muestra en sugerencias)
      */
-    private HBox crearCardUsuario(Usuario usuario, boolean esSugerencia) {
+    private HBox crearCardUsuario(Usuario usuario, boolean esSugerencia, int amigosEnComun) {
         HBox card = new HBox(15);
         card.setStyle("-fx-background-color: #282828; -fx-padding: 15px 20px; " +
                      "-fx-background-radius: 8px; -fx-alignment: CENTER_LEFT;");
@@ -127,13 +133,6 @@ public class ExplorarController {
         
         // Mostrar conexión mutua si es sugerencia
         if (esSugerencia) {
-            Set<Usuario> misAmigos = grafo.getAmigos(usuarioActual);
-            Set<Usuario> susAmigos = grafo.getAmigos(usuario);
-            
-            long amigosEnComun = misAmigos.stream()
-                    .filter(susAmigos::contains)
-                    .count();
-            
             if (amigosEnComun > 0) {
                 Label conexion = new Label("🔗 " + amigosEnComun + " amigo" + (amigosEnComun > 1 ? "s" : "") + " en común");
                 conexion.setStyle("-fx-text-fill: #1DB954; -fx-font-size: 12px; -fx-font-weight: bold;");
@@ -150,7 +149,7 @@ public class ExplorarController {
         HBox.setHgrow(spacer, javafx.scene.layout.Priority.ALWAYS);
 
         // Verificar si ya es amigo
-        boolean yaEsAmigo = grafo.getAmigos(usuarioActual).contains(usuario);
+        boolean yaEsAmigo = grafo.sonAmigos(usuarioActual, usuario);
 
         // Botón de seguir/dejar de seguir
         Button btnAccion = new Button(yaEsAmigo ? "✓ Siguiendo" : "+ Seguir");
@@ -52,10 +52,8 @@ public class PerfilController {
                 btn.setOnAction(e -> {
                     Cancion c = getTableView().getItems().get(getIndex());
                     var u = Session.get();
-                    if (u != null && c != null && u.removeFavoritoById(c.getId())) {
-                        // Guardar cambios en persistencia
-                        org.dubytube.dubytube.AppContext.getUsuarioRepo().save(u);
-                        
+                    // El repositorio guarda el cambio y avisa a la popularidad
+                    if (org.dubytube.dubytube.AppContext.getUsuarioRepo().quitarFavorito(u, c)) {
                         getTableView().getItems().remove(c);
                         getTableView().refresh();
                     }
@@ -15,6 +15,7 @@ import java.io.IOException;
 import java.util.List;
 
 import static org.dubytube.dubytube.AppContext.canciones;
+import static org.dubytube.dubytube.AppContext.getMotorSimilitud;
 
 public class RecomendarController {
 
@@ -41,8 +42,8 @@ public class RecomendarController {
         repo.save(new Cancion("5","Someone Like You","Adele","Pop",2011,285));
         repo.save(new Cancion("6","Bohemian Rhapsody","Queen","Rock",1975,354));
 
-        // Servicio
-        svc = new RecomendacionService(repo);
+        // Servicio (sobre el grafo de similitud compartido)
+        svc = new RecomendacionService(repo, getMotorSimilitud());
 
         // Semillas
         cmbSemilla.setItems(FXCollections.observableArrayList(repo.findAll()));
@@ -7,7 +7,9 @@ import org.dubytube.dubytube.services.AuthService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,13 +34,17 @@ class AuthServiceTest {
     private AuthService authService;
     private UsuarioRepo usuarioRepo;
 
+    /** Carpeta temporal para el JSON del repositorio (no toca los datos reales). */
+    @TempDir
+    Path dir;
+
     /**
      * Configuración inicial antes de cada prueba.
      * Crea un repositorio con usuarios de prueba.
      */
     @BeforeEach
     void setUp() {
-        usuarioRepo = new UsuarioRepo();
+        usuarioRepo = new UsuarioRepo(dir.resolve("usuarios.json"));
         
         // Crear usuarios de prueba
         Usuario admin = new Usuario("admin", "admin123", "Administrador");
@@ -4,8 +4,9 @@ import org.dubytube.dubytube.domain.Cancion;
 import org.dubytube.dubytube.repo.CancionRepo;
 import org.dubytube.dubytube.services.BusquedaAvanzada;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,19 +33,18 @@ class BusquedaAvanzadaTest {
     private BusquedaAvanzada busqueda;
     private CancionRepo repo;
 
+    /** Carpeta temporal para el JSON del repositorio (no toca los datos reales). */
+    @TempDir
+    Path dir;
+
     /**
      * Configuración inicial antes de cada prueba.
      * Crea un repositorio con canciones de prueba.
      */
     @BeforeEach
     void setUp() {
-        repo = new CancionRepo();
-        
-        // Limpiar repositorio (eliminar canciones precargadas)
-        List<String> idsParaEliminar = new ArrayList<>();
-        repo.findAll().forEach(c -> idsParaEliminar.add(c.getId()));
-        idsParaEliminar.forEach(id -> repo.delete(id));
-        
+        repo = new CancionRepo(dir.resolve("canciones.json"));
+                
         // Agregar canciones de prueba
         repo.save(new Cancion("test1", "Bohemian Rhapsody", "Queen", "Rock", 1975, 354));
         repo.save(new Cancion("test2", "Imagine", "John Lennon", "Rock", 1971, 183));
@@ -0,0 +1,221 @@
+package org.dubytube.dubytube;
+
+import org.dubytube.dubytube.ds.CacheCercanas;
+import org.dubytube.dubytube.ds.GrafoCercania;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la caché LRU de canciones más cercanas.
+ *
+ * <p>Cubre los siguientes casos:</p>
+ * <ul>
+ *   <li>Con la capacidad llena se descarta la canción usada hace más tiempo</li>
+ *   <li>Un k menor sale de memoria; uno mayor que el calculado vuelve al grafo</li>
+ *   <li>Invalidar descarta solo las entradas que tocan una canción afectada</li>
+ *   <li>Cambiar de grafo conserva las entradas que quedaron</li>
+ *   <li>El total de cercanas guardadas no pasa de capacidad · vecinos</li>
+ *   <li>Las consultas con filtro salen de memoria si alcanza y si no no se guardan</li>
+ *   <li>Capacidad o vecinos menores que 1 se rechazan</li>
+ * </ul>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+@DisplayName("Pruebas de CacheCercanas")
+class CacheCercanasTest {
+
+    /** Grafo falso: cercanas fijas por canción y consultas contadas. */
+    private static final class GrafoContado implements GrafoCercania {
+        final Map<String, List<String>> cercanas = new HashMap<>();
+        final List<String> consultas = new ArrayList<>();
+
+        @Override
+        public List<Cercana> masCercanas(String source, int k) {
+            consultas.add(source + ":" + k);
+            List<Cercana> out = new ArrayList<>();
+            List<String> ids = cercanas.getOrDefault(source, List.of());
+            for (int i = 0; i < Math.min(k, ids.size()); i++) {
+                out.add(new Cercana(ids.get(i), i + 1.0));
+            }
+            return out;
+        }
+
+        @Override
+        public List<Cercana> masCercanas(String source, int k, Predicate<String> filtro) {
+            consultas.add(source + ":" + k + "?");
+            List<Cercana> out = new ArrayList<>();
+            List<String> ids = cercanas.getOrDefault(source, List.of());
+            for (int i = 0; i < ids.size() && out.size() < k; i++) {
+                if (filtro.test(ids.get(i))) {
+                    out.add(new Cercana(ids.get(i), i + 1.0));
+                }
+            }
+            return out;
+        }
+    }
+
+    private GrafoContado grafo;
+
+    @BeforeEach
+    void setUp() {
+        grafo = new GrafoContado();
+        grafo.cercanas.put("a", List.of("b", "c", "d", "e", "f"));
+        grafo.cercanas.put("b", List.of("a", "c"));
+        grafo.cercanas.put("c", List.of("d"));
+        grafo.cercanas.put("x", List.of("y", "z"));
+    }
+
+    @Test
+    @DisplayName("Descarta la usada hace más tiempo")
+    void testDescarteLRU() {
+        CacheCercanas cache = new CacheCercanas(grafo, 2, 2);
+        cache.masCercanas("a", 2);
+        cache.masCercanas("b", 2);
+        cache.masCercanas("a", 1); // "a" pasa a ser la más reciente
+        cache.masCercanas("c", 2); // sale "b"
+
+        assertEquals(2, cache.size());
+        grafo.consultas.clear();
+        cache.masCercanas("a", 2);
+        cache.masCercanas("c", 2);
+        assertTrue(grafo.consultas.isEmpty(), "a y c siguen en caché");
+
+        cache.masCercanas("b", 2);
+        assertEquals(List.of("b:2"), grafo.consultas);
+    }
+
+    @Test
+    @DisplayName("k mayor que el calculado vuelve al grafo")
+    void testKMayorRecalcula() {
+        CacheCercanas cache = new CacheCercanas(grafo, 10, 3);
+        assertEquals(List.of("b"), ids(cache.masCercanas("a", 1)));
+        assertEquals(List.of("a:3"), grafo.consultas, "Se calculan al menos 'vecinos' cercanas");
+
+        assertEquals(List.of("b", "c", "d"), ids(cache.masCercanas("a", 3)));
+        assertEquals(1, grafo.consultas.size());
+
+        assertEquals(List.of("b", "c", "d", "e"), ids(cache.masCercanas("a", 4)));
+        assertEquals(List.of("a:3", "a:4"), grafo.consultas);
+        assertEquals(List.of("b", "c"), ids(cache.masCercanas("a", 2)));
+        assertEquals(2, grafo.consultas.size());
+
+        // Una lista corta también se sirve de memoria
+        assertEquals(List.of("d"), ids(cache.masCercanas("c", 3)));
+        assertEquals(List.of("d"), ids(cache.masCercanas("c", 2)));
+        assertEquals(3, grafo.consultas.size());
+        assertTrue(cache.masCercanas("a", 0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Invalidar solo las entradas afectadas")
+    void testInvalidarSelectivo() {
+        CacheCercanas cache = new CacheCercanas(grafo, 10, 5);
+        for (String s : List.of("a", "b", "c", "x")) {
+            cache.masCercanas(s, 5);
+        }
+
+        // "e" solo está en la lista de "a"; "c" es semilla y vecina de "a" y "b"
+        cache.invalidar(Set.of("e"));
+        assertEquals(3, cache.size());
+        cache.invalidar(List.of("c"));
+        assertEquals(1, cache.size());
+
+        grafo.consultas.clear();
+        cache.masCercanas("x", 2);
+        assertTrue(grafo.consultas.isEmpty(), "x no tocaba canciones afectadas");
+        cache.masCercanas("a", 2);
+        cache.masCercanas("b", 2);
+        cache.masCercanas("c", 2);
+        assertEquals(List.of("a:5", "b:5", "c:5"), grafo.consultas);
+    }
+
+    @Test
+    @DisplayName("Cambiar de grafo conserva las entradas")
+    void testSetGrafoConserva() {
+        CacheCercanas cache = new CacheCercanas(grafo, 10, 2);
+        cache.masCercanas("a", 2);
+        cache.masCercanas("x", 2);
+
+        GrafoContado otro = new GrafoContado();
+        otro.cercanas.put("a", List.of("f", "e"));
+        otro.cercanas.put("x", List.of("z", "y"));
+        cache.invalidar(Set.of("b"));
+        cache.setGrafo(otro);
+
+        assertEquals(List.of("y", "z"), ids(cache.masCercanas("x", 2)), "x sobrevive al cambio");
+        assertEquals(List.of("f", "e"), ids(cache.masCercanas("a", 2)), "a se recalcula en el grafo nuevo");
+        assertEquals(List.of("a:2"), otro.consultas);
+    }
+
+    @Test
+    @DisplayName("El total de cercanas queda acotado")
+    void testTotalAcotado() {
+        CacheCercanas cache = new CacheCercanas(grafo, 3, 2); // hasta 6 cercanas
+        cache.masCercanas("b", 2);
+        cache.masCercanas("x", 2);
+        assertEquals(4, cache.totalCercanas());
+
+        cache.masCercanas("a", 4); // 4 más: sale "b", la usada hace más tiempo
+        assertEquals(2, cache.size());
+        assertEquals(6, cache.totalCercanas());
+
+        grafo.consultas.clear();
+        cache.masCercanas("x", 2);
+        cache.masCercanas("a", 4);
+        assertTrue(grafo.consultas.isEmpty(), "x y a siguen en caché");
+
+        // Una lista que no cabe ni sola se devuelve sin guardarla
+        grafo.cercanas.put("n", List.of("1", "2", "3", "4", "5", "6", "7"));
+        assertEquals(7, cache.masCercanas("n", 7).size());
+        assertEquals(2, cache.size());
+        assertEquals(6, cache.totalCercanas());
+
+        cache.invalidar(Set.of("x"));
+        assertEquals(4, cache.totalCercanas());
+        cache.clear();
+        assertEquals(0, cache.totalCercanas());
+    }
+
+    @Test
+    @DisplayName("Consultas con filtro")
+    void testFiltro() {
+        CacheCercanas cache = new CacheCercanas(grafo, 10, 3);
+        cache.masCercanas("a", 3); // b, c, d
+        cache.masCercanas("b", 3); // a, c (completa)
+        grafo.consultas.clear();
+
+        Set<String> playlist = Set.of("c", "d", "f");
+        assertEquals(List.of("c", "d"), ids(cache.masCercanas("a", 2, playlist::contains)));
+        assertEquals(List.of("c"), ids(cache.masCercanas("b", 2, playlist::contains)));
+        assertTrue(grafo.consultas.isEmpty(), "Salen de memoria");
+
+        assertEquals(List.of("c", "d", "f"), ids(cache.masCercanas("a", 3, playlist::contains)));
+        assertEquals(List.of("a:3?"), grafo.consultas);
+        assertEquals(2, cache.size());
+        assertEquals(5, cache.totalCercanas(), "La consulta filtrada no se guarda");
+        assertTrue(cache.masCercanas("a", 0, playlist::contains).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Capacidad o vecinos menores que 1 se rechazan")
+    void testParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new CacheCercanas(grafo, 0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new CacheCercanas(grafo, 5, 0));
+    }
+
+    private static List<String> ids(List<GrafoCercania.Cercana> cercanas) {
+        List<String> out = new ArrayList<>();
+        for (GrafoCercania.Cercana c : cercanas) {
+            out.add(c.id);
+        }
+        return out;
+    }
+}
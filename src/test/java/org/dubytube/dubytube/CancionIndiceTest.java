@@ -0,0 +1,217 @@
+package org.dubytube.dubytube;
+
+import org.dubytube.dubytube.domain.Cancion;
+import org.dubytube.dubytube.repo.CancionRepo;
+import org.dubytube.dubytube.services.CancionIndice;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el índice de títulos de canciones.
+ *
+ * <p>Cubre los siguientes casos:</p>
+ * <ul>
+ *   <li>Autocompletado por prefijo de título</li>
+ *   <li>Varias canciones con el mismo título (una sola entrada en el Trie)</li>
+ *   <li>Eliminación de canciones del índice</li>
+ * </ul>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+@DisplayName("Pruebas del Índice de Canciones")
+class CancionIndiceTest {
+
+    private CancionIndice indice;
+    private CancionRepo repo;
+
+    /** Carpeta temporal para el JSON del repositorio (no toca los datos reales). */
+    @TempDir
+    Path dir;
+
+    /**
+     * Configuración inicial antes de cada prueba.
+     * Crea un repositorio limpio con canciones de prueba.
+     */
+    @BeforeEach
+    void setUp() {
+        repo = new CancionRepo(dir.resolve("canciones.json"));
+
+        repo.save(new Cancion("idx1", "Intro", "The xx", "Indie", 2009, 128));
+        repo.save(new Cancion("idx2", "Intro", "M83", "Electronic", 2011, 332));
+        repo.save(new Cancion("idx3", "Intergalactic", "Beastie Boys", "Hip Hop", 1998, 231));
+
+        indice = new CancionIndice(repo);
+        indice.indexarExistentes();
+    }
+
+    /**
+     * RF-003: Verifica que los títulos repetidos devuelven todas sus canciones.
+     */
+    @Test
+    @DisplayName("Títulos duplicados devuelven todas las canciones")
+    void testTitulosDuplicados() {
+        List<Cancion> intro = indice.buscarTodasPorTituloExacto("intro");
+
+        assertEquals(2, intro.size(), "Ambas canciones 'Intro' deben estar indexadas");
+        assertEquals(3, indice.size(), "Deben indexarse 3 canciones");
+        assertEquals(3, indice.sugerirPorTitulo("int", 10).size(), "El prefijo debe devolver las 3 canciones");
+        assertEquals(2, indice.sugerirPorTitulo("int", 2).size(), "Debe respetar el límite de canciones");
+    }
+
+    /**
+     * RF-003: Verifica que indexar de nuevo no duplica canciones.
+     */
+    @Test
+    @DisplayName("Reindexar no duplica canciones")
+    void testReindexarNoDuplica() {
+        indice.indexarExistentes();
+
+        assertEquals(3, indice.size());
+        assertEquals(2, indice.buscarTodasPorTituloExacto("Intro").size());
+    }
+
+    /**
+     * RF-003: Verifica que el título solo sale del índice con su última canción.
+     */
+    @Test
+    @DisplayName("Eliminar una de dos canciones con el mismo título")
+    void testEliminarTituloDuplicado() {
+        assertTrue(indice.eliminarCancion(repo.find("idx1").orElseThrow()));
+
+        List<Cancion> intro = indice.buscarTodasPorTituloExacto("Intro");
+        assertEquals(1, intro.size(), "Debe quedar una canción 'Intro'");
+        assertEquals("idx2", intro.get(0).getId());
+
+        assertTrue(indice.eliminarCancion(repo.find("idx2").orElseThrow()));
+        assertNull(indice.buscarPorTituloExacto("Intro"), "El título ya no debe existir");
+        assertEquals(1, indice.size());
+    }
+
+    /**
+     * RF-003: Verifica que un título repetido cuenta una sola vez en el Trie:
+     * sin popularidad, "Intergalactic" e "Intro" empatan y manda el orden alfabético.
+     */
+    @Test
+    @DisplayName("Títulos duplicados no inflan la frecuencia del Trie")
+    void testTituloDuplicadoNoInflaFrecuencia() {
+        assertEquals("idx3", indice.sugerirPopulares("int", 3).get(0).getId());
+
+        repo.save(new Cancion("idx4", "Intro", "Alt-J", "Indie", 2012, 90));
+        assertEquals("idx3", indice.sugerirPopulares("int", 4).get(0).getId(),
+                "Una tercera 'Intro' tampoco debe adelantar el título");
+
+        assertTrue(indice.eliminarCancion(repo.find("idx4").orElseThrow()));
+        assertTrue(indice.eliminarCancion(repo.find("idx2").orElseThrow()));
+        assertTrue(indice.eliminarCancion(repo.find("idx1").orElseThrow()));
+        assertNull(indice.buscarPorTituloExacto("Intro"));
+        assertEquals(List.of("idx3"), indice.sugerirPopulares("in", 10).stream().map(Cancion::getId).toList());
+    }
+
+    /**
+     * RF-003: Verifica la búsqueda por subcadena en título, artista y género.
+     */
+    @Test
+    @DisplayName("Búsqueda por subcadena con índice de n-gramas")
+    void testBuscarPorSubcadena() {
+        assertEquals(Set.of("idx3"), ids(indice.buscarPorSubcadena("galac", 10)), "Subcadena en el título");
+        assertEquals(Set.of("idx1"), ids(indice.buscarPorSubcadena("xx", 10)), "Consulta corta en el artista");
+        assertEquals(Set.of("idx3"), ids(indice.buscarPorSubcadena("hip h", 10)), "Subcadena con espacio en el género");
+        assertEquals(Set.of("idx2", "idx3"), ids(indice.buscarPorSubcadena("ct", 10)),
+                "Bigrama presente en dos canciones");
+        assertTrue(indice.buscarPorSubcadena("intrx", 10).isEmpty(), "Sin coincidencias");
+
+        // Orden estable por título y luego ID, también al recortar
+        assertEquals(List.of("idx3", "idx1", "idx2"),
+                indice.buscarPorSubcadena("in", 10).stream().map(Cancion::getId).toList());
+        assertEquals(List.of("idx3", "idx1"),
+                indice.buscarPorSubcadena("in", 2).stream().map(Cancion::getId).toList());
+
+        assertTrue(indice.eliminarCancion(repo.find("idx3").orElseThrow()));
+        assertTrue(indice.buscarPorSubcadena("galac", 10).isEmpty(), "La canción eliminada no debe aparecer");
+    }
+
+    /**
+     * RF-003: Verifica que un título mal escrito aún encuentra la canción.
+     */
+    @Test
+    @DisplayName("Sugerencias con errores de tipeo")
+    void testSugerirConErrorDeTipeo() {
+        List<Cancion> sugerencias = indice.sugerirAproximado("Intergalatic", 10);
+
+        assertEquals(1, sugerencias.size(), "Debe encontrar el título a distancia 1");
+        assertEquals("idx3", sugerencias.get(0).getId());
+        assertEquals(2, indice.sugerirAproximado("Inrto", 10).size(), "Ambas canciones 'Intro'");
+
+        // Las búsquedas por prefijo siguen siendo exactas
+        assertTrue(indice.sugerirPorTitulo("Intergalatic", 10).isEmpty());
+        assertTrue(indice.sugerirPopulares("Intergalatic", 10).isEmpty());
+    }
+
+    /**
+     * RF-003: Verifica que el índice sigue los cambios del repositorio sin reindexar.
+     */
+    @Test
+    @DisplayName("Actualización incremental desde el repositorio")
+    void testActualizacionIncremental() {
+        repo.save(new Cancion("idx4", "Teardrop", "Massive Attack", "Trip Hop", 1998, 330));
+        assertEquals(1, indice.sugerirPorTitulo("tear", 10).size(), "El alta debe indexarse sola");
+
+        // Edición con cambio de título (nueva instancia, mismo ID)
+        repo.save(new Cancion("idx1", "Crystalised", "The xx", "Indie", 2009, 201));
+        assertEquals(1, indice.buscarTodasPorTituloExacto("Intro").size(), "Debe salir del título anterior");
+        assertEquals("idx1", indice.buscarPorTituloExacto("crystalised").getId());
+
+        // Edición de la misma instancia
+        Cancion c = repo.find("idx3").orElseThrow();
+        c.setTitulo("Sabotage");
+        repo.save(c);
+        assertNull(indice.buscarPorTituloExacto("Intergalactic"), "El título anterior ya no debe existir");
+        assertEquals(1, indice.sugerirPorTitulo("sabo", 10).size());
+
+        repo.delete("idx4");
+        assertNull(indice.buscarPorTituloExacto("Teardrop"), "La baja debe desindexarse sola");
+        assertEquals(3, indice.size());
+    }
+
+    /**
+     * Verifica que el snapshot binario restaura el índice y se invalida
+     * cuando cambia el catálogo.
+     */
+    @Test
+    @DisplayName("Snapshot del índice validado contra la versión del catálogo")
+    void testSnapshot(@TempDir Path dir) {
+        Path archivo = dir.resolve("indice.snapshot");
+        assertTrue(indice.guardarSnapshot(archivo, repo.getVersion()));
+
+        CancionIndice cargado = new CancionIndice(repo);
+        assertTrue(cargado.cargarSnapshot(archivo, repo.getVersion()));
+        assertEquals(3, cargado.size());
+        assertEquals(2, cargado.buscarTodasPorTituloExacto("Intro").size());
+        assertEquals("idx3", cargado.sugerirPorTitulo("inter", 10).get(0).getId());
+        assertEquals(Set.of("idx2"), ids(cargado.buscarPorSubcadena("m83", 10)));
+
+        // El índice cargado sigue los cambios del repositorio
+        repo.delete("idx3");
+        assertNull(cargado.buscarPorTituloExacto("Intergalactic"));
+
+        // Catálogo modificado: el snapshot ya no vale
+        CancionIndice otro = new CancionIndice(repo);
+        assertFalse(otro.cargarSnapshot(archivo, repo.getVersion()));
+        assertTrue(otro.isEmpty());
+    }
+
+    private static Set<String> ids(List<Cancion> canciones) {
+        Set<String> out = new HashSet<>();
+        canciones.forEach(c -> out.add(c.getId()));
+        return out;
+    }
+}
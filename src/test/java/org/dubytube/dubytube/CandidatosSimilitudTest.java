@@ -0,0 +1,355 @@
+package org.dubytube.dubytube;
+
+import org.dubytube.dubytube.domain.Cancion;
+import org.dubytube.dubytube.ds.CandidatosSimilitud;
+import org.dubytube.dubytube.ds.GrafoSimilitud;
+import org.dubytube.dubytube.ds.VecinosCercanos;
+import org.dubytube.dubytube.services.MotorSimilitud;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del generador de pares candidatos.
+ *
+ * <p>Cubre los siguientes casos:</p>
+ * <ul>
+ *   <li>Pares por bloques iguales a los de fuerza bruta, cada uno una sola vez,
+ *       con la misma regla de mayúsculas que el puntuador</li>
+ *   <li>Ventanas de año y duración</li>
+ *   <li>Índice mutable de bloques: candidatas tras agregar, editar y quitar</li>
+ *   <li>Género cortado por año: pares y candidatas iguales a fuerza bruta,
+ *       pares lineales en un catálogo de un solo género y los mismos k
+ *       vecinos que con el género entero</li>
+ *   <li>Construcción en paralelo igual a la secuencial, en el mismo orden</li>
+ * </ul>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+@DisplayName("Pruebas de CandidatosSimilitud")
+class CandidatosSimilitudTest {
+
+    // "İlhan"/"ilhan" y "ΣΟΥΣ"/"σουσ" son iguales para equalsIgnoreCase
+    // pero no para toLowerCase
+    private static final String[] ARTISTAS = {"Queen", "QUEEN", "Adele", "Björk", "BJÖRK", "İlhan", "ilhan", null};
+    private static final String[] GENEROS = {"Rock", "rock", "Pop", "Clásica", "ΣΟΥΣ", "σουσ", null};
+
+    private List<Cancion> canciones;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(5);
+        canciones = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            canciones.add(new Cancion("id" + i, "Tema " + i,
+                    ARTISTAS[random.nextInt(ARTISTAS.length)],
+                    GENEROS[random.nextInt(GENEROS.length)],
+                    1950 + random.nextInt(70), 120 + random.nextInt(300)));
+        }
+    }
+
+    @Test
+    @DisplayName("Por artista o género igual a fuerza bruta")
+    void testPorArtistaOGenero() {
+        verificarContraFuerzaBruta(CandidatosSimilitud.porArtistaOGenero(), true, true,
+                CandidatosSimilitud.SIN_VENTANA, CandidatosSimilitud.SIN_VENTANA);
+    }
+
+    @Test
+    @DisplayName("Con ventanas de año y duración igual a fuerza bruta")
+    void testConVentanas() {
+        verificarContraFuerzaBruta(new CandidatosSimilitud(false, true, 2, 10), false, true, 2, 10);
+    }
+
+    /**
+     * Las candidatas del índice mutable son las de fuerza bruta sobre el
+     * catálogo indexado, también tras editar una canción en el lugar.
+     */
+    @Test
+    @DisplayName("Índice mutable de bloques")
+    void testIndiceBloques() {
+        CandidatosSimilitud candidatos = CandidatosSimilitud.porArtistaOGenero();
+        CandidatosSimilitud.IndiceBloques indice = candidatos.nuevoIndice();
+        for (Cancion c : canciones) {
+            indice.agregar(c);
+        }
+        assertEquals(canciones.size(), indice.size());
+
+        Cancion editada = canciones.get(0);
+        editada.setArtista("Nadie Más");
+        editada.setGenero("Tango");
+        indice.agregar(editada);
+        assertTrue(indice.candidatas(editada.getId()).isEmpty());
+
+        assertTrue(indice.quitar("id1"));
+        assertFalse(indice.quitar("id1"));
+        assertNull(indice.get("id1"));
+        // id0 sigue indexada pero ya no comparte bloques; id1 salió
+        List<Cancion> vivas = canciones.subList(2, canciones.size());
+
+        for (Cancion c : vivas) {
+            Set<String> esperadas = new HashSet<>();
+            for (Cancion otra : vivas) {
+                if (otra != c && seEmparejan(c, otra, true, true,
+                        CandidatosSimilitud.SIN_VENTANA, CandidatosSimilitud.SIN_VENTANA)) {
+                    esperadas.add(otra.getId());
+                }
+            }
+            Set<String> obtenidas = new HashSet<>();
+            for (Cancion otra : indice.candidatas(c.getId())) {
+                assertTrue(obtenidas.add(otra.getId()), "Candidata repetida: " + otra.getId());
+            }
+            assertEquals(esperadas, obtenidas, "Candidatas de " + c.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Género cortado por año igual a fuerza bruta")
+    void testGeneroCercanoIgualAFuerzaBruta() {
+        int m = 3;
+        verificarContraFuerzaBruta(CandidatosSimilitud.porArtistaYGeneroCercano(m), canciones,
+                generoCercano(canciones, m));
+
+        // Pocos años: muchos empates por año que se desempatan por ID
+        List<Cancion> densas = cancionesDeGenero(400, 5, 13);
+        verificarContraFuerzaBruta(CandidatosSimilitud.porArtistaYGeneroCercano(m), densas,
+                generoCercano(densas, m));
+    }
+
+    /**
+     * Las candidatas del índice mutable con el género cortado por año son las
+     * de fuerza bruta, también tras quitar canciones y editar su año (lo que
+     * cambia las cercanas de sus vecinas).
+     */
+    @Test
+    @DisplayName("Índice mutable con el género cortado por año")
+    void testIndiceGeneroCercano() {
+        int m = 3;
+        List<Cancion> vivas = new ArrayList<>(cancionesDeGenero(150, 8, 17));
+        vivas.addAll(canciones.subList(0, 150));
+        CandidatosSimilitud.IndiceBloques indice = CandidatosSimilitud.porArtistaYGeneroCercano(m).nuevoIndice();
+        for (Cancion c : vivas) {
+            indice.agregar(c);
+        }
+
+        Random random = new Random(23);
+        for (int op = 0; op < 40; op++) {
+            Cancion c = vivas.get(random.nextInt(vivas.size()));
+            if (op % 3 == 0) {
+                indice.quitar(c.getId());
+                vivas.remove(c);
+            } else {
+                c.setAnio(1990 + random.nextInt(8));
+                indice.agregar(c);
+            }
+        }
+
+        BiPredicate<Cancion, Cancion> seEmparejan = generoCercano(vivas, m);
+        for (Cancion c : vivas) {
+            Set<String> esperadas = new HashSet<>();
+            for (Cancion otra : vivas) {
+                if (otra != c && seEmparejan.test(c, otra)) {
+                    esperadas.add(otra.getId());
+                }
+            }
+            Set<String> obtenidas = new HashSet<>();
+            for (Cancion otra : indice.candidatas(c.getId())) {
+                assertTrue(obtenidas.add(otra.getId()), "Candidata repetida: " + otra.getId());
+            }
+            assertEquals(esperadas, obtenidas, "Candidatas de " + c.getId());
+        }
+    }
+
+    /**
+     * En un catálogo de un solo género con artistas distintos, el género
+     * entero da n(n-1)/2 pares; cortado por año, entre n · m / 2 y n · m
+     * (más los pocos de artista repetido) para cualquier n.
+     */
+    @Test
+    @DisplayName("Pares lineales en un catálogo de un solo género")
+    void testParesLinealesEnUnGenero() {
+        int m = 10;
+        CandidatosSimilitud candidatos = CandidatosSimilitud.porArtistaYGeneroCercano(m);
+        for (int n = 1000; n <= 16000; n *= 2) {
+            List<Cancion> catalogo = cancionesDeGenero(n, 70, n);
+            AtomicInteger pares = new AtomicInteger();
+            AtomicInteger porArtista = new AtomicInteger();
+            candidatos.paraCadaPar(catalogo, (a, b) -> {
+                pares.incrementAndGet();
+                if (a.getArtista().equals(b.getArtista())) {
+                    porArtista.incrementAndGet();
+                }
+            });
+
+            assertTrue(pares.get() >= (long) n * m / 2, "Cada canción tiene sus m cercanas");
+            assertTrue(pares.get() <= (long) n * m + porArtista.get(), "n = " + n + ": " + pares.get() + " pares");
+        }
+    }
+
+    /**
+     * Con el motor (k vecinos de distancia menor a 1.0), cortar el género por
+     * año no cambia ninguna lista de vecinos.
+     */
+    @Test
+    @DisplayName("Mismos k vecinos que con el género entero")
+    void testMismosVecinosQueGeneroEntero() {
+        int k = 4;
+        for (List<Cancion> catalogo : List.of(canciones, cancionesDeGenero(400, 5, 29))) {
+            GrafoSimilitud entero = vecinosCercanos(CandidatosSimilitud.porArtistaOGenero(), catalogo, k);
+            GrafoSimilitud cortado = vecinosCercanos(CandidatosSimilitud.porArtistaYGeneroCercano(k), catalogo, k);
+            for (Cancion c : catalogo) {
+                assertEquals(new HashSet<>(entero.vecinos(c.getId())), new HashSet<>(cortado.vecinos(c.getId())),
+                        "Vecinos de " + c.getId());
+            }
+        }
+    }
+
+    /** Grafo de k vecinos con los pares de distancia menor a 1.0. */
+    private static GrafoSimilitud vecinosCercanos(CandidatosSimilitud candidatos, List<Cancion> catalogo, int k) {
+        VecinosCercanos vecinos = new VecinosCercanos(k);
+        candidatos.paraCadaPar(catalogo, (a, b) -> {
+            double d = MotorSimilitud.distanciaHeuristica(a, b);
+            if (d < 1.0) {
+                vecinos.ofrecer(a.getId(), b.getId(), d);
+            }
+        });
+        GrafoSimilitud grafo = new GrafoSimilitud();
+        vecinos.volcarEn(grafo);
+        return grafo;
+    }
+
+    /** Canciones de un mismo género con artistas casi todos distintos. */
+    private static List<Cancion> cancionesDeGenero(int n, int anios, long semilla) {
+        Random random = new Random(semilla);
+        List<Cancion> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(new Cancion("g" + i, "Tema " + i, "Artista " + random.nextInt(n),
+                    random.nextBoolean() ? "Rock" : "ROCK", 1990 + random.nextInt(anios), 200));
+        }
+        return out;
+    }
+
+    /**
+     * Criterio del género cortado por año evaluado par por par: mismo
+     * artista, o una entre las m primeras de la otra en orden (diferencia
+     * de años, ID) dentro de su género y a menos de 40 años.
+     */
+    private static BiPredicate<Cancion, Cancion> generoCercano(List<Cancion> catalogo, int m) {
+        Map<String, Set<String>> cercanas = new HashMap<>();
+        for (Cancion a : catalogo) {
+            List<Cancion> mismoGenero = new ArrayList<>();
+            for (Cancion b : catalogo) {
+                if (b != a && igualSinMayusculas(a.getGenero(), b.getGenero())
+                        && Math.abs(a.getAnio() - b.getAnio()) < 40) {
+                    mismoGenero.add(b);
+                }
+            }
+            mismoGenero.sort(Comparator.comparingInt((Cancion b) -> Math.abs(a.getAnio() - b.getAnio()))
+                    .thenComparing(Cancion::getId));
+            Set<String> ids = new HashSet<>();
+            for (Cancion b : mismoGenero.subList(0, Math.min(m, mismoGenero.size()))) {
+                ids.add(b.getId());
+            }
+            cercanas.put(a.getId(), ids);
+        }
+        return (a, b) -> igualSinMayusculas(a.getArtista(), b.getArtista())
+                || cercanas.get(a.getId()).contains(b.getId())
+                || cercanas.get(b.getId()).contains(a.getId());
+    }
+
+    /**
+     * Con más canciones que el mínimo para repartir entre hilos, las aristas
+     * llegan al destino en el mismo orden que recorriendo los pares en un
+     * solo hilo, y los pesos NaN se descartan.
+     */
+    @Test
+    @DisplayName("Paralelo igual a secuencial y en el mismo orden")
+    void testParaleloIgualASecuencial() {
+        Random random = new Random(11);
+        List<Cancion> muchas = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            muchas.add(new Cancion("p" + i, "Tema " + i,
+                    "Artista " + random.nextInt(200),
+                    GENEROS[random.nextInt(GENEROS.length)],
+                    1950 + random.nextInt(70), 200));
+        }
+        CandidatosSimilitud candidatos = CandidatosSimilitud.porArtistaOGenero();
+
+        List<String> secuencial = new ArrayList<>();
+        candidatos.paraCadaPar(muchas, (a, b) -> {
+            if (!descartar(a, b)) {
+                secuencial.add(a.getId() + "|" + b.getId() + "|" + MotorSimilitud.distanciaHeuristica(a, b));
+            }
+        });
+
+        List<String> paralelo = new ArrayList<>();
+        AtomicInteger filas = new AtomicInteger();
+        candidatos.paraCadaParParalelo(muchas,
+                (a, b) -> descartar(a, b) ? Double.NaN : MotorSimilitud.distanciaHeuristica(a, b),
+                (a, b, peso) -> paralelo.add(a.getId() + "|" + b.getId() + "|" + peso),
+                (hechas, totales) -> filas.accumulateAndGet(hechas, Math::max));
+
+        assertFalse(secuencial.isEmpty());
+        assertEquals(secuencial, paralelo);
+        assertEquals(muchas.size(), filas.get());
+    }
+
+    /** Descarta una parte de los pares para probar los pesos NaN. */
+    private static boolean descartar(Cancion a, Cancion b) {
+        return (a.getId().hashCode() ^ b.getId().hashCode()) % 7 == 0;
+    }
+
+    private void verificarContraFuerzaBruta(CandidatosSimilitud candidatos, boolean porArtista,
+                                            boolean porGenero, int ventanaAnios, int ventanaDuracion) {
+        verificarContraFuerzaBruta(candidatos, canciones,
+                (a, b) -> seEmparejan(a, b, porArtista, porGenero, ventanaAnios, ventanaDuracion));
+    }
+
+    private static void verificarContraFuerzaBruta(CandidatosSimilitud candidatos, List<Cancion> catalogo,
+                                                   BiPredicate<Cancion, Cancion> seEmparejan) {
+        Set<String> esperados = new HashSet<>();
+        for (int i = 0; i < catalogo.size(); i++) {
+            for (int j = i + 1; j < catalogo.size(); j++) {
+                Cancion a = catalogo.get(i);
+                Cancion b = catalogo.get(j);
+                if (seEmparejan.test(a, b)) {
+                    esperados.add(par(a, b));
+                }
+            }
+        }
+
+        Set<String> obtenidos = new HashSet<>();
+        candidatos.paraCadaPar(catalogo, (a, b) ->
+                assertTrue(obtenidos.add(par(a, b)), "Par repetido: " + par(a, b)));
+        assertEquals(esperados, obtenidos);
+    }
+
+    /** Criterio de los bloques evaluado par por par (ventana negativa = desactivada). */
+    private static boolean seEmparejan(Cancion a, Cancion b, boolean porArtista, boolean porGenero,
+                                       int ventanaAnios, int ventanaDuracion) {
+        if (porArtista && igualSinMayusculas(a.getArtista(), b.getArtista())) return true;
+        if (porGenero && igualSinMayusculas(a.getGenero(), b.getGenero())) return true;
+        if (ventanaAnios >= 0 && Math.abs(a.getAnio() - b.getAnio()) <= ventanaAnios) return true;
+        return ventanaDuracion >= 0 && Math.abs(a.getDuracionSeg() - b.getDuracionSeg()) <= ventanaDuracion;
+    }
+
+    /** Misma equivalencia que el puntuador. */
+    private static boolean igualSinMayusculas(String x, String y) {
+        return x != null && x.equalsIgnoreCase(y);
+    }
+
+    /** Par sin orden, para comparar conjuntos. */
+    private static String par(Cancion a, Cancion b) {
+        return a.getId().compareTo(b.getId()) < 0
+                ? a.getId() + "|" + b.getId()
+                : b.getId() + "|" + a.getId();
+    }
+}
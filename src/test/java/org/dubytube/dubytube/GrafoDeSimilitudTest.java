@@ -0,0 +1,128 @@
+package org.dubytube.dubytube;
+
+import org.dubytube.dubytube.domain.Cancion;
+import org.dubytube.dubytube.ds.GrafoDeSimilitud;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del grafo de similitud por canciones (pesos 0-100).
+ *
+ * <p>Cubre los siguientes casos:</p>
+ * <ul>
+ *   <li>Reconectar reemplaza el peso sin duplicar la arista</li>
+ *   <li>Eliminar una canción quita también las aristas inversas</li>
+ *   <li>La similitud automática es {@code Cancion.calcularSimilitud} redondeada</li>
+ *   <li>La construcción con umbral da las mismas aristas que fuerza bruta,
+ *       para umbrales a ambos lados de cada salto de los pesos</li>
+ * </ul>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+@DisplayName("Pruebas de GrafoDeSimilitud")
+class GrafoDeSimilitudTest {
+
+    private GrafoDeSimilitud grafo;
+    private Cancion a;
+    private Cancion b;
+    private Cancion c;
+
+    @BeforeEach
+    void setUp() {
+        grafo = new GrafoDeSimilitud();
+        a = new Cancion("a", "Uno", "Queen", "Rock", 1980, 200);
+        b = new Cancion("b", "Dos", "QUEEN", "Rock", 1982, 210);
+        c = new Cancion("c", "Tres", "Adele", "Pop", 2015, 230);
+    }
+
+    @Test
+    @DisplayName("Reconectar reemplaza el peso")
+    void testConectarIdempotente() {
+        grafo.conectar(a, b, 40);
+        grafo.conectar(a, b, 70);
+        grafo.conectar(b, a, 70);
+
+        assertEquals(1, grafo.contarAristas());
+        assertEquals(1, grafo.getGrado(a));
+        assertEquals(70, grafo.getSimilitud(a, b));
+        assertEquals(70, grafo.getSimilitud(b, a));
+        assertEquals(-1, grafo.getSimilitud(a, c));
+    }
+
+    @Test
+    @DisplayName("Eliminar una canción quita sus aristas inversas")
+    void testEliminarCancion() {
+        grafo.conectar(a, b, 50);
+        grafo.conectar(a, c, 20);
+        grafo.conectar(b, c, 30);
+
+        assertTrue(grafo.eliminarCancion(a));
+        assertFalse(grafo.eliminarCancion(a));
+        assertEquals(1, grafo.contarAristas());
+        assertEquals(1, grafo.getGrado(b));
+        assertFalse(grafo.estanConectadas(b, a));
+        assertEquals(30, grafo.getSimilitud(c, b));
+    }
+
+    @Test
+    @DisplayName("Similitud automática igual a calcularSimilitud")
+    void testSimilitudAutomatica() {
+        grafo.conectarConSimilitudAutomatica(a, b);
+        grafo.conectarConSimilitudAutomatica(a, c);
+        assertEquals(Math.round(a.calcularSimilitud(b)), grafo.getSimilitud(a, b));
+        assertEquals(89, grafo.getSimilitud(a, b), "Género 40 + artista 30 + año 12 + duración 6.7");
+        assertEquals(0, grafo.getSimilitud(a, c));
+    }
+
+    /**
+     * Los bloques de candidatos dependen del umbral (más de 30, más de 10,
+     * más de 0), así que se prueban umbrales a ambos lados de cada salto.
+     */
+    @Test
+    @DisplayName("Construcción con umbral igual a fuerza bruta")
+    void testConstruirConUmbral() {
+        String[] artistas = {"Queen", "queen", "Adele", null};
+        String[] generos = {"Rock", "Pop", "ROCK", null};
+        Random random = new Random(9);
+        List<Cancion> canciones = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            canciones.add(new Cancion("s" + i, "Tema " + i,
+                    artistas[random.nextInt(artistas.length)], generos[random.nextInt(generos.length)],
+                    1970 + random.nextInt(50), 180 + random.nextInt(60)));
+        }
+
+        for (int umbral : new int[]{0, 1, 10, 11, 30, 31, 45}) {
+            verificarUmbral(canciones, umbral);
+        }
+    }
+
+    private void verificarUmbral(List<Cancion> canciones, int umbral) {
+        grafo.clear();
+        grafo.construirGrafoCompleto(canciones, umbral);
+
+        int esperadas = 0;
+        for (int i = 0; i < canciones.size(); i++) {
+            for (int j = i + 1; j < canciones.size(); j++) {
+                Cancion x = canciones.get(i);
+                Cancion y = canciones.get(j);
+                int s = (int) Math.round(x.calcularSimilitud(y));
+                if (s >= umbral) {
+                    esperadas++;
+                    assertEquals(s, grafo.getSimilitud(x, y), "Umbral " + umbral);
+                } else {
+                    assertFalse(grafo.estanConectadas(x, y), "Umbral " + umbral);
+                }
+            }
+        }
+        assertEquals(esperadas, grafo.contarAristas(), "Umbral " + umbral);
+    }
+}
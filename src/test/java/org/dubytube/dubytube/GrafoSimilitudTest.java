@@ -0,0 +1,254 @@
+package org.dubytube.dubytube;
+
+import org.dubytube.dubytube.ds.GrafoCSR;
+import org.dubytube.dubytube.ds.GrafoCercania;
+import org.dubytube.dubytube.ds.GrafoSimilitud;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del grafo de similitud.
+ *
+ * <p>Cubre los siguientes casos:</p>
+ * <ul>
+ *   <li>Búsqueda acotada de las k más cercanas igual a Dijkstra completo</li>
+ *   <li>k mayor que las canciones alcanzables</li>
+ *   <li>Canción inexistente o k no positivo</li>
+ *   <li>Con filtro, las primeras k que lo cumplen según Dijkstra completo</li>
+ *   <li>La copia compacta (CSR) da las mismas cercanas que el grafo mutable</li>
+ *   <li>La copia compacta no cambia al modificar el grafo mutable</li>
+ *   <li>Una canción eliminada no vuelve a aparecer y su vértice se reutiliza</li>
+ * </ul>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+@DisplayName("Pruebas del Grafo de Similitud")
+class GrafoSimilitudTest {
+
+    private GrafoSimilitud grafo;
+
+    /**
+     * Grafo al azar de 300 canciones con varias componentes y distancias
+     * repetidas, para que haya empates.
+     */
+    @BeforeEach
+    void setUp() {
+        grafo = new GrafoSimilitud();
+        Random random = new Random(21);
+        for (int i = 0; i < 300; i++) {
+            grafo.agregarCancion("c" + i);
+        }
+        for (int e = 0; e < 900; e++) {
+            int a = random.nextInt(300);
+            int b = random.nextInt(300);
+            // Las últimas 20 canciones quedan en su propia componente
+            if (a != b && (a >= 280) == (b >= 280)) {
+                grafo.agregarSimilitud("c" + a, "c" + b, 0.05 + random.nextInt(20) / 20.0);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Más cercanas acotado igual a Dijkstra completo")
+    void testMasCercanasIgualADijkstra() {
+        for (int s = 0; s < 300; s += 7) {
+            String origen = "c" + s;
+            Map<String, Double> dist = grafo.dijkstra(origen);
+            List<Double> esperadas = ordenadasSinOrigen(dist, origen);
+
+            for (int k : new int[]{1, 5, 20}) {
+                List<GrafoCercania.Cercana> cercanas = grafo.masCercanas(origen, k);
+                assertEquals(Math.min(k, esperadas.size()), cercanas.size());
+                for (int i = 0; i < cercanas.size(); i++) {
+                    GrafoCercania.Cercana c = cercanas.get(i);
+                    assertNotEquals(origen, c.id);
+                    assertEquals(esperadas.get(i), c.distancia, 1e-12, "Posición " + i + " desde " + origen);
+                    assertEquals(dist.get(c.id), c.distancia, 1e-12, "Distancia de " + c.id);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("k mayor que las alcanzables")
+    void testKMayorQueAlcanzables() {
+        String origen = "c290"; // componente de 20 canciones
+        Map<String, Double> dist = grafo.dijkstra(origen);
+        List<Double> esperadas = ordenadasSinOrigen(dist, origen);
+
+        List<GrafoCercania.Cercana> cercanas = grafo.masCercanas(origen, 1000);
+        assertEquals(esperadas.size(), cercanas.size());
+        assertTrue(cercanas.size() < 20);
+        for (GrafoCercania.Cercana c : cercanas) {
+            assertTrue(Integer.parseInt(c.id.substring(1)) >= 280, "Fuera de la componente: " + c.id);
+        }
+    }
+
+    /**
+     * Con filtro las demás canciones siguen sirviendo de camino: el
+     * resultado son las primeras k que lo cumplen en el orden de Dijkstra.
+     */
+    @Test
+    @DisplayName("Más cercanas con filtro")
+    void testMasCercanasConFiltro() {
+        Set<String> playlist = new HashSet<>();
+        for (int i = 0; i < 300; i += 9) {
+            playlist.add("c" + i);
+        }
+        GrafoCSR csr = grafo.compactar();
+        for (int s = 0; s < 300; s += 11) {
+            String origen = "c" + s;
+            List<Double> esperadas = new ArrayList<>();
+            for (GrafoCercania.Cercana c : grafo.masCercanas(origen, 300)) {
+                if (playlist.contains(c.id)) {
+                    esperadas.add(c.distancia);
+                }
+            }
+            for (int k : new int[]{1, 3, 10}) {
+                List<GrafoCercania.Cercana> cercanas = grafo.masCercanas(origen, k, playlist::contains);
+                List<GrafoCercania.Cercana> compactas = csr.masCercanas(origen, k, playlist::contains);
+                assertEquals(Math.min(k, esperadas.size()), cercanas.size(), "Cantidad desde " + origen);
+                assertEquals(cercanas.size(), compactas.size());
+                for (int i = 0; i < cercanas.size(); i++) {
+                    assertTrue(playlist.contains(cercanas.get(i).id));
+                    assertTrue(playlist.contains(compactas.get(i).id));
+                    assertEquals(esperadas.get(i), cercanas.get(i).distancia, 1e-12);
+                    assertEquals(esperadas.get(i), compactas.get(i).distancia, 1e-5);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Canción inexistente o k no positivo")
+    void testCasosVacios() {
+        assertTrue(grafo.masCercanas("no-existe", 5).isEmpty());
+        assertTrue(grafo.masCercanas("c0", 0).isEmpty());
+        assertTrue(grafo.recomendarDesde("no-existe", 5).isEmpty());
+    }
+
+    /**
+     * Las cercanas de la copia compacta coinciden con las del grafo
+     * mutable. Los pesos se guardan como float, así que las distancias se
+     * comparan con tolerancia; con empates los IDs pueden cambiar de lugar.
+     */
+    @Test
+    @DisplayName("Copia CSR igual al grafo mutable")
+    void testCompactoIgualAMutable() {
+        GrafoCSR csr = grafo.compactar();
+        assertEquals(300, csr.size());
+
+        int aristas = 0;
+        for (int i = 0; i < 300; i++) {
+            aristas += grafo.vecinos("c" + i).size();
+        }
+        assertEquals(aristas, csr.contarAristas()); // dirigidas: dos por similitud
+
+        for (int s = 0; s < 300; s += 3) {
+            String origen = "c" + s;
+            Map<String, Double> dist = grafo.dijkstra(origen);
+            List<GrafoCercania.Cercana> esperadas = grafo.masCercanas(origen, 15);
+            List<GrafoCercania.Cercana> cercanas = csr.masCercanas(origen, 15);
+
+            assertEquals(esperadas.size(), cercanas.size(), "Cantidad desde " + origen);
+            for (int i = 0; i < cercanas.size(); i++) {
+                assertEquals(esperadas.get(i).distancia, cercanas.get(i).distancia, 1e-5,
+                        "Posición " + i + " desde " + origen);
+                assertEquals(dist.get(cercanas.get(i).id), cercanas.get(i).distancia, 1e-5,
+                        "Distancia de " + cercanas.get(i).id);
+            }
+        }
+        assertTrue(csr.masCercanas("no-existe", 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("La copia CSR es independiente del grafo mutable")
+    void testCompactoInmutable() {
+        GrafoCSR csr = grafo.compactar();
+        List<GrafoCercania.Cercana> antes = csr.masCercanas("c0", 10);
+        int aristas = csr.contarAristas();
+
+        grafo.quitarAristas("c0");
+        grafo.agregarSimilitud("c0", "c299", 0.01);
+
+        assertEquals(aristas, csr.contarAristas());
+        List<GrafoCercania.Cercana> despues = csr.masCercanas("c0", 10);
+        assertEquals(antes.size(), despues.size());
+        for (int i = 0; i < antes.size(); i++) {
+            assertEquals(antes.get(i).id, despues.get(i).id);
+        }
+        assertEquals("c299", grafo.masCercanas("c0", 1).get(0).id);
+    }
+
+    @Test
+    @DisplayName("Eliminar una canción la saca del grafo y de la copia CSR")
+    void testEliminarCancion() {
+        List<String> vecinosDeC0 = grafo.vecinos("c0");
+        assertEquals(vecinosDeC0.size(), grafo.eliminarCancion("c0").size());
+        for (int i = 1; i < 10; i++) {
+            grafo.eliminarCancion("c" + i);
+        }
+        assertTrue(grafo.eliminarCancion("c0").isEmpty());
+        assertEquals(290, grafo.size());
+
+        for (int s = 10; s < 300; s += 7) {
+            String origen = "c" + s;
+            Map<String, Double> dist = grafo.dijkstra(origen);
+            assertEquals(290, dist.size());
+            for (String v : grafo.vecinos(origen)) {
+                assertTrue(Integer.parseInt(v.substring(1)) >= 10, "Vecino eliminado: " + v);
+            }
+            for (GrafoCercania.Cercana c : grafo.masCercanas(origen, 300)) {
+                assertTrue(dist.containsKey(c.id), "Cercana eliminada: " + c.id);
+            }
+        }
+        assertFalse(grafo.dijkstra("c0").containsKey("c0"));
+        assertTrue(grafo.masCercanas("c0", 5).isEmpty());
+
+        GrafoCSR csr = grafo.compactar();
+        assertEquals(290, csr.size());
+        assertTrue(csr.masCercanas("c0", 5).isEmpty());
+        for (int s = 10; s < 300; s += 3) {
+            String origen = "c" + s;
+            List<GrafoCercania.Cercana> esperadas = grafo.masCercanas(origen, 15);
+            List<GrafoCercania.Cercana> cercanas = csr.masCercanas(origen, 15);
+            assertEquals(esperadas.size(), cercanas.size(), "Cantidad desde " + origen);
+            for (int i = 0; i < cercanas.size(); i++) {
+                assertEquals(esperadas.get(i).distancia, cercanas.get(i).distancia, 1e-5);
+            }
+        }
+
+        // Las nuevas ocupan los vértices libres
+        for (int i = 0; i < 10; i++) {
+            grafo.agregarSimilitud("n" + i, "c" + (100 + i), 0.01);
+        }
+        assertEquals(300, grafo.size());
+        assertEquals(300, grafo.compactar().size());
+        assertEquals("n0", grafo.masCercanas("c100", 1).get(0).id);
+        assertTrue(grafo.vecinos("n0").contains("c100"));
+    }
+
+    /** Distancias finitas ordenadas, sin la del origen. */
+    private static List<Double> ordenadasSinOrigen(Map<String, Double> dist, String origen) {
+        List<Double> out = new ArrayList<>();
+        for (Map.Entry<String, Double> e : dist.entrySet()) {
+            if (!e.getKey().equals(origen) && !e.getValue().isInfinite()) {
+                out.add(e.getValue());
+            }
+        }
+        out.sort(null);
+        return out;
+    }
+}
@@ -2,11 +2,15 @@ package org.dubytube.dubytube;
 
 import org.dubytube.dubytube.domain.Usuario;
 import org.dubytube.dubytube.ds.GrafoSocial;
+import org.dubytube.dubytube.repo.AmistadRepo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 
-import java.util.Set;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,6 +24,8 @@ import static org.junit.jupiter.api.Assertions.*;
  *   <li>Verificar relaciones de amistad</li>
  *   <li>Eliminar amistades</li>
  *   <li>Encontrar amigos de amigos (BFS)</li>
+ *   <li>Distancias, caminos y componentes (BFS y union-find)</li>
+ *   <li>Persistencia de amistades (snapshot + diario)</li>
  * </ul>
  * 
  * @author DubyTube Team
@@ -174,4 +180,208 @@ class GrafoSocialTest {
         Set<Usuario> amigos = grafo.getAmigos(usuario1);
         assertEquals(1, amigos.size(), "usuario1 debe tener solo 1 amigo (sin duplicados)");
     }
+
+    /**
+     * RF-024: Verifica distancias, caminos y componentes, también después de
+     * eliminar un usuario y reutilizar su lugar en el grafo.
+     */
+    @Test
+    @DisplayName("Distancia, camino y componentes tras eliminar usuarios")
+    void testRecorridosTrasEliminarUsuario() {
+        grafo.agregarAmistad(usuario1, usuario2);
+        grafo.agregarAmistad(usuario2, usuario3);
+        grafo.agregarAmistad(usuario3, usuario4);
+
+        assertEquals(3, grafo.calcularDistancia(usuario1, usuario4));
+        assertEquals(List.of(usuario1, usuario2, usuario3, usuario4), grafo.encontrarCamino(usuario1, usuario4));
+        assertTrue(grafo.esConexo());
+
+        assertTrue(grafo.eliminarUsuario(usuario2));
+        assertEquals(3, grafo.size());
+        assertEquals(1, grafo.contarAmistades());
+        assertFalse(grafo.sonAmigos(usuario1, usuario2));
+        assertEquals(-1, grafo.calcularDistancia(usuario1, usuario4));
+        assertTrue(grafo.encontrarCamino(usuario1, usuario4).isEmpty());
+        assertEquals(2, grafo.contarComponentes());
+
+        // Un usuario nuevo ocupa el lugar libre sin heredar amistades
+        Usuario usuario5 = new Usuario("user5", "pass5", "Usuario 5");
+        grafo.agregarUsuario(usuario5);
+        assertEquals(0, grafo.contarAmigos(usuario5));
+        grafo.agregarAmistad(usuario5, usuario1);
+        grafo.agregarAmistad(usuario5, usuario4);
+        assertEquals(List.of(usuario1, usuario5, usuario4), grafo.encontrarCamino(usuario1, usuario4));
+        assertEquals(Set.of(usuario3), grafo.encontrarAmigosDeAmigos(usuario5));
+        assertEquals(1, grafo.contarComponentes());
+    }
+
+    /**
+     * RF-024: Verifica que las sugerencias traen los amigos en común, vienen
+     * ordenadas y respetan el límite.
+     */
+    @Test
+    @DisplayName("Sugerencias de amigos con amigos en común")
+    void testSugerirAmigos() {
+        Usuario usuario5 = new Usuario("user5", "pass5", "Usuario 5");
+        // user1 sigue a user2 y user3; user4 comparte ambos, user5 solo user3
+        grafo.agregarAmistad(usuario1, usuario2);
+        grafo.agregarAmistad(usuario1, usuario3);
+        grafo.agregarAmistad(usuario2, usuario4);
+        grafo.agregarAmistad(usuario3, usuario4);
+        grafo.agregarAmistad(usuario3, usuario5);
+
+        List<GrafoSocial.Sugerencia> sugerencias = grafo.sugerirAmigos(usuario1, 5);
+        assertEquals(2, sugerencias.size());
+        assertEquals(usuario4, sugerencias.get(0).usuario);
+        assertEquals(2, sugerencias.get(0).amigosEnComun);
+        assertEquals(usuario5, sugerencias.get(1).usuario);
+        assertEquals(1, sugerencias.get(1).amigosEnComun);
+
+        for (GrafoSocial.Sugerencia s : sugerencias) {
+            assertEquals(s.amigosEnComun, grafo.contarAmigosEnComun(usuario1, s.usuario));
+        }
+        assertEquals(List.of(usuario4), grafo.recomendarAmigos(usuario1, 1));
+
+        // El total no depende del límite de sugerencias
+        assertEquals(1, grafo.sugerirAmigos(usuario1, 1).size());
+        assertEquals(2, grafo.contarAmigosDeAmigos(usuario1));
+        assertEquals(grafo.encontrarAmigosDeAmigos(usuario1).size(), grafo.contarAmigosDeAmigos(usuario1));
+
+        // Al seguir la sugerencia deja de serlo
+        grafo.agregarAmistad(usuario1, usuario4);
+        assertEquals(List.of(usuario5), grafo.recomendarAmigos(usuario1, 5));
+        assertTrue(grafo.sugerirAmigos(usuario1, 0).isEmpty());
+    }
+
+    /**
+     * Verifica que el conteo de componentes sigue altas y bajas de
+     * amistades (una baja puede partir una componente en dos).
+     */
+    @Test
+    @DisplayName("Componentes conexas tras agregar y eliminar amistades")
+    void testComponentesIncrementales() {
+        grafo.agregarUsuario(usuario1);
+        grafo.agregarUsuario(usuario2);
+        grafo.agregarUsuario(usuario3);
+        grafo.agregarUsuario(usuario4);
+        assertEquals(4, grafo.contarComponentes());
+
+        grafo.agregarAmistad(usuario1, usuario2);
+        grafo.agregarAmistad(usuario3, usuario4);
+        assertEquals(2, grafo.contarComponentes());
+        assertFalse(grafo.esConexo());
+
+        grafo.agregarAmistad(usuario2, usuario3);
+        assertTrue(grafo.esConexo());
+
+        // Quitar el puente parte la red; quitar una arista de un ciclo no
+        grafo.agregarAmistad(usuario1, usuario3);
+        grafo.eliminarAmistad(usuario2, usuario3);
+        assertTrue(grafo.esConexo());
+        grafo.eliminarAmistad(usuario1, usuario3);
+        assertEquals(2, grafo.contarComponentes());
+        assertEquals(-1, grafo.calcularDistancia(usuario1, usuario4));
+
+        grafo.agregarAmistad(usuario2, usuario4);
+        assertEquals(1, grafo.contarComponentes());
+        assertEquals(2, grafo.calcularDistancia(usuario1, usuario4));
+    }
+
+    /**
+     * Verifica que el BFS bidireccional da la misma distancia que un BFS
+     * simple y un camino válido, en una red aleatoria dispersa.
+     */
+    @Test
+    @DisplayName("Distancias bidireccionales coinciden con BFS simple")
+    void testDistanciasBidireccionales() {
+        Random random = new Random(42);
+        List<Usuario> red = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            red.add(new Usuario("red" + i, "pass", "Red " + i));
+            grafo.agregarUsuario(red.get(i));
+        }
+        for (int i = 0; i < 360; i++) {
+            grafo.agregarAmistad(red.get(random.nextInt(300)), red.get(random.nextInt(300)));
+        }
+
+        for (int q = 0; q < 200; q++) {
+            Usuario origen = red.get(random.nextInt(300));
+            Usuario destino = red.get(random.nextInt(300));
+            int esperada = distanciaSimple(origen, destino);
+
+            assertEquals(esperada, grafo.calcularDistancia(origen, destino));
+            List<Usuario> camino = grafo.encontrarCamino(origen, destino);
+            if (esperada < 0) {
+                assertTrue(camino.isEmpty());
+                continue;
+            }
+            assertEquals(esperada + 1, camino.size());
+            assertEquals(origen, camino.get(0));
+            assertEquals(destino, camino.get(camino.size() - 1));
+            for (int i = 0; i + 1 < camino.size(); i++) {
+                assertTrue(grafo.sonAmigos(camino.get(i), camino.get(i + 1)));
+            }
+        }
+    }
+
+    private int distanciaSimple(Usuario origen, Usuario destino) {
+        Map<Usuario, Integer> distancias = new HashMap<>();
+        Deque<Usuario> cola = new ArrayDeque<>();
+        distancias.put(origen, 0);
+        cola.add(origen);
+        while (!cola.isEmpty()) {
+            Usuario actual = cola.poll();
+            if (actual.equals(destino)) {
+                return distancias.get(actual);
+            }
+            for (Usuario vecino : grafo.getAmigos(actual)) {
+                if (distancias.putIfAbsent(vecino, distancias.get(actual) + 1) == null) {
+                    cola.add(vecino);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Verifica que las amistades sobreviven a un reinicio, antes y después
+     * de compactar el diario.
+     */
+    @Test
+    @DisplayName("Amistades persistidas con snapshot y diario")
+    void testPersistenciaAmistades(@TempDir Path dir) {
+        Path snapshot = dir.resolve("amistades.snapshot");
+        Path diario = dir.resolve("amistades.journal");
+        List<Usuario> usuarios = List.of(usuario1, usuario2, usuario3, usuario4);
+
+        AmistadRepo repo = new AmistadRepo(grafo, snapshot, diario, 3);
+        repo.cargar(username -> buscar(usuarios, username));
+        grafo.agregarAmistad(usuario1, usuario2);
+        grafo.agregarAmistad(usuario2, usuario3);
+        repo.cerrar();
+        assertFalse(Files.exists(snapshot), "Dos operaciones aún no compactan");
+
+        // Reinicio: se reaplica el diario y se siguen anexando cambios
+        GrafoSocial reinicio = new GrafoSocial();
+        repo = new AmistadRepo(reinicio, snapshot, diario, 3);
+        repo.cargar(username -> buscar(usuarios, username));
+        assertTrue(reinicio.sonAmigos(usuario1, usuario2));
+        assertTrue(reinicio.sonAmigos(usuario3, usuario2));
+
+        reinicio.eliminarAmistad(usuario1, usuario2); // tercera operación: compacta
+        reinicio.agregarAmistad(usuario3, usuario4);
+        repo.cerrar();
+        assertTrue(Files.exists(snapshot), "El diario largo debe compactarse");
+
+        GrafoSocial otro = new GrafoSocial();
+        new AmistadRepo(otro, snapshot, diario, 3).cargar(username -> buscar(usuarios, username));
+        assertFalse(otro.sonAmigos(usuario1, usuario2));
+        assertTrue(otro.sonAmigos(usuario2, usuario3));
+        assertTrue(otro.sonAmigos(usuario3, usuario4));
+        assertEquals(2, otro.contarAmistades());
+    }
+
+    private static Usuario buscar(List<Usuario> usuarios, String username) {
+        return usuarios.stream().filter(u -> u.getUsername().equals(username)).findFirst().orElse(null);
+    }
 }
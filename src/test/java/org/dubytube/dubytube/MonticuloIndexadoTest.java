@@ -0,0 +1,155 @@
+package org.dubytube.dubytube;
+
+import org.dubytube.dubytube.ds.MonticuloIndexado;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del montículo indexado usado por Dijkstra.
+ *
+ * <p>Cubre los siguientes casos:</p>
+ * <ul>
+ *   <li>Extracción en orden de prioridad</li>
+ *   <li>Disminuir la prioridad de un vértice encolado lo adelanta</li>
+ *   <li>Una prioridad mayor que la actual se ignora</li>
+ *   <li>Un vértice extraído puede volver a encolarse</li>
+ *   <li>Vaciar y crecer para reutilizarlo entre búsquedas</li>
+ *   <li>Operaciones al azar contra una referencia por fuerza bruta</li>
+ * </ul>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+@DisplayName("Pruebas del Montículo Indexado")
+class MonticuloIndexadoTest {
+
+    @Test
+    @DisplayName("Extraer en orden de prioridad")
+    void testExtraerEnOrden() {
+        MonticuloIndexado m = new MonticuloIndexado(5);
+        m.insertarODisminuir(0, 3.0);
+        m.insertarODisminuir(1, 1.0);
+        m.insertarODisminuir(2, 4.0);
+        m.insertarODisminuir(3, 0.5);
+        m.insertarODisminuir(4, 2.0);
+
+        assertEquals(5, m.size());
+        int[] orden = new int[5];
+        for (int i = 0; i < 5; i++) {
+            orden[i] = m.extraerMin();
+        }
+        assertArrayEquals(new int[]{3, 1, 4, 0, 2}, orden);
+        assertTrue(m.isEmpty());
+        assertThrows(IllegalStateException.class, m::extraerMin);
+    }
+
+    @Test
+    @DisplayName("Disminuir prioridad adelanta al vértice")
+    void testDisminuirPrioridad() {
+        MonticuloIndexado m = new MonticuloIndexado(4);
+        m.insertarODisminuir(0, 1.0);
+        m.insertarODisminuir(1, 2.0);
+        m.insertarODisminuir(2, 3.0);
+        m.insertarODisminuir(3, 4.0);
+
+        m.insertarODisminuir(3, 0.1);
+        assertEquals(4, m.size(), "Disminuir no debe duplicar el vértice");
+        assertEquals(0.1, m.prioridad(3));
+        assertEquals(3, m.extraerMin());
+        assertEquals(0, m.extraerMin());
+    }
+
+    @Test
+    @DisplayName("Una prioridad mayor se ignora")
+    void testAumentarSeIgnora() {
+        MonticuloIndexado m = new MonticuloIndexado(3);
+        m.insertarODisminuir(0, 1.0);
+        m.insertarODisminuir(1, 2.0);
+
+        m.insertarODisminuir(0, 5.0);
+        assertEquals(1.0, m.prioridad(0));
+        assertEquals(0, m.extraerMin());
+    }
+
+    @Test
+    @DisplayName("Reencolar un vértice extraído")
+    void testReencolarExtraido() {
+        MonticuloIndexado m = new MonticuloIndexado(3);
+        m.insertarODisminuir(0, 1.0);
+        m.insertarODisminuir(1, 2.0);
+        assertEquals(0, m.extraerMin());
+
+        // Ya no está encolado: entra con la prioridad nueva aunque sea mayor
+        m.insertarODisminuir(0, 7.0);
+        assertEquals(2, m.size());
+        assertEquals(1, m.extraerMin());
+        assertEquals(0, m.extraerMin());
+        assertEquals(7.0, m.prioridad(0));
+    }
+
+    @Test
+    @DisplayName("Vaciar y crecer entre búsquedas")
+    void testReutilizar() {
+        MonticuloIndexado m = new MonticuloIndexado(2);
+        m.insertarODisminuir(0, 5.0);
+        m.insertarODisminuir(1, 3.0);
+
+        m.asegurarCapacidad(10);
+        m.insertarODisminuir(9, 1.0);
+        assertEquals(3, m.size(), "Crecer conserva los encolados");
+        assertEquals(9, m.extraerMin());
+
+        m.vaciar();
+        assertTrue(m.isEmpty());
+        // Tras vaciar, un vértice que estaba encolado entra como nuevo
+        m.insertarODisminuir(0, 8.0);
+        m.insertarODisminuir(1, 4.0);
+        assertEquals(1, m.extraerMin());
+        assertEquals(0, m.extraerMin());
+        assertEquals(8.0, m.prioridad(0));
+    }
+
+    /**
+     * Mezcla inserciones, disminuciones y extracciones, y compara cada
+     * mínimo con el de un arreglo recorrido por fuerza bruta.
+     */
+    @Test
+    @DisplayName("Operaciones al azar contra fuerza bruta")
+    void testContraFuerzaBruta() {
+        int n = 200;
+        MonticuloIndexado m = new MonticuloIndexado(n);
+        double[] referencia = new double[n];
+        Arrays.fill(referencia, Double.NaN); // NaN = no encolado
+        Random random = new Random(13);
+        int encolados = 0;
+
+        for (int paso = 0; paso < 5000; paso++) {
+            if (encolados > 0 && random.nextInt(3) == 0) {
+                int v = m.extraerMin();
+                assertFalse(Double.isNaN(referencia[v]), "Se extrajo un vértice no encolado");
+                for (double p : referencia) {
+                    assertFalse(p < referencia[v], "Se extrajo un vértice que no era el mínimo");
+                }
+                referencia[v] = Double.NaN;
+                encolados--;
+            } else {
+                int v = random.nextInt(n);
+                double p = random.nextInt(1000) / 10.0;
+                m.insertarODisminuir(v, p);
+                if (Double.isNaN(referencia[v])) {
+                    referencia[v] = p;
+                    encolados++;
+                } else {
+                    referencia[v] = Math.min(referencia[v], p);
+                }
+            }
+            assertEquals(encolados, m.size());
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package org.dubytube.dubytube;
+
+import org.dubytube.dubytube.domain.Cancion;
+import org.dubytube.dubytube.ds.GrafoCercania;
+import org.dubytube.dubytube.ds.GrafoSimilitud;
+import org.dubytube.dubytube.ds.RasgosCanciones;
+import org.dubytube.dubytube.repo.CancionRepo;
+import org.dubytube.dubytube.services.MotorSimilitud;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del motor de similitud.
+ *
+ * <p>Cubre los siguientes casos:</p>
+ * <ul>
+ *   <li>Altas, ediciones y bajas incrementales dejan el mismo grafo que una reconstrucción</li>
+ *   <li>Las cercanas cacheadas no quedan viejas tras los cambios, se sirvan
+ *       del grafo mutable o de la copia compacta rehecha por lotes</li>
+ *   <li>Lo mismo conservando todas las aristas candidatas (sin límite de vecinos)</li>
+ *   <li>Un puntuador propio se usa al reconstruir y al actualizar</li>
+ *   <li>Una canción sin artista ni género en común se completa por año</li>
+ *   <li>Con filtro solo salen canciones que lo cumplen, sin pedir listas más largas</li>
+ * </ul>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+@DisplayName("Pruebas del Motor de Similitud")
+class MotorSimilitudTest {
+
+    private static final String[] ARTISTAS = {"Queen", "QUEEN", "Adele", "Björk", "Muse", "Blur", null};
+    private static final String[] GENEROS = {"Rock", "rock", "Pop", "Clásica", "Jazz", null};
+
+    @TempDir
+    Path dir;
+
+    private CancionRepo repo;
+    private Random random;
+    private int siguienteId;
+
+    @BeforeEach
+    void setUp() {
+        repo = new CancionRepo(dir.resolve("canciones.json"));
+        random = new Random(7);
+        for (int i = 0; i < 150; i++) {
+            repo.save(nuevaCancion());
+        }
+    }
+
+    @Test
+    @DisplayName("Cambios incrementales igual a reconstruir (k vecinos)")
+    void testIncrementalIgualAReconstruirConK() {
+        verificarContraReconstruir(MotorSimilitud.crear(repo, 3));
+    }
+
+    @Test
+    @DisplayName("Cambios incrementales igual a reconstruir (todas las candidatas)")
+    void testIncrementalIgualAReconstruirSinLimite() {
+        verificarContraReconstruir(MotorSimilitud.crear(repo, 0));
+    }
+
+    /**
+     * Con un puntuador que solo mira el año, todas las aristas (las de la
+     * construcción y las de los cambios incrementales) tienen su distancia.
+     */
+    @Test
+    @DisplayName("Puntuador propio al reconstruir y al actualizar")
+    void testPuntuadorPropio() {
+        MotorSimilitud.Puntuador porAnio = (r, i, j) -> 0.1 + Math.abs(r.anio(i) - r.anio(j)) / 100.0;
+        MotorSimilitud motor = MotorSimilitud.crear(repo, 3, porAnio);
+        verificarPesos(motor, porAnio);
+
+        verificarContraReconstruir(motor);
+        for (int op = 0; op < 20; op++) {
+            cambiarAlAzar();
+        }
+        verificarPesos(motor, porAnio);
+    }
+
+    /**
+     * Una canción aislada en el grafo sigue recibiendo k cercanas: las más
+     * próximas en año, con la distancia del motor.
+     */
+    @Test
+    @DisplayName("Canción aislada completada por año")
+    void testRespaldoPorAnio() {
+        Cancion sola = new Cancion("sola", "Tema solo", "Nadie Más", "Tango", 1990, 200);
+        repo.save(sola);
+        MotorSimilitud motor = MotorSimilitud.crear(repo, 3);
+        assertTrue(motor.getGrafo().vecinos("sola").isEmpty());
+
+        for (int k : new int[]{1, 5, 40}) {
+            List<GrafoCercania.Cercana> cercanas = motor.masCercanas("sola", k);
+            assertEquals(k, cercanas.size());
+            Set<String> elegidas = new HashSet<>();
+            int peorElegida = 0;
+            double anterior = 0.0;
+            for (GrafoCercania.Cercana c : cercanas) {
+                Cancion o = repo.find(c.id).orElseThrow();
+                assertTrue(elegidas.add(c.id), "Repetida: " + c.id);
+                assertEquals(MotorSimilitud.distanciaHeuristica(sola, o), c.distancia, 1e-12);
+                assertTrue(c.distancia >= anterior, "Fuera de orden: " + c.id);
+                anterior = c.distancia;
+                peorElegida = Math.max(peorElegida, Math.abs(o.getAnio() - 1990));
+            }
+            for (Cancion o : repo.findAll()) {
+                if (!o.getId().equals("sola") && !elegidas.contains(o.getId())) {
+                    assertTrue(Math.abs(o.getAnio() - 1990) >= peorElegida, "Se saltó " + o.getId());
+                }
+            }
+        }
+
+        // Pidiendo más que las alcanzables se llega a todo el catálogo
+        String conVecinos = repo.findAll().stream()
+                .filter(c -> !motor.getGrafo().vecinos(c.getId()).isEmpty())
+                .findFirst().orElseThrow().getId();
+        assertEquals(repo.findAll().size() - 1, motor.masCercanas(conVecinos, 1000).size());
+        assertTrue(motor.masCercanas("no-existe", 5).isEmpty());
+    }
+
+    /**
+     * Con filtro (una playlist) salen las del grafo que lo cumplen, en el
+     * mismo orden que sin filtro, y el resto se completa por año.
+     */
+    @Test
+    @DisplayName("Más cercanas restringidas a una playlist")
+    void testMasCercanasConFiltro() {
+        MotorSimilitud motor = MotorSimilitud.crear(repo, 3);
+        List<Cancion> catalogo = new ArrayList<>(repo.findAll());
+        Set<String> playlist = new HashSet<>();
+        for (int i = 0; i < catalogo.size(); i += 5) {
+            playlist.add(catalogo.get(i).getId());
+        }
+
+        for (int s = 0; s < catalogo.size(); s += 13) {
+            String origen = catalogo.get(s).getId();
+            int alcanzables = motor.getGrafo().masCercanas(origen, catalogo.size()).size();
+            List<Double> porGrafo = new ArrayList<>();
+            for (GrafoCercania.Cercana c : motor.masCercanas(origen, alcanzables)) {
+                if (playlist.contains(c.id)) {
+                    porGrafo.add(c.distancia);
+                }
+            }
+            int enPlaylist = playlist.size() - (playlist.contains(origen) ? 1 : 0);
+
+            for (int k : new int[]{1, 5, 1000}) {
+                List<GrafoCercania.Cercana> cercanas = motor.masCercanas(origen, k, playlist::contains);
+                assertEquals(Math.min(k, enPlaylist), cercanas.size(), "Cantidad desde " + origen);
+                Set<String> vistas = new HashSet<>();
+                for (int i = 0; i < cercanas.size(); i++) {
+                    GrafoCercania.Cercana c = cercanas.get(i);
+                    assertTrue(playlist.contains(c.id), "Fuera de la playlist: " + c.id);
+                    assertNotEquals(origen, c.id);
+                    assertTrue(vistas.add(c.id), "Repetida: " + c.id);
+                    if (i < porGrafo.size()) {
+                        assertEquals(porGrafo.get(i), c.distancia, 1e-6, "Posición " + i + " desde " + origen);
+                    }
+                }
+            }
+        }
+        assertTrue(motor.masCercanas("no-existe", 5, playlist::contains).isEmpty());
+    }
+
+    private void verificarPesos(MotorSimilitud motor, MotorSimilitud.Puntuador puntuador) {
+        int aristas = 0;
+        for (Cancion c : repo.findAll()) {
+            for (String otra : motor.getGrafo().vecinos(c.getId())) {
+                Cancion o = repo.find(otra).orElseThrow();
+                double esperada = puntuador.distancia(new RasgosCanciones(List.of(c, o)), 0, 1);
+                assertEquals(esperada, motor.getGrafo().getDistancia(c.getId(), otra), 0.0);
+                aristas++;
+            }
+        }
+        assertTrue(aristas > 0);
+    }
+
+    /**
+     * Aplica cambios al azar por el repositorio y, cada tanto, compara el
+     * grafo y las cercanas del motor con los de una reconstrucción completa.
+     */
+    private void verificarContraReconstruir(MotorSimilitud motor) {
+        for (int ronda = 0; ronda < 8; ronda++) {
+            // Más cambios que el lote de compactación del motor (32): cada
+            // ronda pasa por una copia compacta rehecha y por cambios sin compactar
+            for (int op = 0; op < 40; op++) {
+                cambiarAlAzar();
+                // Consultar entre cambios para que la caché tenga qué invalidar
+                motor.masCercanas(idAlAzar(), 5);
+            }
+
+            List<String> muestra = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                muestra.add(idAlAzar());
+            }
+            // Las borradas salen del grafo, no solo quedan aisladas
+            assertEquals(repo.findAll().size(), motor.getGrafo().size(), "Vértices en la ronda " + ronda);
+            Map<String, Map<String, Double>> incremental = aristas(motor.getGrafo());
+            Map<String, List<Double>> cercanasIncremental = distancias(motor, muestra);
+
+            motor.reconstruir(null);
+
+            assertEquals(aristas(motor.getGrafo()), incremental, "Grafo distinto en la ronda " + ronda);
+            Map<String, List<Double>> cercanas = distancias(motor, muestra);
+            for (String id : muestra) {
+                assertArrayEquals(aArreglo(cercanas.get(id)), aArreglo(cercanasIncremental.get(id)), 1e-6,
+                        "Cercanas distintas de " + id + " en la ronda " + ronda);
+            }
+        }
+    }
+
+    private void cambiarAlAzar() {
+        int op = random.nextInt(4);
+        if (op == 0) {
+            repo.save(nuevaCancion());
+        } else if (op == 1) {
+            repo.delete(idAlAzar());
+        } else if (op == 2) {
+            // Edición en el lugar: el motor debe sacarla de sus bloques viejos
+            Cancion c = repo.find(idAlAzar()).orElseThrow();
+            c.setArtista(ARTISTAS[random.nextInt(ARTISTAS.length)]);
+            c.setGenero(GENEROS[random.nextInt(GENEROS.length)]);
+            c.setAnio(1960 + random.nextInt(60));
+            repo.save(c);
+        } else {
+            // Edición con un objeto nuevo para el mismo ID
+            String id = idAlAzar();
+            repo.save(new Cancion(id, "Tema " + id,
+                    ARTISTAS[random.nextInt(ARTISTAS.length)],
+                    GENEROS[random.nextInt(GENEROS.length)],
+                    1960 + random.nextInt(60), 200));
+        }
+    }
+
+    private Cancion nuevaCancion() {
+        String id = "id" + siguienteId++;
+        return new Cancion(id, "Tema " + id,
+                ARTISTAS[random.nextInt(ARTISTAS.length)],
+                GENEROS[random.nextInt(GENEROS.length)],
+                1960 + random.nextInt(60), 200);
+    }
+
+    private String idAlAzar() {
+        List<String> ids = new ArrayList<>();
+        for (Cancion c : repo.findAll()) {
+            ids.add(c.getId());
+        }
+        Collections.sort(ids);
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    /** Aristas del grafo entre canciones del catálogo, con su distancia. */
+    private Map<String, Map<String, Double>> aristas(GrafoSimilitud grafo) {
+        Map<String, Map<String, Double>> out = new HashMap<>();
+        for (Cancion c : repo.findAll()) {
+            Map<String, Double> fila = new HashMap<>();
+            for (String otra : grafo.vecinos(c.getId())) {
+                fila.put(otra, grafo.getDistancia(c.getId(), otra));
+            }
+            out.put(c.getId(), fila);
+        }
+        return out;
+    }
+
+    /**
+     * Distancias de las 5 más cercanas de cada semilla. Con empates los IDs
+     * pueden variar, pero las distancias no (salvo el redondeo de la copia
+     * compacta, que guarda los pesos como float).
+     */
+    private Map<String, List<Double>> distancias(MotorSimilitud motor, List<String> semillas) {
+        Map<String, List<Double>> out = new HashMap<>();
+        for (String id : semillas) {
+            List<Double> d = new ArrayList<>();
+            for (GrafoCercania.Cercana c : motor.masCercanas(id, 5)) {
+                d.add(c.distancia);
+            }
+            out.put(id, d);
+        }
+        return out;
+    }
+
+    private static double[] aArreglo(List<Double> valores) {
+        double[] out = new double[valores.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = valores.get(i);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,124 @@
+package org.dubytube.dubytube;
+
+import org.dubytube.dubytube.domain.Cancion;
+import org.dubytube.dubytube.domain.Usuario;
+import org.dubytube.dubytube.services.PopularidadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el servicio de popularidad.
+ *
+ * <p>Cubre los siguientes casos:</p>
+ * <ul>
+ *   <li>Puntaje inicial a partir de los favoritos guardados</li>
+ *   <li>Eventos de favoritos recibidos como listener del repositorio</li>
+ *   <li>Pendientes agrupados por canción y drenados en un solo lote</li>
+ *   <li>El puntaje nunca baja de cero</li>
+ * </ul>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+@DisplayName("Pruebas del Servicio de Popularidad")
+class PopularidadServiceTest {
+
+    private PopularidadService popularidad;
+    private Cancion c1;
+    private Cancion c2;
+    private Cancion c3;
+
+    @BeforeEach
+    void setUp() {
+        popularidad = new PopularidadService();
+        c1 = new Cancion("c1", "Love Song", "Adele", "Pop", 2015, 210);
+        c2 = new Cancion("c2", "Lobo Hombre", "La Unión", "Rock", 1984, 190);
+        c3 = new Cancion("c3", "Ave Maria", "Schubert", "Clásica", 1825, 150);
+    }
+
+    /**
+     * Los favoritos guardados de cada usuario se suman al arrancar.
+     */
+    @Test
+    @DisplayName("Sembrar puntajes desde los favoritos de los usuarios")
+    void testSembrarFavoritos() {
+        Usuario ana = new Usuario("ana", "123", "Ana");
+        ana.addFavorito(c1);
+        ana.addFavorito(c2);
+        Usuario luis = new Usuario("luis", "123", "Luis");
+        luis.addFavorito(c1);
+
+        popularidad.sembrarFavoritos(List.of(ana, luis));
+
+        assertEquals(2 * PopularidadService.PESO_FAVORITO, popularidad.getPuntaje("c1"));
+        assertEquals(PopularidadService.PESO_FAVORITO, popularidad.getPuntaje("c2"));
+        assertEquals(0, popularidad.getPuntaje("c3"));
+        assertEquals(Set.of("c1", "c2"), popularidad.drenarPendientes());
+    }
+
+    /**
+     * Agregar y quitar favoritos por el listener mueve el puntaje.
+     */
+    @Test
+    @DisplayName("Eventos de favoritos del repositorio")
+    void testListenerFavoritos() {
+        Usuario ana = new Usuario("ana", "123", "Ana");
+
+        popularidad.onFavoritoAgregado(ana, c1);
+        popularidad.registrarReproduccion(c1);
+        assertEquals(PopularidadService.PESO_FAVORITO + PopularidadService.PESO_REPRODUCCION,
+                popularidad.getPuntaje("c1"));
+
+        popularidad.onFavoritoQuitado(ana, c1);
+        assertEquals(PopularidadService.PESO_REPRODUCCION, popularidad.getPuntaje("c1"));
+    }
+
+    /**
+     * Muchos eventos sobre pocas canciones dejan un pendiente por canción,
+     * y el lote drenado no se vuelve a entregar.
+     */
+    @Test
+    @DisplayName("Pendientes agrupados y drenados por lotes")
+    void testDrenarPorLotes() {
+        assertFalse(popularidad.hayPendientes());
+
+        for (int i = 0; i < 100; i++) {
+            popularidad.registrarReproduccion(c1);
+            popularidad.registrarReproduccion(c2);
+        }
+        popularidad.registrarFavorito(c1);
+
+        assertTrue(popularidad.hayPendientes());
+        Set<String> lote = popularidad.drenarPendientes();
+        assertEquals(Set.of("c1", "c2"), lote);
+        assertEquals(100 + PopularidadService.PESO_FAVORITO, popularidad.getPuntaje("c1"));
+        assertEquals(100, popularidad.getPuntaje("c2"));
+
+        assertFalse(popularidad.hayPendientes());
+        assertTrue(popularidad.drenarPendientes().isEmpty());
+
+        popularidad.registrarReproduccion(c3);
+        assertEquals(Set.of("c3"), popularidad.drenarPendientes());
+    }
+
+    /**
+     * Quitar un favorito sin puntaje previo no deja puntajes negativos.
+     */
+    @Test
+    @DisplayName("El puntaje no baja de cero")
+    void testPuntajeNoNegativo() {
+        popularidad.quitarFavorito(c1);
+        assertEquals(0, popularidad.getPuntaje("c1"));
+
+        popularidad.registrarReproduccion(c1);
+        popularidad.quitarFavorito(c1);
+        assertEquals(0, popularidad.getPuntaje("c1"));
+    }
+}
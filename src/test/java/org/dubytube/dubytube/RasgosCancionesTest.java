@@ -0,0 +1,137 @@
+package org.dubytube.dubytube;
+
+import org.dubytube.dubytube.domain.Cancion;
+import org.dubytube.dubytube.ds.RasgosCanciones;
+import org.dubytube.dubytube.services.MotorSimilitud;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de las columnas de atributos de canciones.
+ *
+ * <p>Cubre los siguientes casos:</p>
+ * <ul>
+ *   <li>Similitud por pares y de una contra todas idéntica a
+ *       {@link Cancion#calcularSimilitud(Cancion)}</li>
+ *   <li>Distancia por pares y de una contra todas idéntica a
+ *       {@link MotorSimilitud#distanciaHeuristica(Cancion, Cancion)}</li>
+ *   <li>Los puntuadores del motor sobre columnas dan esas mismas métricas</li>
+ * </ul>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+@DisplayName("Pruebas de RasgosCanciones")
+class RasgosCancionesTest {
+
+    private List<Cancion> canciones;
+
+    /**
+     * Crea canciones con mayúsculas mezcladas, atributos nulos y años y
+     * duraciones en torno a los límites de las métricas.
+     */
+    @BeforeEach
+    void setUp() {
+        String[] artistas = {"Queen", "QUEEN", "queen", "Adele", "Björk", "BJÖRK", null};
+        String[] generos = {"Rock", "rock", "Pop", "POP", "Clásica", null};
+        Random random = new Random(42);
+
+        canciones = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            canciones.add(new Cancion("id" + i, "Tema " + i,
+                    artistas[random.nextInt(artistas.length)],
+                    generos[random.nextInt(generos.length)],
+                    // Años cercanos y lejanos, para cubrir la ventana de 5 y el tope de 40 años
+                    random.nextBoolean() ? 1990 + random.nextInt(12) : 1940 + random.nextInt(80),
+                    180 + random.nextInt(70)));
+        }
+        canciones.add(new Cancion("id0", "Mismo ID", "Queen", "Rock", 1990, 200)); // igual a la primera
+    }
+
+    @Test
+    @DisplayName("Similitud por pares igual a calcularSimilitud")
+    void testSimilitudPorPares() {
+        RasgosCanciones rasgos = new RasgosCanciones(canciones);
+
+        for (int i = 0; i < canciones.size(); i++) {
+            for (int j = 0; j < canciones.size(); j++) {
+                if (i != j && canciones.get(i).equals(canciones.get(j))) {
+                    continue; // mismo ID en dos posiciones: fuera del contrato de las columnas
+                }
+                assertEquals(canciones.get(i).calcularSimilitud(canciones.get(j)), rasgos.similitud(i, j),
+                        0.0, "Par (" + i + ", " + j + ")");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Similitud de una contra todas igual a calcularSimilitud")
+    void testSimilitudUnaContraTodas() {
+        RasgosCanciones rasgos = new RasgosCanciones(canciones);
+        double[] fila = new double[rasgos.size()];
+
+        for (int i = 0; i < canciones.size(); i++) {
+            rasgos.similitudesCon(i, fila);
+            for (int j = 0; j < canciones.size(); j++) {
+                if (i == j || !canciones.get(i).equals(canciones.get(j))) {
+                    assertEquals(canciones.get(i).calcularSimilitud(canciones.get(j)), fila[j], 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Distancia por pares igual a distanciaHeuristica")
+    void testDistanciaPorPares() {
+        RasgosCanciones rasgos = new RasgosCanciones(canciones);
+
+        for (int i = 0; i < canciones.size(); i++) {
+            for (int j = 0; j < canciones.size(); j++) {
+                double esperada = MotorSimilitud.distanciaHeuristica(canciones.get(i), canciones.get(j));
+                assertEquals(esperada, rasgos.distancia(i, j), 0.0, "Par (" + i + ", " + j + ")");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Distancia de una contra todas igual a distanciaHeuristica")
+    void testDistanciaUnaContraTodas() {
+        RasgosCanciones rasgos = new RasgosCanciones(canciones);
+        double[] fila = new double[rasgos.size()];
+
+        for (int i = 0; i < canciones.size(); i++) {
+            rasgos.distanciasCon(i, fila);
+            for (int j = 0; j < canciones.size(); j++) {
+                assertEquals(MotorSimilitud.distanciaHeuristica(canciones.get(i), canciones.get(j)), fila[j], 0.0);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Puntuadores del motor sobre columnas")
+    void testPuntuadores() {
+        RasgosCanciones rasgos = new RasgosCanciones(canciones);
+        double[] fila = new double[rasgos.size()];
+
+        for (int i = 0; i < 50; i++) {
+            MotorSimilitud.POR_PUNTAJE.distanciasCon(rasgos, i, fila);
+            for (int j = 0; j < 50; j++) {
+                Cancion a = canciones.get(i);
+                Cancion b = canciones.get(j);
+                double puntaje = 1.0 - a.calcularSimilitud(b) / 100.0;
+                assertEquals(puntaje, MotorSimilitud.POR_PUNTAJE.distancia(rasgos, i, j), 0.0);
+                assertEquals(puntaje, fila[j], 0.0);
+                assertEquals(MotorSimilitud.distanciaHeuristica(a, b),
+                        MotorSimilitud.POR_RASGOS.distancia(rasgos, i, j), 0.0);
+            }
+        }
+    }
+}
@@ -6,7 +6,9 @@ import org.dubytube.dubytube.services.RecomendacionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,6 +22,7 @@ import static org.junit.jupiter.api.Assertions.*;
  *   <li>Recomendaciones basadas en similitud de artista</li>
  *   <li>Exclusión de la canción fuente</li>
  *   <li>Ordenamiento por similitud</li>
+ *   <li>Canción sin artista ni género en común completada por año</li>
  * </ul>
  * 
  * @author DubyTube Team
@@ -32,13 +35,17 @@ class RecomendacionServiceTest {
     private RecomendacionService servicio;
     private CancionRepo repo;
 
+    /** Carpeta temporal para el JSON del repositorio (no toca los datos reales). */
+    @TempDir
+    Path dir;
+
     /**
      * Configuración inicial antes de cada prueba.
      * Crea un repositorio con canciones de prueba.
      */
     @BeforeEach
     void setUp() {
-        repo = new CancionRepo();
+        repo = new CancionRepo(dir.resolve("canciones.json"));
         
         // Agregar canciones de prueba con similitudes conocidas
         repo.save(new Cancion("1", "Bohemian Rhapsody", "Queen", "Rock", 1975, 354));
@@ -135,6 +142,26 @@ class RecomendacionServiceTest {
         }
     }
 
+    /**
+     * Verifica que las recomendaciones cacheadas se invalidan al cambiar el catálogo.
+     */
+    @Test
+    @DisplayName("Recomendaciones reflejan altas y bajas posteriores")
+    void testRecomendacionesTrasCambioDeCatalogo() {
+        // Servicio sobre un grupo aislado (artista y género propios)
+        repo.save(new Cancion("c1", "Uno", "Artista Cache", "Genero Cache", 2000, 200));
+        repo.save(new Cancion("c2", "Dos", "Artista Cache", "Genero Cache", 2010, 200));
+        servicio = new RecomendacionService(repo);
+        assertEquals("c2", servicio.recomendar("c1", 1).get(0).cancion.getId());
+
+        // Mismo artista, género y año: pasa a ser la más cercana
+        repo.save(new Cancion("c3", "Tres", "Artista Cache", "Genero Cache", 2000, 200));
+        assertEquals("c3", servicio.recomendar("c1", 1).get(0).cancion.getId());
+
+        repo.delete("c3");
+        assertEquals("c2", servicio.recomendar("c1", 1).get(0).cancion.getId());
+    }
+
     /**
      * RF-005: Verifica que recomendaciones consideran género similar.
      */
@@ -151,4 +178,24 @@ class RecomendacionServiceTest {
         
         assertTrue(hayPopEnRecomendaciones, "Debe recomendar canciones del mismo género");
     }
+
+    /**
+     * RF-005: Una canción aislada en el grafo recibe las más próximas en
+     * año, ordenadas por distancia.
+     */
+    @Test
+    @DisplayName("Canción aislada completada por año")
+    void testRespaldoPorAnio() {
+        repo.save(new Cancion("7", "Tema solo", "Nadie Más", "Tango", 1981, 200));
+        servicio = new RecomendacionService(repo);
+
+        List<RecomendacionService.Rec> recomendaciones = servicio.recomendar("7", 3);
+
+        assertEquals(3, recomendaciones.size());
+        // Las tres están a un año (misma distancia): primero el año anterior, luego por ID
+        assertEquals("3", recomendaciones.get(0).cancion.getId());
+        assertEquals("5", recomendaciones.get(1).cancion.getId());
+        assertEquals("6", recomendaciones.get(2).cancion.getId());
+        assertEquals(6, servicio.recomendar("7", 10).size(), "Todo el catálogo salvo la fuente");
+    }
 }
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,6 +20,7 @@ import static org.junit.jupiter.api.Assertions.*;
  *   <li>Autocompletado por prefijo</li>
  *   <li>Conteo de palabras</li>
  *   <li>Manejo de palabras duplicadas</li>
+ *   <li>Caché de populares por prefijo</li>
  * </ul>
  * 
  * @author DubyTube Team
@@ -169,4 +171,176 @@ class TrieTest {
         assertEquals(1, resultados2.size(), "Debe encontrar con prefijo en minúsculas");
         assertEquals(1, resultados3.size(), "Debe encontrar con prefijo mixto");
     }
+
+    /**
+     * RF-025: Verifica que eliminar una palabra no afecta a las que comparten prefijo.
+     */
+    @Test
+    @DisplayName("Eliminar palabra conserva las que comparten prefijo")
+    void testEliminarPalabra() {
+        trie.insert("Born");
+        trie.insert("Born to Run");
+        trie.insert("Bad");
+
+        assertTrue(trie.delete("Born to Run"), "Debe eliminar la palabra existente");
+        assertFalse(trie.delete("Born to Run"), "No debe eliminar dos veces");
+        assertFalse(trie.search("Born to Run"));
+        assertTrue(trie.search("Born"), "La palabra prefijo debe seguir existiendo");
+        assertTrue(trie.search("Bad"));
+        assertEquals(2, trie.size());
+    }
+
+    /**
+     * RF-026: Verifica que el autocompletado respeta el orden alfabético
+     * independientemente del orden de inserción.
+     */
+    @Test
+    @DisplayName("Autocompletado en orden alfabético")
+    void testOrdenAlfabetico() {
+        trie.insert("bz");
+        trie.insert("ba");
+        trie.insert("bm");
+        trie.insert("b");
+
+        assertEquals(List.of("b", "ba", "bm", "bz"), trie.searchByPrefix("b"));
+    }
+
+    /**
+     * RF-026: Verifica que el autocompletado limitado devuelve los primeros
+     * resultados en orden alfabético.
+     */
+    @Test
+    @DisplayName("Autocompletado limitado devuelve los primeros en orden")
+    void testAutocompletadoLimitado() {
+        trie.insert("Beat It");
+        trie.insert("Billie Jean");
+        trie.insert("Born to Run");
+        trie.insert("Bohemian Rhapsody");
+        trie.insert("Bad");
+
+        List<String> resultados = trie.searchByPrefix("b", 3);
+
+        assertEquals(List.of("Bad", "Beat It", "Billie Jean"), resultados);
+        assertTrue(trie.searchByPrefix("b", 0).isEmpty(), "Límite 0 debe devolver lista vacía");
+        assertEquals(5, trie.searchByPrefix("b", 50).size());
+    }
+
+    /**
+     * RF-026: Verifica que las sugerencias populares siguen la frecuencia y se
+     * actualizan al cambiarla o al eliminar palabras.
+     */
+    @Test
+    @DisplayName("Sugerencias más populares se actualizan incrementalmente")
+    void testMasPopulares() {
+        Trie pequeno = new Trie(2);
+        pequeno.insert("Love Song");
+        pequeno.insert("Lobo Hombre");
+        pequeno.insert("Loser");
+
+        assertTrue(pequeno.addFrequency("Loser", 5));
+        assertEquals(List.of("Loser", "Lobo Hombre"), pequeno.searchByPrefixMostPopular("lo", 2));
+
+        assertTrue(pequeno.addFrequency("Love Song", 10));
+        assertEquals(List.of("Love Song", "Loser"), pequeno.searchByPrefixMostPopular("lo", 2));
+
+        assertTrue(pequeno.delete("Love Song"));
+        assertEquals(List.of("Loser", "Lobo Hombre"), pequeno.searchByPrefixMostPopular("lo", 2));
+
+        // Límite mayor que la caché recorre el subárbol completo
+        assertEquals(2, pequeno.searchByPrefixMostPopular("lo", 5).size());
+        assertFalse(pequeno.addFrequency("No existe", 1));
+    }
+
+    /**
+     * RF-026: Verifica que el puntaje de popularidad tiene prioridad sobre
+     * la frecuencia de paso al ordenar sugerencias.
+     */
+    @Test
+    @DisplayName("Puntaje de popularidad ordena las sugerencias")
+    void testPuntajePopularidad() {
+        trie.insert("Love");
+        trie.insert("Love Song");
+        trie.insert("Lovers");
+
+        // Sin puntaje manda la frecuencia de paso ("Love" es prefijo de las otras)
+        assertEquals("Love", trie.searchByPrefixMostPopular("lov", 1).get(0));
+
+        assertTrue(trie.addScore("Lovers", 4));
+        assertTrue(trie.setScore("Love Song", 2));
+        assertEquals(List.of("Lovers", "Love Song", "Love"), trie.searchByPrefixMostPopular("lov", 3));
+        assertEquals(4, trie.getScore("lovers"));
+        assertEquals(-1, trie.getScore("Lov"), "Un prefijo no es palabra completa");
+    }
+
+    /**
+     * RF-025: Verifica que la búsqueda ignora acentos y signos de puntuación.
+     */
+    @Test
+    @DisplayName("Búsqueda insensible a acentos y puntuación")
+    void testAcentosYPuntuacion() {
+        trie.insert("Canción de Amor");
+        trie.insert("Don't Stop Believin'");
+
+        assertTrue(trie.search("cancion de amor"), "Debe ignorar acentos");
+        assertEquals(List.of("Canción de Amor"), trie.searchByPrefix("CANCIÓN"));
+        assertTrue(trie.search("dont stop believin"), "Debe ignorar apóstrofes");
+        assertTrue(trie.searchByPrefix("!!").isEmpty(), "Un prefijo sin letras no debe devolver todo");
+        assertThrows(IllegalArgumentException.class, () -> trie.insert("¡¿?!"),
+                "Una palabra sin letras ni dígitos no es indexable");
+    }
+
+    /**
+     * RF-025: Verifica la búsqueda tolerante a errores de tipeo.
+     */
+    @Test
+    @DisplayName("Búsqueda aproximada por distancia de edición")
+    void testBusquedaAproximada() {
+        trie.insert("Yellow");
+        trie.insert("Hello");
+        trie.insert("Help");
+        trie.insert("Bohemian Rhapsody");
+
+        assertEquals(List.of("Hello", "Help"), trie.searchFuzzy("helo", 1, 10), "Omisión y sustitución");
+        assertEquals(List.of("Yellow"), trie.searchFuzzy("yelow", 1, 10));
+        assertEquals(List.of("Hello", "Help", "Yellow"), trie.searchFuzzy("hellw", 2, 10),
+                "Debe ordenar por distancia");
+        assertEquals(List.of("Bohemian Rhapsody"), trie.searchFuzzy("bohemian rapsody", 2, 10));
+        assertEquals(List.of("Yellow"), trie.searchFuzzy("yelow", 2, 1), "Debe respetar el límite");
+        assertTrue(trie.searchFuzzy("xyz", 1, 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> trie.searchFuzzy("helo", -1, 10));
+    }
+
+    /**
+     * Verifica que la caché de populares, actualizada de forma incremental,
+     * coincide con ordenar todo el subárbol tras altas, bajas y cambios de
+     * puntaje y frecuencia.
+     */
+    @Test
+    @DisplayName("Caché de populares incremental coincide con el orden completo")
+    void testCachePopularesIncremental() {
+        Trie chico = new Trie(3);
+        Random random = new Random(7);
+        String[] prefijos = {"a", "b", "c", "ab", "ba", "abc", "cc"};
+
+        for (int paso = 0; paso < 2000; paso++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = random.nextInt(4); i >= 0; i--) {
+                sb.append((char) ('a' + random.nextInt(3)));
+            }
+            String palabra = sb.toString();
+
+            switch (random.nextInt(5)) {
+                case 0, 1 -> chico.insert(palabra);
+                case 2 -> chico.delete(palabra);
+                case 3 -> chico.addScore(palabra, random.nextInt(7) - 3);
+                default -> chico.addFrequency(palabra, random.nextInt(5) - 2);
+            }
+
+            for (String prefijo : prefijos) {
+                List<String> completo = chico.searchByPrefixMostPopular(prefijo, 1000);
+                assertEquals(completo.subList(0, Math.min(3, completo.size())),
+                        chico.searchByPrefixMostPopular(prefijo, 3), "Prefijo " + prefijo + " en el paso " + paso);
+            }
+        }
+    }
 }
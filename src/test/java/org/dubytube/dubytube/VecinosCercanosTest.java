@@ -0,0 +1,181 @@
+package org.dubytube.dubytube;
+
+import org.dubytube.dubytube.ds.GrafoSimilitud;
+import org.dubytube.dubytube.ds.VecinosCercanos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del acumulador de k vecinos más cercanos.
+ *
+ * <p>Cubre los siguientes casos:</p>
+ * <ul>
+ *   <li>El grafo volcado es la unión de los k mejores de cada canción</li>
+ *   <li>Ofrecer un par repetido no lo duplica</li>
+ *   <li>Quitar una canción libera un lugar en las listas que la tenían</li>
+ *   <li>k menor que 1 se rechaza</li>
+ * </ul>
+ *
+ * @author DubyTube Team
+ * @version 1.0
+ * @since 2025-11-18
+ */
+@DisplayName("Pruebas de VecinosCercanos")
+class VecinosCercanosTest {
+
+    private static final int N = 60;
+    private static final int K = 4;
+
+    private double[][] distancia;
+
+    /** Distancias al azar con muchos empates (solo 10 valores posibles). */
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(3);
+        distancia = new double[N][N];
+        for (int i = 0; i < N; i++) {
+            for (int j = i + 1; j < N; j++) {
+                distancia[i][j] = distancia[j][i] = 0.1 * (1 + random.nextInt(10));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Grafo volcado igual a la unión de los k mejores")
+    void testUnionDeKMejores() {
+        VecinosCercanos vecinos = new VecinosCercanos(K);
+        for (int i = 0; i < N; i++) {
+            for (int j = i + 1; j < N; j++) {
+                vecinos.ofrecer(id(i), id(j), distancia[i][j]);
+            }
+        }
+        GrafoSimilitud grafo = nuevoGrafo();
+        vecinos.volcarEn(grafo);
+
+        assertEquals(unionEsperada(), aristas(grafo));
+        for (int i = 0; i < N; i++) {
+            assertTrue(grafo.vecinos(id(i)).size() >= K, "Menos de k vecinos en " + id(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Un par repetido no se duplica")
+    void testParRepetido() {
+        VecinosCercanos vecinos = new VecinosCercanos(2);
+        vecinos.ofrecer("a", "b", 0.1);
+        vecinos.ofrecer("a", "b", 0.1);
+        vecinos.ofrecer("b", "a", 0.1);
+        vecinos.ofrecer("a", "c", 0.2);
+        vecinos.ofrecer("a", "a", 0.0);
+
+        GrafoSimilitud grafo = new GrafoSimilitud();
+        vecinos.volcarEn(grafo);
+        assertEquals(Set.of("b", "c"), new HashSet<>(grafo.vecinos("a")));
+    }
+
+    /**
+     * Tras quitar una canción y recalcular las listas que la tenían, el
+     * grafo es el mismo que si nunca hubiera estado.
+     */
+    @Test
+    @DisplayName("Quitar una canción y rellenar las listas")
+    void testQuitarYRecalcular() {
+        VecinosCercanos vecinos = new VecinosCercanos(K);
+        for (int i = 0; i < N; i++) {
+            for (int j = i + 1; j < N; j++) {
+                vecinos.ofrecer(id(i), id(j), distancia[i][j]);
+            }
+        }
+        GrafoSimilitud grafo = nuevoGrafo();
+        vecinos.volcarEn(grafo);
+
+        int quitada = 0;
+        Set<String> tocadas = new HashSet<>();
+        Set<String> pendientes = vecinos.quitar(id(quitada), grafo, tocadas);
+        assertTrue(grafo.vecinos(id(quitada)).isEmpty());
+        assertTrue(tocadas.containsAll(pendientes));
+
+        for (String p : pendientes) {
+            int i = Integer.parseInt(p.substring(1));
+            List<String> candidatas = new ArrayList<>();
+            List<Double> d = new ArrayList<>();
+            for (int j = 0; j < N; j++) {
+                if (j != i && j != quitada) {
+                    candidatas.add(id(j));
+                    d.add(distancia[i][j]);
+                }
+            }
+            vecinos.recalcular(p, candidatas, d.stream().mapToDouble(Double::doubleValue).toArray(), grafo, tocadas);
+        }
+
+        // Referencia: construir desde cero sin la canción quitada
+        VecinosCercanos sinQuitada = new VecinosCercanos(K);
+        for (int i = 1; i < N; i++) {
+            for (int j = i + 1; j < N; j++) {
+                sinQuitada.ofrecer(id(i), id(j), distancia[i][j]);
+            }
+        }
+        GrafoSimilitud esperado = nuevoGrafo();
+        sinQuitada.volcarEn(esperado);
+        assertEquals(aristas(esperado), aristas(grafo));
+    }
+
+    @Test
+    @DisplayName("k menor que 1 se rechaza")
+    void testKInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> new VecinosCercanos(0));
+    }
+
+    /**
+     * Pares i-j donde j está entre los k mejores de i o viceversa, con el
+     * mismo desempate que el acumulador (distancia y luego ID).
+     */
+    private Set<String> unionEsperada() {
+        Set<String> out = new HashSet<>();
+        for (int i = 0; i < N; i++) {
+            final int origen = i;
+            List<Integer> otros = new ArrayList<>();
+            for (int j = 0; j < N; j++) {
+                if (j != i) {
+                    otros.add(j);
+                }
+            }
+            otros.sort(Comparator.<Integer>comparingDouble(j -> distancia[origen][j]).thenComparing(VecinosCercanosTest::id));
+            for (int j : otros.subList(0, K)) {
+                out.add(par(id(i), id(j)));
+            }
+        }
+        return out;
+    }
+
+    private static GrafoSimilitud nuevoGrafo() {
+        GrafoSimilitud grafo = new GrafoSimilitud();
+        for (int i = 0; i < N; i++) {
+            grafo.agregarCancion(id(i));
+        }
+        return grafo;
+    }
+
+    private static Set<String> aristas(GrafoSimilitud grafo) {
+        Set<String> out = new HashSet<>();
+        for (int i = 0; i < N; i++) {
+            for (String otro : grafo.vecinos(id(i))) {
+                out.add(par(id(i), otro));
+            }
+        }
+        return out;
+    }
+
+    private static String id(int i) {
+        return "c" + i;
+    }
+
+    private static String par(String a, String b) {
+        return a.compareTo(b) < 0 ? a + "|" + b : b + "|" + a;
+    }
+}